@@ -3,6 +3,7 @@ package com.rnexchange;
 import com.rnexchange.config.ApplicationProperties;
 import com.rnexchange.config.CRLFLogConverter;
 import com.rnexchange.config.MockMarketDataProperties;
+import com.rnexchange.config.TradingProperties;
 import jakarta.annotation.PostConstruct;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -22,7 +23,9 @@ import tech.jhipster.config.DefaultProfileUtil;
 import tech.jhipster.config.JHipsterConstants;
 
 @SpringBootApplication(exclude = { H2ConsoleAutoConfiguration.class })
-@EnableConfigurationProperties({ LiquibaseProperties.class, ApplicationProperties.class, MockMarketDataProperties.class })
+@EnableConfigurationProperties(
+    { LiquibaseProperties.class, ApplicationProperties.class, MockMarketDataProperties.class, TradingProperties.class }
+)
 public class RnexchangeApp {
 
     private static final Logger LOG = LoggerFactory.getLogger(RnexchangeApp.class);
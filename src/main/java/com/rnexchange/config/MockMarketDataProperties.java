@@ -1,13 +1,21 @@
 package com.rnexchange.config;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
@@ -23,21 +31,49 @@ public class MockMarketDataProperties {
     @Max(10)
     private int batchSize = 4;
 
+    /**
+     * Timeframe, in seconds, of the bars published on the legacy {@code /topic/bars/{symbol}} topic. Must be one of
+     * the maintained timeframes (1, 60, 300, 900 or 3600); every timeframe is also published on
+     * {@code /topic/bars/{timeframe}/{symbol}}.
+     */
     @Min(1)
-    @Max(600)
+    @Max(3600)
     private int barIntervalSeconds = 60;
 
+    /**
+     * Number of threads tick generation is spread across. Instruments are assigned to a generator shard by
+     * {@link #partitioning}; each shard owns its instruments exclusively.
+     */
+    @Min(1)
+    @Max(64)
+    private int generatorThreads = 1;
+
+    @NotNull
+    private GeneratorPartitioning partitioning = GeneratorPartitioning.EXCHANGE;
+
+    /**
+     * Seed of the random walk. Every instrument draws from its own stream derived from this seed and its symbol, so
+     * a seeded run repeats regardless of {@link #generatorThreads} and {@link #partitioning}. When unset, a seed is
+     * picked at start and logged.
+     */
+    private Long seed;
+
     @NotNull
     @DecimalMin(value = "0.01")
     private BigDecimal minPrice = new BigDecimal("1.00");
 
     @NotNull
     @DecimalMin(value = "0.01")
-    private BigDecimal maxPrice = new BigDecimal("10000.00");
+    private BigDecimal defaultPrice = new BigDecimal("100.00");
 
+    /**
+     * Half-width of each instrument's price rails around its session open, e.g. 0.50 lets a walk range from half to
+     * one and a half times the open. {@link #minPrice} stays a hard floor.
+     */
     @NotNull
     @DecimalMin(value = "0.01")
-    private BigDecimal defaultPrice = new BigDecimal("100.00");
+    @DecimalMax(value = "0.99")
+    private BigDecimal railPercent = new BigDecimal("0.50");
 
     @NotNull
     @DecimalMin(value = "0.001")
@@ -46,6 +82,19 @@ public class MockMarketDataProperties {
     @Valid
     private final VolatilityProperties volatility = new VolatilityProperties();
 
+    @Valid
+    private final HistoryProperties history = new HistoryProperties();
+
+    @Valid
+    private final ReplayProperties replay = new ReplayProperties();
+
+    /**
+     * Trading session per exchange code, in the exchange's own timezone. Exchanges without an entry trade around the
+     * clock, holidays aside.
+     */
+    @Valid
+    private final Map<String, SessionProperties> sessions = new HashMap<>();
+
     public int getIntervalMs() {
         return intervalMs;
     }
@@ -70,20 +119,36 @@ public class MockMarketDataProperties {
         this.barIntervalSeconds = barIntervalSeconds;
     }
 
-    public BigDecimal getMinPrice() {
-        return minPrice;
+    public int getGeneratorThreads() {
+        return generatorThreads;
     }
 
-    public void setMinPrice(BigDecimal minPrice) {
-        this.minPrice = minPrice;
+    public void setGeneratorThreads(int generatorThreads) {
+        this.generatorThreads = generatorThreads;
+    }
+
+    public GeneratorPartitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public void setPartitioning(GeneratorPartitioning partitioning) {
+        this.partitioning = partitioning;
     }
 
-    public BigDecimal getMaxPrice() {
-        return maxPrice;
+    public Long getSeed() {
+        return seed;
     }
 
-    public void setMaxPrice(BigDecimal maxPrice) {
-        this.maxPrice = maxPrice;
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
     }
 
     public BigDecimal getDefaultPrice() {
@@ -94,6 +159,14 @@ public class MockMarketDataProperties {
         this.defaultPrice = defaultPrice;
     }
 
+    public BigDecimal getRailPercent() {
+        return railPercent;
+    }
+
+    public void setRailPercent(BigDecimal railPercent) {
+        this.railPercent = railPercent;
+    }
+
     public BigDecimal getVolatilityBandPercent() {
         return volatilityBandPercent;
     }
@@ -106,6 +179,48 @@ public class MockMarketDataProperties {
         return volatility;
     }
 
+    public HistoryProperties getHistory() {
+        return history;
+    }
+
+    public ReplayProperties getReplay() {
+        return replay;
+    }
+
+    public Map<String, SessionProperties> getSessions() {
+        return sessions;
+    }
+
+    public enum GeneratorPartitioning {
+        /** Keep every instrument of an exchange on the same shard. */
+        EXCHANGE,
+        /** Spread instruments by symbol hash, regardless of exchange. */
+        SYMBOL,
+    }
+
+    public enum ReplaySpeed {
+        /** Ticks are emitted at their recorded spacing. */
+        X1(1),
+        /** Ticks are emitted ten times faster than recorded. */
+        X10(10),
+        /** Ticks are emitted as fast as the pipeline accepts them. */
+        MAX(0);
+
+        private final int multiplier;
+
+        ReplaySpeed(int multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public int getMultiplier() {
+            return multiplier;
+        }
+
+        public boolean isUnbounded() {
+            return multiplier == 0;
+        }
+    }
+
     public static class VolatilityProperties {
 
         private final Map<String, BigDecimal> exchange = new HashMap<>();
@@ -119,4 +234,145 @@ public class MockMarketDataProperties {
             return assetClass;
         }
     }
+
+    public static class HistoryProperties {
+
+        private boolean enabled = true;
+
+        /**
+         * Root directory of the memory-mapped bar history segments, relative to the working directory unless absolute.
+         */
+        @NotBlank
+        private String directory = Path.of("data", "bar-history").toString();
+
+        /**
+         * Bars per segment file; the default holds one day of one-second bars.
+         */
+        @Min(1024)
+        @Max(1_048_576)
+        private int segmentRecords = 86_400;
+
+        /**
+         * Seconds a series may go without appends or reads before its segments are flushed and unmapped.
+         */
+        @Min(60)
+        @Max(86_400)
+        private int idleTimeoutSeconds = 900;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentRecords() {
+            return segmentRecords;
+        }
+
+        public void setSegmentRecords(int segmentRecords) {
+            this.segmentRecords = segmentRecords;
+        }
+
+        public int getIdleTimeoutSeconds() {
+            return idleTimeoutSeconds;
+        }
+
+        public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+            this.idleTimeoutSeconds = idleTimeoutSeconds;
+        }
+    }
+
+    public static class ReplayProperties {
+
+        /**
+         * Replace the random walk with ticks read from {@link #file}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * CSV of {@code timestamp,symbol,price,volume} rows in time order, optionally gzip-compressed ({@code .gz}).
+         */
+        private String file;
+
+        @NotNull
+        private ReplaySpeed speed = ReplaySpeed.X1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public ReplaySpeed getSpeed() {
+            return speed;
+        }
+
+        public void setSpeed(ReplaySpeed speed) {
+            this.speed = speed;
+        }
+    }
+
+    public static class SessionProperties {
+
+        /**
+         * Local opening time, {@code HH:mm}.
+         */
+        @NotBlank
+        @Pattern(regexp = "\\d{2}:\\d{2}")
+        private String open = "09:15";
+
+        /**
+         * Local closing time, {@code HH:mm}; must be after {@link #open}.
+         */
+        @NotBlank
+        @Pattern(regexp = "\\d{2}:\\d{2}")
+        private String close = "15:30";
+
+        @NotEmpty
+        private Set<DayOfWeek> days = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+        public String getOpen() {
+            return open;
+        }
+
+        public void setOpen(String open) {
+            this.open = open;
+        }
+
+        public String getClose() {
+            return close;
+        }
+
+        public void setClose(String close) {
+            this.close = close;
+        }
+
+        public Set<DayOfWeek> getDays() {
+            return days;
+        }
+
+        public void setDays(Set<DayOfWeek> days) {
+            this.days = days;
+        }
+    }
 }
@@ -0,0 +1,206 @@
+package com.rnexchange.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "trading")
+public class TradingProperties {
+
+    @Valid
+    private final MatchingProperties matching = new MatchingProperties();
+
+    @Valid
+    private final AuditProperties audit = new AuditProperties();
+
+    @Valid
+    private final ExposureProperties exposure = new ExposureProperties();
+
+    @Valid
+    private final ExpiryProperties expiry = new ExpiryProperties();
+
+    public MatchingProperties getMatching() {
+        return matching;
+    }
+
+    public AuditProperties getAudit() {
+        return audit;
+    }
+
+    public ExposureProperties getExposure() {
+        return exposure;
+    }
+
+    public ExpiryProperties getExpiry() {
+        return expiry;
+    }
+
+    public static class MatchingProperties {
+
+        /**
+         * Number of single-writer threads the order books are sharded across. Every symbol is pinned to one
+         * shard, so all book mutations for that symbol are serialised without locking.
+         */
+        @Min(1)
+        @Max(64)
+        private int shards = 4;
+
+        @Min(10)
+        @Max(10000)
+        private long submitTimeoutMs = 1000;
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public long getSubmitTimeoutMs() {
+            return submitTimeoutMs;
+        }
+
+        public void setSubmitTimeoutMs(long submitTimeoutMs) {
+            this.submitTimeoutMs = submitTimeoutMs;
+        }
+    }
+
+    public static class AuditProperties {
+
+        /**
+         * Audit records held for the writer thread before {@link #overflow} applies.
+         */
+        @Min(16)
+        @Max(1_048_576)
+        private int queueCapacity = 65_536;
+
+        @Min(1)
+        @Max(10_000)
+        private int batchSize = 256;
+
+        /**
+         * How long the writer thread sleeps when the queue is empty, which bounds how late a record is written.
+         */
+        @Min(1)
+        @Max(1000)
+        private long flushIntervalMs = 50;
+
+        @NotNull
+        private AuditOverflow overflow = AuditOverflow.WRITE_THROUGH;
+
+        /**
+         * Append-only file every record is also written to, one JSON object per line. When unset, records go to the
+         * audit logger only.
+         */
+        private Path file;
+
+        /**
+         * Longest time a record written to {@link #file} may wait before it is forced to disk.
+         */
+        @Min(0)
+        @Max(60_000)
+        private long fsyncIntervalMs = 1000;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public AuditOverflow getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(AuditOverflow overflow) {
+            this.overflow = overflow;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public void setFile(Path file) {
+            this.file = file;
+        }
+
+        public long getFsyncIntervalMs() {
+            return fsyncIntervalMs;
+        }
+
+        public void setFsyncIntervalMs(long fsyncIntervalMs) {
+            this.fsyncIntervalMs = fsyncIntervalMs;
+        }
+    }
+
+    public static class ExposureProperties {
+
+        /**
+         * Delay between reconciliations of the in-memory account exposure with the database. Orders bound more
+         * recently than this are left alone, as their transaction may not have committed yet.
+         */
+        @Min(100)
+        @Max(3_600_000)
+        private long reconcileIntervalMs = 5000;
+
+        public long getReconcileIntervalMs() {
+            return reconcileIntervalMs;
+        }
+
+        public void setReconcileIntervalMs(long reconcileIntervalMs) {
+            this.reconcileIntervalMs = reconcileIntervalMs;
+        }
+    }
+
+    public static class ExpiryProperties {
+
+        /**
+         * Delay between sweeps for DAY orders whose session has closed. Bounds how long such an order can stay on
+         * the book after the close.
+         */
+        @Min(1000)
+        @Max(3_600_000)
+        private long sweepIntervalMs = 60_000;
+
+        public long getSweepIntervalMs() {
+            return sweepIntervalMs;
+        }
+
+        public void setSweepIntervalMs(long sweepIntervalMs) {
+            this.sweepIntervalMs = sweepIntervalMs;
+        }
+    }
+
+    /**
+     * What an order submission does when the audit queue is full.
+     */
+    public enum AuditOverflow {
+        /** Write the record on the submitting thread: nothing is lost, and the submitter absorbs the backlog. */
+        WRITE_THROUGH,
+        /** Discard and count the record: submission latency never depends on the audit sink. */
+        DROP,
+    }
+}
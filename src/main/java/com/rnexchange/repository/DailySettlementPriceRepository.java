@@ -1,6 +1,7 @@
 package com.rnexchange.repository;
 
 import com.rnexchange.domain.DailySettlementPrice;
+import com.rnexchange.repository.projection.LatestSettlementPriceRow;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -40,4 +41,36 @@ public interface DailySettlementPriceRepository
         "select dailySettlementPrice from DailySettlementPrice dailySettlementPrice left join fetch dailySettlementPrice.instrument where dailySettlementPrice.id =:id"
     )
     Optional<DailySettlementPrice> findOneWithToOneRelationships(@Param("id") Long id);
+
+    /**
+     * The most recent settlement price of every instrument, in one round trip regardless of the number of symbols.
+     */
+    @Query(
+        """
+            select new com.rnexchange.repository.projection.LatestSettlementPriceRow(
+                price.instrumentSymbol,
+                price.refDate,
+                price.settlePrice
+            )
+            from DailySettlementPrice price
+            where price.refDate = (
+                select max(latest.refDate) from DailySettlementPrice latest where latest.instrumentSymbol = price.instrumentSymbol
+            )
+        """
+    )
+    List<LatestSettlementPriceRow> findLatestSettlementPrices();
+
+    @Query(
+        """
+            select new com.rnexchange.repository.projection.LatestSettlementPriceRow(
+                price.instrumentSymbol,
+                price.refDate,
+                price.settlePrice
+            )
+            from DailySettlementPrice price
+            where price.instrumentSymbol = :symbol
+            order by price.refDate desc
+        """
+    )
+    List<LatestSettlementPriceRow> findSettlementPricesBySymbol(@Param("symbol") String symbol, Pageable pageable);
 }
@@ -38,5 +38,8 @@ public interface InstrumentRepository extends JpaRepository<Instrument, Long>, J
     @Query("select instrument from Instrument instrument left join fetch instrument.exchange where instrument.id =:id")
     Optional<Instrument> findOneWithToOneRelationships(@Param("id") Long id);
 
-    Optional<Instrument> findOneBySymbol(String symbol);
+    @Query("select instrument from Instrument instrument left join fetch instrument.exchange where instrument.symbol =:symbol")
+    Optional<Instrument> findOneBySymbol(@Param("symbol") String symbol);
+
+    List<Instrument> findAllByStatusIgnoreCase(String status);
 }
@@ -1,6 +1,7 @@
 package com.rnexchange.repository;
 
 import com.rnexchange.domain.MarginRule;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -39,4 +40,13 @@ public interface MarginRuleRepository extends JpaRepository<MarginRule, Long>, J
     Optional<MarginRule> findOneWithToOneRelationships(@Param("id") Long id);
 
     Optional<MarginRule> findOneByExchange_CodeAndScope(String exchangeCode, String scope);
+
+    @Query(
+        "select marginRule from MarginRule marginRule join fetch marginRule.exchange exchange" +
+        " where exchange.code =:exchangeCode and marginRule.scope in :scopes"
+    )
+    List<MarginRule> findAllByExchange_CodeAndScopeIn(
+        @Param("exchangeCode") String exchangeCode,
+        @Param("scopes") Collection<String> scopes
+    );
 }
@@ -38,5 +38,9 @@ public interface MarketHolidayRepository extends JpaRepository<MarketHoliday, Lo
     @Query("select marketHoliday from MarketHoliday marketHoliday left join fetch marketHoliday.exchange where marketHoliday.id =:id")
     Optional<MarketHoliday> findOneWithToOneRelationships(@Param("id") Long id);
 
-    java.util.List<MarketHoliday> findAllByExchange_CodeAndTradeDateAndIsHolidayTrue(String exchangeCode, java.time.LocalDate tradeDate);
+    @Query(
+        "select marketHoliday from MarketHoliday marketHoliday join fetch marketHoliday.exchange " +
+        "where marketHoliday.isHoliday = true and marketHoliday.tradeDate >= :from"
+    )
+    List<MarketHoliday> findAllHolidaysFrom(@Param("from") java.time.LocalDate from);
 }
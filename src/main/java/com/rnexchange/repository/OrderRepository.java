@@ -1,6 +1,12 @@
 package com.rnexchange.repository;
 
 import com.rnexchange.domain.Order;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -37,4 +43,78 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
 
     @Query("select jhiOrder from Order jhiOrder left join fetch jhiOrder.instrument where jhiOrder.id =:id")
     Optional<Order> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Order jhiOrder set jhiOrder.status = :status, jhiOrder.updatedAt = :updatedAt where jhiOrder.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") OrderStatus status, @Param("updatedAt") Instant updatedAt);
+
+    @Modifying
+    @Query(
+        "update Order jhiOrder set jhiOrder.qty = :qty, jhiOrder.limitPx = :limitPx, jhiOrder.updatedAt = :updatedAt" +
+        " where jhiOrder.id = :id"
+    )
+    int updateQtyAndLimitPx(
+        @Param("id") Long id,
+        @Param("qty") BigDecimal qty,
+        @Param("limitPx") BigDecimal limitPx,
+        @Param("updatedAt") Instant updatedAt
+    );
+
+    /**
+     * Pairs of trading account id and order id for the accounts' orders in one of {@code statuses}.
+     */
+    @Query(
+        "select jhiOrder.tradingAccount.id, jhiOrder.id from Order jhiOrder" +
+        " where jhiOrder.tradingAccount.id in :accountIds and jhiOrder.status in :statuses"
+    )
+    List<Object[]> findIdsByTradingAccountIdInAndStatusIn(
+        @Param("accountIds") Collection<Long> accountIds,
+        @Param("statuses") Collection<OrderStatus> statuses
+    );
+
+    /**
+     * Orders of {@code type} in one of {@code statuses} in arrival order, as rows of order id, instrument symbol,
+     * side, limit price, quantity, time in force and the quantity of the order's executions.
+     */
+    @Query(
+        "select jhiOrder.id, instrument.symbol, jhiOrder.side, jhiOrder.limitPx, jhiOrder.qty, jhiOrder.tif," +
+        " (select coalesce(sum(execution.qty), 0) from Execution execution where execution.order = jhiOrder)" +
+        " from Order jhiOrder join jhiOrder.instrument instrument" +
+        " where jhiOrder.type = :type and jhiOrder.status in :statuses order by jhiOrder.createdAt, jhiOrder.id"
+    )
+    List<Object[]> findBookRowsByTypeAndStatusIn(@Param("type") OrderType type, @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("select distinct jhiOrder.venue from Order jhiOrder where jhiOrder.tif = :tif and jhiOrder.status in :statuses")
+    List<String> findDistinctVenueByTifAndStatusIn(@Param("tif") Tif tif, @Param("statuses") Collection<OrderStatus> statuses);
+
+    /**
+     * Pairs of order id and instrument symbol for the venue's orders with {@code tif} in one of {@code statuses}
+     * that were created before {@code createdBefore}.
+     */
+    @Query(
+        "select jhiOrder.id, instrument.symbol from Order jhiOrder left join jhiOrder.instrument instrument" +
+        " where jhiOrder.venue = :venue and jhiOrder.tif = :tif and jhiOrder.status in :statuses" +
+        " and jhiOrder.createdAt < :createdBefore"
+    )
+    List<Object[]> findIdsAndSymbolsByVenueAndTifAndStatusInAndCreatedAtBefore(
+        @Param("venue") String venue,
+        @Param("tif") Tif tif,
+        @Param("statuses") Collection<OrderStatus> statuses,
+        @Param("createdBefore") Instant createdBefore
+    );
+
+    /**
+     * Move every order of {@code ids} that is still in one of {@code statuses} to {@code status} in one statement.
+     */
+    @Modifying
+    @Query(
+        "update Order jhiOrder set jhiOrder.status = :status, jhiOrder.updatedAt = :updatedAt" +
+        " where jhiOrder.id in :ids and jhiOrder.status in :statuses"
+    )
+    int updateStatusByIdInAndStatusIn(
+        @Param("ids") Collection<Long> ids,
+        @Param("statuses") Collection<OrderStatus> statuses,
+        @Param("status") OrderStatus status,
+        @Param("updatedAt") Instant updatedAt
+    );
 }
@@ -1,6 +1,8 @@
 package com.rnexchange.repository;
 
 import com.rnexchange.domain.Position;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -37,4 +39,19 @@ public interface PositionRepository extends JpaRepository<Position, Long>, JpaSp
 
     @Query("select position from Position position left join fetch position.instrument where position.id =:id")
     Optional<Position> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Query("select position from Position position left join fetch position.instrument where position.tradingAccount.id =:tradingAccountId")
+    List<Position> findAllWithInstrumentByTradingAccountId(@Param("tradingAccountId") Long tradingAccountId);
+
+    @Query(
+        "select position from Position position left join fetch position.instrument" +
+        " where position.tradingAccount.id in :tradingAccountIds"
+    )
+    List<Position> findAllWithInstrumentByTradingAccountIdIn(@Param("tradingAccountIds") Collection<Long> tradingAccountIds);
+
+    /**
+     * The account's position in the instrument, locked until the transaction ends so concurrent fills apply in turn.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Position> findOneByTradingAccountIdAndInstrumentId(Long tradingAccountId, Long instrumentId);
 }
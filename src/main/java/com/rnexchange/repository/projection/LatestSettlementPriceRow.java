@@ -0,0 +1,6 @@
+package com.rnexchange.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record LatestSettlementPriceRow(String instrumentSymbol, LocalDate refDate, BigDecimal settlePrice) {}
@@ -23,9 +23,12 @@ public class ExchangeService {
 
     private final ExchangeMapper exchangeMapper;
 
-    public ExchangeService(ExchangeRepository exchangeRepository, ExchangeMapper exchangeMapper) {
+    private final ReferenceDataCache referenceDataCache;
+
+    public ExchangeService(ExchangeRepository exchangeRepository, ExchangeMapper exchangeMapper, ReferenceDataCache referenceDataCache) {
         this.exchangeRepository = exchangeRepository;
         this.exchangeMapper = exchangeMapper;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -38,6 +41,7 @@ public class ExchangeService {
         LOG.debug("Request to save Exchange : {}", exchangeDTO);
         Exchange exchange = exchangeMapper.toEntity(exchangeDTO);
         exchange = exchangeRepository.save(exchange);
+        referenceDataCache.evictAll();
         return exchangeMapper.toDto(exchange);
     }
 
@@ -51,6 +55,7 @@ public class ExchangeService {
         LOG.debug("Request to update Exchange : {}", exchangeDTO);
         Exchange exchange = exchangeMapper.toEntity(exchangeDTO);
         exchange = exchangeRepository.save(exchange);
+        referenceDataCache.evictAll();
         return exchangeMapper.toDto(exchange);
     }
 
@@ -71,6 +76,10 @@ public class ExchangeService {
                 return existingExchange;
             })
             .map(exchangeRepository::save)
+            .map(saved -> {
+                referenceDataCache.evictAll();
+                return saved;
+            })
             .map(exchangeMapper::toDto);
     }
 
@@ -94,5 +103,6 @@ public class ExchangeService {
     public void delete(Long id) {
         LOG.debug("Request to delete Exchange : {}", id);
         exchangeRepository.deleteById(id);
+        referenceDataCache.evictAll();
     }
 }
@@ -4,9 +4,12 @@ import com.rnexchange.domain.Instrument;
 import com.rnexchange.repository.InstrumentRepository;
 import com.rnexchange.service.dto.InstrumentDTO;
 import com.rnexchange.service.mapper.InstrumentMapper;
+import com.rnexchange.service.marketdata.events.InstrumentChangedEvent;
+import java.time.Instant;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,9 +28,20 @@ public class InstrumentService {
 
     private final InstrumentMapper instrumentMapper;
 
-    public InstrumentService(InstrumentRepository instrumentRepository, InstrumentMapper instrumentMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public InstrumentService(
+        InstrumentRepository instrumentRepository,
+        InstrumentMapper instrumentMapper,
+        ApplicationEventPublisher eventPublisher,
+        ReferenceDataCache referenceDataCache
+    ) {
         this.instrumentRepository = instrumentRepository;
         this.instrumentMapper = instrumentMapper;
+        this.eventPublisher = eventPublisher;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -40,6 +54,7 @@ public class InstrumentService {
         LOG.debug("Request to save Instrument : {}", instrumentDTO);
         Instrument instrument = instrumentMapper.toEntity(instrumentDTO);
         instrument = instrumentRepository.save(instrument);
+        publishChanged(instrument.getId(), null);
         return instrumentMapper.toDto(instrument);
     }
 
@@ -51,8 +66,10 @@ public class InstrumentService {
      */
     public InstrumentDTO update(InstrumentDTO instrumentDTO) {
         LOG.debug("Request to update Instrument : {}", instrumentDTO);
+        String previousSymbol = currentSymbol(instrumentDTO.getId());
         Instrument instrument = instrumentMapper.toEntity(instrumentDTO);
         instrument = instrumentRepository.save(instrument);
+        publishChanged(instrument.getId(), previousSymbol);
         return instrumentMapper.toDto(instrument);
     }
 
@@ -68,11 +85,12 @@ public class InstrumentService {
         return instrumentRepository
             .findById(instrumentDTO.getId())
             .map(existingInstrument -> {
+                String previousSymbol = existingInstrument.getSymbol();
                 instrumentMapper.partialUpdate(existingInstrument, instrumentDTO);
-
-                return existingInstrument;
+                Instrument saved = instrumentRepository.save(existingInstrument);
+                publishChanged(saved.getId(), previousSymbol);
+                return saved;
             })
-            .map(instrumentRepository::save)
             .map(instrumentMapper::toDto);
     }
 
@@ -104,6 +122,17 @@ public class InstrumentService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Instrument : {}", id);
+        String previousSymbol = currentSymbol(id);
         instrumentRepository.deleteById(id);
+        publishChanged(id, previousSymbol);
+    }
+
+    private String currentSymbol(Long id) {
+        return id == null ? null : instrumentRepository.findById(id).map(Instrument::getSymbol).orElse(null);
+    }
+
+    private void publishChanged(Long id, String previousSymbol) {
+        referenceDataCache.evictInstrument(id, previousSymbol);
+        eventPublisher.publishEvent(new InstrumentChangedEvent(id, previousSymbol, Instant.now()));
     }
 }
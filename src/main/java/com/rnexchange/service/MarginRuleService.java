@@ -25,9 +25,16 @@ public class MarginRuleService {
 
     private final MarginRuleMapper marginRuleMapper;
 
-    public MarginRuleService(MarginRuleRepository marginRuleRepository, MarginRuleMapper marginRuleMapper) {
+    private final ReferenceDataCache referenceDataCache;
+
+    public MarginRuleService(
+        MarginRuleRepository marginRuleRepository,
+        MarginRuleMapper marginRuleMapper,
+        ReferenceDataCache referenceDataCache
+    ) {
         this.marginRuleRepository = marginRuleRepository;
         this.marginRuleMapper = marginRuleMapper;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -40,6 +47,7 @@ public class MarginRuleService {
         LOG.debug("Request to save MarginRule : {}", marginRuleDTO);
         MarginRule marginRule = marginRuleMapper.toEntity(marginRuleDTO);
         marginRule = marginRuleRepository.save(marginRule);
+        referenceDataCache.evictMarginRules();
         return marginRuleMapper.toDto(marginRule);
     }
 
@@ -53,6 +61,7 @@ public class MarginRuleService {
         LOG.debug("Request to update MarginRule : {}", marginRuleDTO);
         MarginRule marginRule = marginRuleMapper.toEntity(marginRuleDTO);
         marginRule = marginRuleRepository.save(marginRule);
+        referenceDataCache.evictMarginRules();
         return marginRuleMapper.toDto(marginRule);
     }
 
@@ -73,6 +82,10 @@ public class MarginRuleService {
                 return existingMarginRule;
             })
             .map(marginRuleRepository::save)
+            .map(saved -> {
+                referenceDataCache.evictMarginRules();
+                return saved;
+            })
             .map(marginRuleMapper::toDto);
     }
 
@@ -105,5 +118,6 @@ public class MarginRuleService {
     public void delete(Long id) {
         LOG.debug("Request to delete MarginRule : {}", id);
         marginRuleRepository.deleteById(id);
+        referenceDataCache.evictMarginRules();
     }
 }
@@ -2,7 +2,26 @@ package com.rnexchange.service;
 
 import com.rnexchange.service.dto.MarginAssessment;
 import com.rnexchange.service.dto.TraderOrderRequest;
+import com.rnexchange.service.trading.MarginReservation;
+import com.rnexchange.service.trading.OrderContext;
 
 public interface MarginService {
     MarginAssessment evaluateMargin(TraderOrderRequest request);
+
+    /**
+     * Evaluate margin against reference data the caller already resolved, without looking any of it up again.
+     */
+    MarginAssessment evaluateMargin(TraderOrderRequest request, OrderContext context);
+
+    /**
+     * Check margin and block the initial requirement against the account in one step, so concurrent orders cannot
+     * each pass against the same funds. The caller must bind or release the returned reservation.
+     */
+    MarginReservation reserveMargin(TraderOrderRequest request, OrderContext context);
+
+    /**
+     * Check margin for replacing an open order with {@code request} and block only what the replacement needs beyond
+     * what the order already blocks. The caller must fold the returned reservation into the order or release it.
+     */
+    MarginReservation reserveReplacementMargin(TraderOrderRequest request, OrderContext context, Long orderId);
 }
@@ -1,18 +1,18 @@
 package com.rnexchange.service;
 
-import com.rnexchange.domain.Instrument;
 import com.rnexchange.domain.MarginRule;
 import com.rnexchange.domain.TradingAccount;
-import com.rnexchange.domain.enumeration.AssetClass;
-import com.rnexchange.repository.InstrumentRepository;
-import com.rnexchange.repository.MarginRuleRepository;
-import com.rnexchange.repository.TradingAccountRepository;
 import com.rnexchange.service.dto.MarginAssessment;
 import com.rnexchange.service.dto.TraderOrderRequest;
+import com.rnexchange.service.trading.AccountExposureBook;
+import com.rnexchange.service.trading.AccountExposureBook.Reservation;
+import com.rnexchange.service.trading.MarginReservation;
+import com.rnexchange.service.trading.OrderContext;
+import com.rnexchange.service.trading.OrderContextResolver;
+import com.rnexchange.service.trading.PositionExposureLoader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Objects;
-import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -24,62 +24,118 @@ public class MarginServiceImpl implements MarginService {
 
     private static final Logger LOG = LoggerFactory.getLogger(MarginServiceImpl.class);
 
-    private final TradingAccountRepository tradingAccountRepository;
-    private final InstrumentRepository instrumentRepository;
-    private final MarginRuleRepository marginRuleRepository;
+    private final OrderContextResolver orderContextResolver;
+
+    private final AccountExposureBook accountExposureBook;
+
+    private final PositionExposureLoader positionExposureLoader;
 
     public MarginServiceImpl(
-        TradingAccountRepository tradingAccountRepository,
-        InstrumentRepository instrumentRepository,
-        MarginRuleRepository marginRuleRepository
+        OrderContextResolver orderContextResolver,
+        AccountExposureBook accountExposureBook,
+        PositionExposureLoader positionExposureLoader
     ) {
-        this.tradingAccountRepository = tradingAccountRepository;
-        this.instrumentRepository = instrumentRepository;
-        this.marginRuleRepository = marginRuleRepository;
+        this.orderContextResolver = orderContextResolver;
+        this.accountExposureBook = accountExposureBook;
+        this.positionExposureLoader = positionExposureLoader;
     }
 
     @Override
     public MarginAssessment evaluateMargin(TraderOrderRequest request) {
         Objects.requireNonNull(request, "Margin request must not be null");
         validateRequestValues(request);
+        return evaluateMargin(request, orderContextResolver.resolve(request));
+    }
+
+    @Override
+    public MarginAssessment evaluateMargin(TraderOrderRequest request, OrderContext context) {
+        Objects.requireNonNull(request, "Margin request must not be null");
+        Objects.requireNonNull(context, "Order context must not be null");
+        validateRequestValues(request);
+
+        Long accountId = track(context.tradingAccount());
+        Requirement requirement = requirement(request, context.marginRule());
+        MarginAssessment assessment = assess(requirement, accountExposureBook.available(accountId));
+        if (!assessment.sufficient()) {
+            throw insufficient(request, assessment);
+        }
+        return assessment;
+    }
+
+    @Override
+    public MarginReservation reserveMargin(TraderOrderRequest request, OrderContext context) {
+        Objects.requireNonNull(request, "Margin request must not be null");
+        Objects.requireNonNull(context, "Order context must not be null");
+        validateRequestValues(request);
 
-        TradingAccount tradingAccount = tradingAccountRepository
-            .findFirstByTrader_User_LoginOrderByIdAsc(request.getTraderLogin())
-            .orElseThrow(() -> new IllegalStateException("Trading account not found for trader login " + request.getTraderLogin()));
+        Long accountId = track(context.tradingAccount());
+        Requirement requirement = requirement(request, context.marginRule());
+        Reservation reservation = accountExposureBook.reserve(accountId, requirement.initial());
+        MarginAssessment assessment = assess(requirement, reservation.availableBefore());
+        if (!reservation.accepted()) {
+            throw insufficient(request, assessment);
+        }
+        return new MarginReservation(assessment, reservation);
+    }
 
-        Instrument instrument = resolveInstrument(request);
+    @Override
+    public MarginReservation reserveReplacementMargin(TraderOrderRequest request, OrderContext context, Long orderId) {
+        Objects.requireNonNull(request, "Margin request must not be null");
+        Objects.requireNonNull(context, "Order context must not be null");
+        Objects.requireNonNull(orderId, "Order id must not be null");
+        validateRequestValues(request);
 
-        MarginRule marginRule = resolveMarginRule(instrument);
+        Long accountId = track(context.tradingAccount());
+        Requirement requirement = requirement(request, context.marginRule());
+        Reservation reservation = accountExposureBook.reserveReplacement(accountId, orderId, requirement.initial());
+        MarginAssessment assessment = assess(requirement, reservation.availableBefore());
+        if (!reservation.accepted()) {
+            throw insufficient(request, assessment);
+        }
+        return new MarginReservation(assessment, reservation);
+    }
 
+    /**
+     * Make sure the exposure book knows the account, seeding it from the persisted balance and positions on first
+     * use.
+     */
+    private Long track(TradingAccount tradingAccount) {
+        Long accountId = Objects.requireNonNull(tradingAccount.getId(), "Trading account must be persisted");
+        if (!accountExposureBook.isTracked(accountId)) {
+            accountExposureBook.track(accountId, tradingAccount.getBalance(), positionExposureLoader.load(accountId));
+        }
+        return accountId;
+    }
+
+    private Requirement requirement(TraderOrderRequest request, MarginRule marginRule) {
         BigDecimal notional = request.getPrice().multiply(request.getQuantity()).setScale(2, RoundingMode.HALF_UP);
         BigDecimal initialRequirement = notional.multiply(defaultIfNull(marginRule.getInitialPct())).setScale(2, RoundingMode.HALF_UP);
         BigDecimal maintenanceRequirement = notional.multiply(defaultIfNull(marginRule.getMaintPct())).setScale(2, RoundingMode.HALF_UP);
+        return new Requirement(initialRequirement, maintenanceRequirement);
+    }
 
-        BigDecimal availableBalance = defaultIfNull(tradingAccount.getBalance()).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal remainingBalance = availableBalance.subtract(initialRequirement).setScale(2, RoundingMode.HALF_UP);
-
-        boolean sufficient = remainingBalance.compareTo(BigDecimal.ZERO) >= 0;
-        MarginAssessment assessment = new MarginAssessment(
-            initialRequirement,
-            maintenanceRequirement,
+    private MarginAssessment assess(Requirement requirement, BigDecimal available) {
+        BigDecimal availableBalance = available.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal remainingBalance = availableBalance.subtract(requirement.initial()).setScale(2, RoundingMode.HALF_UP);
+        return new MarginAssessment(
+            requirement.initial(),
+            requirement.maintenance(),
             availableBalance,
             remainingBalance,
-            sufficient
+            remainingBalance.compareTo(BigDecimal.ZERO) >= 0
         );
+    }
 
-        if (!sufficient) {
-            String message =
-                "Insufficient margin for trader %s on instrument %s: required %s, available %s".formatted(
-                        request.getTraderLogin(),
-                        request.getInstrumentSymbol(),
-                        initialRequirement,
-                        availableBalance
-                    );
-            LOG.warn(message);
-            throw new InsufficientMarginException(message, assessment);
-        }
-
-        return assessment;
+    private InsufficientMarginException insufficient(TraderOrderRequest request, MarginAssessment assessment) {
+        String message =
+            "Insufficient margin for trader %s on instrument %s: required %s, available %s".formatted(
+                    request.getTraderLogin(),
+                    request.getInstrumentSymbol(),
+                    assessment.initialRequirement(),
+                    assessment.availableBalance()
+                );
+        LOG.warn(message);
+        return new InsufficientMarginException(message, assessment);
     }
 
     private void validateRequestValues(TraderOrderRequest request) {
@@ -91,50 +147,9 @@ public class MarginServiceImpl implements MarginService {
         }
     }
 
-    private MarginRule resolveMarginRule(Instrument instrument) {
-        String exchangeCode = instrument.getExchange().getCode();
-        String scope =
-            switch (instrument.getAssetClass()) {
-                case EQUITY -> exchangeCode + "_CASH";
-                case COMMODITY -> exchangeCode + "_COMMODITY";
-                default -> exchangeCode + "_" + instrument.getAssetClass().name();
-            };
-        return marginRuleRepository
-            .findOneByExchange_CodeAndScope(exchangeCode, scope)
-            .or(() -> fallbackDerivativeScope(exchangeCode, instrument.getAssetClass()))
-            .orElseThrow(() -> new IllegalStateException("Margin rule not found for scope %s on exchange %s".formatted(scope, exchangeCode))
-            );
-    }
-
-    private Optional<MarginRule> fallbackDerivativeScope(String exchangeCode, AssetClass assetClass) {
-        if (assetClass == AssetClass.EQUITY) {
-            return marginRuleRepository.findOneByExchange_CodeAndScope(exchangeCode, exchangeCode + "_FNO");
-        }
-        return Optional.empty();
-    }
-
-    private Instrument resolveInstrument(TraderOrderRequest request) {
-        if (request.getInstrumentSymbol() != null) {
-            // Avoid Optional.get() to comply with modernizer rules; keep the original
-            // behaviour of preferring symbol lookup but falling back to ID when absent.
-            Optional<Instrument> bySymbol = instrumentRepository.findOneBySymbol(request.getInstrumentSymbol());
-            if (bySymbol.isPresent()) {
-                return bySymbol.orElseThrow();
-            }
-        }
-        if (request.getInstrumentId() != null) {
-            return instrumentRepository
-                .findById(request.getInstrumentId())
-                .orElseThrow(() ->
-                    new IllegalStateException(
-                        "Instrument not found for id " + request.getInstrumentId() + " (symbol=" + request.getInstrumentSymbol() + ")"
-                    )
-                );
-        }
-        throw new IllegalStateException("Instrument not found for symbol " + request.getInstrumentSymbol());
-    }
-
     private BigDecimal defaultIfNull(BigDecimal value) {
         return value != null ? value : BigDecimal.ZERO;
     }
+
+    private record Requirement(BigDecimal initial, BigDecimal maintenance) {}
 }
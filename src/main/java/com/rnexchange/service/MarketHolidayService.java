@@ -4,9 +4,12 @@ import com.rnexchange.domain.MarketHoliday;
 import com.rnexchange.repository.MarketHolidayRepository;
 import com.rnexchange.service.dto.MarketHolidayDTO;
 import com.rnexchange.service.mapper.MarketHolidayMapper;
+import com.rnexchange.service.marketdata.events.MarketHolidayChangedEvent;
+import java.time.Instant;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,9 +28,16 @@ public class MarketHolidayService {
 
     private final MarketHolidayMapper marketHolidayMapper;
 
-    public MarketHolidayService(MarketHolidayRepository marketHolidayRepository, MarketHolidayMapper marketHolidayMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MarketHolidayService(
+        MarketHolidayRepository marketHolidayRepository,
+        MarketHolidayMapper marketHolidayMapper,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.marketHolidayRepository = marketHolidayRepository;
         this.marketHolidayMapper = marketHolidayMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -40,6 +50,7 @@ public class MarketHolidayService {
         LOG.debug("Request to save MarketHoliday : {}", marketHolidayDTO);
         MarketHoliday marketHoliday = marketHolidayMapper.toEntity(marketHolidayDTO);
         marketHoliday = marketHolidayRepository.save(marketHoliday);
+        publishChanged(marketHoliday.getId());
         return marketHolidayMapper.toDto(marketHoliday);
     }
 
@@ -53,6 +64,7 @@ public class MarketHolidayService {
         LOG.debug("Request to update MarketHoliday : {}", marketHolidayDTO);
         MarketHoliday marketHoliday = marketHolidayMapper.toEntity(marketHolidayDTO);
         marketHoliday = marketHolidayRepository.save(marketHoliday);
+        publishChanged(marketHoliday.getId());
         return marketHolidayMapper.toDto(marketHoliday);
     }
 
@@ -73,6 +85,10 @@ public class MarketHolidayService {
                 return existingMarketHoliday;
             })
             .map(marketHolidayRepository::save)
+            .map(saved -> {
+                publishChanged(saved.getId());
+                return saved;
+            })
             .map(marketHolidayMapper::toDto);
     }
 
@@ -105,5 +121,10 @@ public class MarketHolidayService {
     public void delete(Long id) {
         LOG.debug("Request to delete MarketHoliday : {}", id);
         marketHolidayRepository.deleteById(id);
+        publishChanged(id);
+    }
+
+    private void publishChanged(Long id) {
+        eventPublisher.publishEvent(new MarketHolidayChangedEvent(id, Instant.now()));
     }
 }
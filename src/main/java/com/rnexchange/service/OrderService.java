@@ -1,30 +1,55 @@
 package com.rnexchange.service;
 
+import com.rnexchange.domain.Execution;
 import com.rnexchange.domain.Instrument;
 import com.rnexchange.domain.Order;
 import com.rnexchange.domain.TradingAccount;
-import com.rnexchange.repository.InstrumentRepository;
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.repository.ExecutionRepository;
 import com.rnexchange.repository.OrderRepository;
-import com.rnexchange.repository.TradingAccountRepository;
 import com.rnexchange.security.AuthoritiesConstants;
 import com.rnexchange.service.dto.MarginAssessment;
 import com.rnexchange.service.dto.OrderDTO;
 import com.rnexchange.service.dto.TraderOrderRequest;
 import com.rnexchange.service.dto.TraderOrderResult;
 import com.rnexchange.service.mapper.OrderMapper;
-import com.rnexchange.service.trading.TraderAuditStructuredLogger;
+import com.rnexchange.service.trading.AccountExposureBook;
+import com.rnexchange.service.trading.AccountExposureReconciler;
+import com.rnexchange.service.trading.BookOrder;
+import com.rnexchange.service.trading.Fill;
+import com.rnexchange.service.trading.MarginReservation;
+import com.rnexchange.service.trading.MatchResult;
+import com.rnexchange.service.trading.MatchingEngine;
+import com.rnexchange.service.trading.OrderContext;
+import com.rnexchange.service.trading.OrderContextResolver;
+import com.rnexchange.service.trading.PositionUpdater;
+import com.rnexchange.service.trading.TraderAuditPublisher;
 import com.rnexchange.service.trading.TraderAuditStructuredLogger.TraderAuditPayload;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link com.rnexchange.domain.Order}.
@@ -34,34 +59,53 @@ import org.springframework.transaction.annotation.Transactional;
 public class OrderService {
 
     private static final Logger LOG = LoggerFactory.getLogger(OrderService.class);
-    private static final Logger AUDIT_LOG = LoggerFactory.getLogger("com.rnexchange.service.trading.TraderAuditLogger");
+    private static final String EXECUTION_LIQUIDITY_TAKER = "TAKER";
+    private static final String EXECUTION_LIQUIDITY_MAKER = "MAKER";
+    private static final Set<OrderStatus> RESTING_STATUSES = EnumSet.of(OrderStatus.WORKING, OrderStatus.PARTIAL);
+    private static final Set<OrderStatus> UNFILLED_STATUSES = EnumSet.of(OrderStatus.NEW, OrderStatus.ACCEPTED, OrderStatus.WORKING);
 
     private final OrderRepository orderRepository;
 
     private final OrderMapper orderMapper;
 
-    private final InstrumentRepository instrumentRepository;
-
-    private final TradingAccountRepository tradingAccountRepository;
+    private final OrderContextResolver orderContextResolver;
 
     private final MarginService marginService;
 
-    private final TraderAuditStructuredLogger traderAuditStructuredLogger;
+    private final TraderAuditPublisher traderAuditPublisher;
+
+    private final MatchingEngine matchingEngine;
+
+    private final ExecutionRepository executionRepository;
+
+    private final AccountExposureBook accountExposureBook;
+
+    private final PositionUpdater positionUpdater;
+
+    private final TransactionTemplate transactionTemplate;
 
     public OrderService(
         OrderRepository orderRepository,
         OrderMapper orderMapper,
-        InstrumentRepository instrumentRepository,
-        TradingAccountRepository tradingAccountRepository,
+        OrderContextResolver orderContextResolver,
         MarginService marginService,
-        TraderAuditStructuredLogger traderAuditStructuredLogger
+        TraderAuditPublisher traderAuditPublisher,
+        MatchingEngine matchingEngine,
+        ExecutionRepository executionRepository,
+        AccountExposureBook accountExposureBook,
+        PositionUpdater positionUpdater,
+        PlatformTransactionManager transactionManager
     ) {
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
-        this.instrumentRepository = instrumentRepository;
-        this.tradingAccountRepository = tradingAccountRepository;
+        this.orderContextResolver = orderContextResolver;
         this.marginService = marginService;
-        this.traderAuditStructuredLogger = traderAuditStructuredLogger;
+        this.traderAuditPublisher = traderAuditPublisher;
+        this.matchingEngine = matchingEngine;
+        this.executionRepository = executionRepository;
+        this.accountExposureBook = accountExposureBook;
+        this.positionUpdater = positionUpdater;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -141,19 +185,58 @@ public class OrderService {
         orderRepository.deleteById(id);
     }
 
+    /**
+     * Admit, match and record a trader order. Each step commits before the next starts, so the matching engine only
+     * ever sees orders that exist and the database only records matches that happened: the order is saved ACCEPTED
+     * with its margin blocked, then matched, then its fills and statuses are written in a second transaction, and
+     * only then do the fills move margin in the exposure book. Runs outside any caller transaction for that reason.
+     * If the match cannot be recorded it is unwound: the makers get their quantity back on the book, and the order
+     * is taken off it, cancelled and its margin freed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TraderOrderResult submitTraderOrder(TraderOrderRequest request) {
         Objects.requireNonNull(request, "Trader order request must not be null");
-        TradingAccount tradingAccount = resolveTradingAccount(request.getTraderLogin());
-        Instrument instrument = resolveInstrument(request);
+        Admission admission = transactionTemplate.execute(status -> admit(request));
+        Order order = admission.order();
+        if (isBookable(order)) {
+            MatchResult match = submitToEngine(order);
+            try {
+                transactionTemplate.executeWithoutResult(status -> recordMatch(order, match));
+            } catch (RuntimeException ex) {
+                LOG.error("Order {} was matched but the match could not be recorded; unwinding it", order.getId(), ex);
+                unwindMatch(order, match, null, ex);
+                cancelUnrecorded(order, ex);
+                throw ex;
+            }
+            order.status(match.status()).updatedAt(Instant.now());
+            applyExposure(order.getId(), match);
+        }
+        OrderDTO dto = orderMapper.toDto(order);
+
+        logAudit(admission.context(), "ACCEPTED", "ACCEPTED", admission.assessment(), request);
+
+        return new TraderOrderResult(dto, admission.assessment());
+    }
+
+    /**
+     * Check the order and block its margin, then save it ACCEPTED and bind the margin to it. The margin is given
+     * back if the transaction does not commit.
+     */
+    private Admission admit(TraderOrderRequest request) {
+        // Account, instrument and margin rule are resolved once and shared by every admission step below.
+        OrderContext context = orderContextResolver.resolve(request);
+        TradingAccount tradingAccount = context.tradingAccount();
+        Instrument instrument = context.instrument();
         validateTickAndLotSizes(request, instrument);
 
-        MarginAssessment assessment;
+        MarginReservation margin;
         try {
-            assessment = marginService.evaluateMargin(request);
+            margin = marginService.reserveMargin(request, context);
         } catch (InsufficientMarginException ex) {
-            logAudit(tradingAccount, instrument, "REJECTED", ex.getMessage(), ex.getAssessment(), request);
+            logAudit(context, "REJECTED", ex.getMessage(), ex.getAssessment(), request);
             throw ex;
         }
+        releaseOnRollback(margin.reservation());
 
         Order order = new Order()
             .side(request.getSide())
@@ -161,7 +244,7 @@ public class OrderService {
             .qty(request.getQuantity().setScale(2, RoundingMode.HALF_UP))
             .limitPx(request.getPrice().setScale(2, RoundingMode.HALF_UP))
             .tif(request.getTif())
-            .status(com.rnexchange.domain.enumeration.OrderStatus.ACCEPTED)
+            .status(OrderStatus.ACCEPTED)
             .venue(instrument.getExchangeCode())
             .createdAt(Instant.now())
             .updatedAt(Instant.now())
@@ -169,37 +252,361 @@ public class OrderService {
             .instrument(instrument);
 
         order = orderRepository.save(order);
-        OrderDTO dto = orderMapper.toDto(order);
+        accountExposureBook.bind(margin.reservation(), order.getId(), instrument.getSymbol(), order.getSide(), order.getQty());
+        return new Admission(order, context, margin.assessment());
+    }
+
+    /**
+     * Match a committed order. If the engine does not take it, the order never traded: cancel it and free its margin.
+     */
+    private MatchResult submitToEngine(Order order) {
+        try {
+            return matchingEngine.submit(bookOrder(order, order.getInstrument().getSymbol(), order.getQty()));
+        } catch (RuntimeException ex) {
+            LOG.warn("Matching engine did not take order {}; cancelling it", order.getId(), ex);
+            transactionTemplate.executeWithoutResult(status ->
+                orderRepository.updateStatus(order.getId(), OrderStatus.CANCELED, Instant.now())
+            );
+            accountExposureBook.release(order.getId());
+            throw ex;
+        }
+    }
+
+    /**
+     * Cancel an open order of the trader's own account: take it off the book, mark it {@link OrderStatus#CANCELED}
+     * and, once that has committed, release the margin it blocks. An order the engine never held, such as a STOP
+     * order or one that did not reach its book, is cancelled in the database alone. Runs outside any caller
+     * transaction, like {@link #submitTraderOrder}.
+     *
+     * @return the cancelled order, or empty if the trader has no such order.
+     * @throws IllegalStateException if the order can no longer be cancelled, e.g. because it has been filled.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<OrderDTO> cancelTraderOrder(Long orderId, String traderLogin) {
+        Optional<Order> found = transactionTemplate.execute(status -> findTraderOrder(orderId, traderLogin));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = found.orElseThrow();
+        requireOpen(order);
+        String symbol = order.getInstrument().getSymbol();
+        Optional<BigDecimal> remaining = isBookable(order) ? matchingEngine.cancel(symbol, order.getId()) : Optional.empty();
+        if (remaining.isEmpty() && order.getType() == OrderType.LIMIT && RESTING_STATUSES.contains(order.getStatus())) {
+            // The books are rebuilt on start, so a resting order missing from its book has just traded away.
+            throw new IllegalStateException("Order %d is no longer resting".formatted(orderId));
+        }
+
+        Instant now = Instant.now();
+        int canceled;
+        try {
+            canceled = transactionTemplate.execute(status ->
+                orderRepository.updateStatusByIdInAndStatusIn(
+                    List.of(order.getId()),
+                    AccountExposureReconciler.OPEN_STATUSES,
+                    OrderStatus.CANCELED,
+                    now
+                )
+            );
+        } catch (RuntimeException ex) {
+            remaining.ifPresent(open -> restoreToBook(order, open));
+            throw ex;
+        }
+        if (canceled == 0) {
+            throw new IllegalStateException("Order %d can no longer change".formatted(orderId));
+        }
+        accountExposureBook.release(order.getId());
+        order.status(OrderStatus.CANCELED).updatedAt(now);
+        logAudit(traderLogin, symbol, "CANCELED", "ACCEPTED", null, order.getQty(), order.getLimitPx());
+        return Optional.of(orderMapper.toDto(order));
+    }
 
-        logAudit(tradingAccount, instrument, "ACCEPTED", "ACCEPTED", assessment, request);
+    /**
+     * Replace the price and open quantity of a resting LIMIT order of the trader's own account. The new open quantity
+     * is checked against tick, lot and margin like a new order, but only what it needs beyond the margin the order
+     * already blocks is reserved. The book changes once that check has committed; the outcome is recorded in a second
+     * transaction, and only then does the order's margin follow its new size. The order keeps its id; its quantity
+     * becomes what has been filled plus the new open quantity. If the outcome cannot be recorded the book is unwound
+     * to the order as it was persisted, and the added margin is given back.
+     *
+     * @return the replaced order, or empty if the trader has no such order.
+     * @throws IllegalStateException if the order is no longer resting.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<TraderOrderResult> replaceTraderOrder(Long orderId, String traderLogin, BigDecimal quantity, BigDecimal price) {
+        Optional<Replacement> admitted = transactionTemplate.execute(status -> admitReplacement(orderId, traderLogin, quantity, price));
+        if (admitted.isEmpty()) {
+            return Optional.empty();
+        }
+        Replacement replacement = admitted.orElseThrow();
+        Order order = replacement.order();
+        String symbol = order.getInstrument().getSymbol();
+        MarginReservation margin = replacement.margin();
+        BigDecimal openQuantity = quantity.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal limitPx = price.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal previousQty = order.getQty();
+        BigDecimal previousLimitPx = order.getLimitPx();
+
+        MatchResult match;
+        try {
+            match = matchingEngine
+                .replace(new BookOrder(order.getId(), symbol, order.getSide(), order.getType(), limitPx, openQuantity, order.getTif()))
+                .orElseThrow(() -> new IllegalStateException("Order %d is no longer resting".formatted(orderId)));
+        } catch (RuntimeException ex) {
+            accountExposureBook.release(margin.reservation());
+            throw ex;
+        }
+        order.qty(match.filledQuantity().add(match.remainingQuantity())).limitPx(limitPx);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRepository.updateQtyAndLimitPx(order.getId(), order.getQty(), limitPx, Instant.now());
+                recordMatch(order, match);
+            });
+        } catch (RuntimeException ex) {
+            LOG.error("Order {} was replaced on its book but the replacement could not be recorded; unwinding it", order.getId(), ex);
+            BigDecimal previouslyFilled = match.filledQuantity().subtract(tradedQuantity(match));
+            BookOrder previous = new BookOrder(
+                order.getId(),
+                symbol,
+                order.getSide(),
+                order.getType(),
+                previousLimitPx,
+                previousQty.subtract(previouslyFilled),
+                order.getTif()
+            );
+            order.qty(previousQty).limitPx(previousLimitPx);
+            unwindMatch(order, match, new MatchingEngine.RestingOrder(previous, previouslyFilled), ex);
+            accountExposureBook.release(margin.reservation());
+            throw ex;
+        }
+        order.status(match.status()).updatedAt(Instant.now());
+        accountExposureBook.rebind(
+            margin.reservation(),
+            order.getId(),
+            symbol,
+            order.getSide(),
+            margin.assessment().initialRequirement(),
+            openQuantity
+        );
+        applyExposure(order.getId(), match);
 
-        return new TraderOrderResult(dto, assessment);
+        logAudit(replacement.context(), "REPLACED", "ACCEPTED", margin.assessment(), replacement.request());
+        return Optional.of(new TraderOrderResult(orderMapper.toDto(order), margin.assessment()));
     }
 
-    private TradingAccount resolveTradingAccount(String traderLogin) {
-        return tradingAccountRepository
-            .findFirstByTrader_User_LoginOrderByIdAsc(traderLogin)
-            .orElseThrow(() -> new IllegalStateException("Trading account not found for trader login " + traderLogin));
+    /**
+     * Check that the order can be replaced as requested and reserve the margin the replacement adds.
+     */
+    private Optional<Replacement> admitReplacement(Long orderId, String traderLogin, BigDecimal quantity, BigDecimal price) {
+        Optional<Order> found = findTraderOrder(orderId, traderLogin);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = found.orElseThrow();
+        requireOpen(order);
+        if (order.getType() != OrderType.LIMIT) {
+            // Only LIMIT orders rest, so only they can be replaced.
+            throw new IllegalStateException("Order %d of type %s cannot be replaced".formatted(orderId, order.getType()));
+        }
+        TraderOrderRequest request = TraderOrderRequest.builder()
+            .traderLogin(traderLogin)
+            .instrumentId(order.getInstrument().getId())
+            .instrumentSymbol(order.getInstrument().getSymbol())
+            .side(order.getSide())
+            .type(order.getType())
+            .tif(order.getTif())
+            .quantity(quantity)
+            .price(price)
+            .build();
+        OrderContext context = orderContextResolver.resolve(request);
+        validateTickAndLotSizes(request, context.instrument());
+
+        MarginReservation margin;
+        try {
+            margin = marginService.reserveReplacementMargin(request, context, order.getId());
+        } catch (InsufficientMarginException ex) {
+            logAudit(context, "REJECTED", ex.getMessage(), ex.getAssessment(), request);
+            throw ex;
+        }
+        releaseOnRollback(margin.reservation());
+        return Optional.of(new Replacement(order, request, context, margin));
+    }
+
+    /**
+     * Put an order taken off its book back, behind the orders at its price, when its cancellation did not commit.
+     */
+    private void restoreToBook(Order order, BigDecimal open) {
+        BookOrder resting = bookOrder(order, order.getInstrument().getSymbol(), open);
+        matchingEngine.restore(List.of(new MatchingEngine.RestingOrder(resting, order.getQty().subtract(open))));
     }
 
-    private Instrument resolveInstrument(TraderOrderRequest request) {
-        if (request.getInstrumentSymbol() != null) {
-            // Avoid Optional.get() to satisfy modernizer rules while maintaining existing behaviour.
-            Optional<Instrument> bySymbol = instrumentRepository.findOneBySymbol(request.getInstrumentSymbol());
-            if (bySymbol.isPresent()) {
-                return bySymbol.orElseThrow();
+    /**
+     * Put the book back as it was before a match that could not be recorded: the makers regain what they traded and
+     * the order is taken off the book, or replaced by {@code previous} when a replace made the match. Makers the
+     * database no longer holds open, e.g. because they have been cancelled since, are left off the book. A failure
+     * here is logged and attached to {@code cause}; the books are rebuilt from the database on the next start.
+     */
+    private void unwindMatch(Order order, MatchResult match, MatchingEngine.RestingOrder previous, RuntimeException cause) {
+        String symbol = order.getInstrument().getSymbol();
+        try {
+            List<MatchingEngine.RestingOrder> makers = match.fills().isEmpty()
+                ? List.of()
+                : transactionTemplate.execute(status -> makersToReinstate(symbol, match));
+            matchingEngine.unwind(symbol, order.getId(), makers, previous);
+        } catch (RuntimeException ex) {
+            LOG.error("Could not unwind the unrecorded match of order {}", order.getId(), ex);
+            cause.addSuppressed(ex);
+        }
+    }
+
+    private List<MatchingEngine.RestingOrder> makersToReinstate(String symbol, MatchResult match) {
+        Map<Long, Order> makers = new HashMap<>();
+        List<Long> makerIds = match.fills().stream().map(Fill::makerOrderId).distinct().toList();
+        orderRepository.findAllById(makerIds).forEach(maker -> makers.put(maker.getId(), maker));
+        List<MatchingEngine.RestingOrder> reinstated = new ArrayList<>(match.fills().size());
+        for (Fill fill : match.fills()) {
+            Order maker = makers.get(fill.makerOrderId());
+            if (maker == null || !AccountExposureReconciler.OPEN_STATUSES.contains(maker.getStatus())) {
+                continue;
             }
+            BigDecimal filledBefore = maker.getQty().subtract(fill.makerRemaining()).subtract(fill.quantity());
+            reinstated.add(new MatchingEngine.RestingOrder(bookOrder(maker, symbol, fill.quantity()), filledBefore));
         }
-        if (request.getInstrumentId() != null) {
-            return instrumentRepository
-                .findById(request.getInstrumentId())
-                .orElseThrow(() ->
-                    new IllegalStateException(
-                        "Instrument not found for id " + request.getInstrumentId() + " (symbol=" + request.getInstrumentSymbol() + ")"
-                    )
-                );
+        return reinstated;
+    }
+
+    /**
+     * Cancel an order whose match could not be recorded and free its margin; it is no longer on the book.
+     */
+    private void cancelUnrecorded(Order order, RuntimeException cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                orderRepository.updateStatusByIdInAndStatusIn(
+                    List.of(order.getId()),
+                    AccountExposureReconciler.OPEN_STATUSES,
+                    OrderStatus.CANCELED,
+                    Instant.now()
+                )
+            );
+        } catch (RuntimeException ex) {
+            LOG.error("Could not cancel order {} after its match was unwound", order.getId(), ex);
+            cause.addSuppressed(ex);
+        }
+        accountExposureBook.release(order.getId());
+    }
+
+    private static BigDecimal tradedQuantity(MatchResult match) {
+        return match.fills().stream().map(Fill::quantity).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private Optional<Order> findTraderOrder(Long orderId, String traderLogin) {
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        Long accountId = orderContextResolver.resolveTradingAccount(traderLogin).getId();
+        return orderRepository
+            .findOneWithEagerRelationships(orderId)
+            .filter(order -> order.getTradingAccount() != null && accountId.equals(order.getTradingAccount().getId()));
+    }
+
+    private static void requireOpen(Order order) {
+        if (!AccountExposureReconciler.OPEN_STATUSES.contains(order.getStatus())) {
+            throw new IllegalStateException("Order %d is %s and can no longer change".formatted(order.getId(), order.getStatus()));
         }
-        throw new IllegalStateException("Instrument not found for symbol " + request.getInstrumentSymbol());
+    }
+
+    private static boolean isBookable(Order order) {
+        return order.getType() == OrderType.MARKET || order.getType() == OrderType.LIMIT;
+    }
+
+    private static BookOrder bookOrder(Order order, String symbol, BigDecimal quantity) {
+        return new BookOrder(order.getId(), symbol, order.getSide(), order.getType(), order.getLimitPx(), quantity, order.getTif());
+    }
+
+    /**
+     * Persist the outcome of an in-memory match: one execution per side of every fill, the position each fill moves
+     * on either side, the resting orders' new statuses, and the incoming order's status. Runs after the book has been
+     * updated, never inside the match loop. Recordings of one symbol may commit out of order, so statuses only move
+     * forward; see {@link #advanceStatus}.
+     */
+    private void recordMatch(Order order, MatchResult match) {
+        Instant now = Instant.now();
+        Order taker = orderRepository.getReferenceById(order.getId());
+        Map<Long, Order> makers = new HashMap<>();
+        if (!match.fills().isEmpty()) {
+            List<Long> makerIds = match.fills().stream().map(Fill::makerOrderId).distinct().toList();
+            orderRepository.findAllById(makerIds).forEach(maker -> makers.put(maker.getId(), maker));
+        }
+        List<PositionFill> positionFills = new ArrayList<>(match.fills().size() * 2);
+        for (Fill fill : match.fills()) {
+            Order maker = makers.get(fill.makerOrderId());
+            executionRepository.save(execution(taker, fill, EXECUTION_LIQUIDITY_TAKER, now));
+            executionRepository.save(execution(maker, fill, EXECUTION_LIQUIDITY_MAKER, now));
+            positionFills.add(new PositionFill(order.getTradingAccount().getId(), order.getSide(), fill));
+            positionFills.add(new PositionFill(maker.getTradingAccount().getId(), maker.getSide(), fill));
+        }
+        // Positions are locked in account order, so two recordings for one instrument cannot deadlock; the sort is
+        // stable, so each account's fills still apply in the order they traded.
+        positionFills.sort(Comparator.comparing(PositionFill::accountId));
+        for (PositionFill positionFill : positionFills) {
+            Fill fill = positionFill.fill();
+            positionUpdater.applyFill(positionFill.accountId(), order.getInstrument(), positionFill.side(), fill.quantity(), fill.price());
+        }
+        for (Fill fill : match.fills()) {
+            advanceStatus(fill.makerOrderId(), fill.makerFilled() ? OrderStatus.FILLED : OrderStatus.PARTIAL, now);
+        }
+        advanceStatus(order.getId(), match.status(), now);
+    }
+
+    /**
+     * Write a status a match produced unless a later one has committed first: another recording may already have
+     * filled the order or a cancellation cancelled it, and neither may be undone. WORKING only follows admission.
+     */
+    private void advanceStatus(Long orderId, OrderStatus status, Instant now) {
+        Set<OrderStatus> predecessors = status == OrderStatus.WORKING ? UNFILLED_STATUSES : AccountExposureReconciler.OPEN_STATUSES;
+        if (orderRepository.updateStatusByIdInAndStatusIn(List.of(orderId), predecessors, status, now) == 0) {
+            LOG.debug("Order {} has moved past {}; keeping its status", orderId, status);
+        }
+    }
+
+    /**
+     * Move each fill's share of both orders' blocked margin onto their positions, and free what a cancelled
+     * remainder still blocks. Called once the match is recorded.
+     */
+    private void applyExposure(Long orderId, MatchResult match) {
+        for (Fill fill : match.fills()) {
+            accountExposureBook.applyFill(orderId, fill.quantity());
+            accountExposureBook.applyFill(fill.makerOrderId(), fill.quantity());
+        }
+        if (match.status() == OrderStatus.CANCELED) {
+            accountExposureBook.release(orderId);
+        }
+    }
+
+    /**
+     * Give the blocked margin back if the submission does not commit; the order it was bound to never existed.
+     */
+    private void releaseOnRollback(AccountExposureBook.Reservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        accountExposureBook.release(reservation);
+                    }
+                }
+            }
+        );
+    }
+
+    private Execution execution(Order order, Fill fill, String liquidity, Instant timestamp) {
+        return new Execution()
+            .execTs(timestamp)
+            .px(fill.price())
+            .qty(fill.quantity())
+            .liquidity(liquidity)
+            .fee(BigDecimal.ZERO)
+            .order(order);
     }
 
     private void validateTickAndLotSizes(TraderOrderRequest request, Instrument instrument) {
@@ -233,29 +640,49 @@ public class OrderService {
         }
     }
 
+    /**
+     * The account was found by its trader's login, so that login is the actor; reading it from the account would
+     * lazily load the trader and user for nothing.
+     */
+    private void logAudit(OrderContext context, String status, String outcome, MarginAssessment assessment, TraderOrderRequest request) {
+        logAudit(
+            context.traderLogin(),
+            context.instrument().getSymbol(),
+            status,
+            outcome,
+            assessment,
+            request.getQuantity(),
+            request.getPrice()
+        );
+    }
+
     private void logAudit(
-        TradingAccount tradingAccount,
-        Instrument instrument,
+        String traderLogin,
+        String symbol,
         String status,
         String outcome,
         MarginAssessment assessment,
-        TraderOrderRequest request
+        BigDecimal quantity,
+        BigDecimal price
     ) {
-        String actorLogin = request.getTraderLogin();
-        if (tradingAccount.getTrader() != null && tradingAccount.getTrader().getUser() != null) {
-            actorLogin = tradingAccount.getTrader().getUser().getLogin();
-        }
         String actorRole = AuthoritiesConstants.TRADER.replace("ROLE_", "");
         TraderAuditPayload payload = new TraderAuditPayload(
-            actorLogin,
+            System.currentTimeMillis(),
+            traderLogin,
             actorRole,
-            instrument.getSymbol(),
+            symbol,
             status,
             outcome,
             assessment,
-            request.getQuantity(),
-            request.getPrice()
+            quantity,
+            price
         );
-        AUDIT_LOG.info(traderAuditStructuredLogger.build(payload));
+        traderAuditPublisher.publish(payload);
     }
+
+    private record Admission(Order order, OrderContext context, MarginAssessment assessment) {}
+
+    private record Replacement(Order order, TraderOrderRequest request, OrderContext context, MarginReservation margin) {}
+
+    private record PositionFill(Long accountId, OrderSide side, Fill fill) {}
 }
@@ -0,0 +1,255 @@
+package com.rnexchange.service;
+
+import com.rnexchange.domain.Instrument;
+import com.rnexchange.domain.MarginRule;
+import com.rnexchange.repository.InstrumentRepository;
+import com.rnexchange.repository.MarginRuleRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through memory cache of near-static reference data: instruments keyed by symbol and by id, and margin rules
+ * keyed by exchange code and scope. Each index is a bounded LRU map, so a stream of unknown symbols cannot grow it
+ * without limit.
+ * <p>
+ * Entries are detached entities loaded with their exchange fetched, so callers may read them and use them as
+ * references, but must not modify them. Margin rules are cached negatively too, since the equity lookup asks for a
+ * cash scope that often has no rule. The entity services evict on every save and delete, once straight away and once
+ * when the transaction completes. A read-through load notes the version of its key first and is only cached if no
+ * eviction touched that key meanwhile, so a reader that loaded the old row while the write was in flight cannot keep
+ * it.
+ */
+@Component
+public class ReferenceDataCache {
+
+    static final int DEFAULT_MAX_INSTRUMENTS = 10_000;
+    static final int DEFAULT_MAX_MARGIN_RULES = 1_000;
+
+    private final InstrumentRepository instrumentRepository;
+    private final MarginRuleRepository marginRuleRepository;
+
+    private final BoundedIndex<String, Instrument> instrumentsBySymbol;
+    private final BoundedIndex<Long, Instrument> instrumentsById;
+    private final BoundedIndex<String, Optional<MarginRule>> marginRules;
+
+    public ReferenceDataCache(InstrumentRepository instrumentRepository, MarginRuleRepository marginRuleRepository) {
+        this(instrumentRepository, marginRuleRepository, DEFAULT_MAX_INSTRUMENTS, DEFAULT_MAX_MARGIN_RULES);
+    }
+
+    ReferenceDataCache(
+        InstrumentRepository instrumentRepository,
+        MarginRuleRepository marginRuleRepository,
+        int maxInstruments,
+        int maxMarginRules
+    ) {
+        this.instrumentRepository = Objects.requireNonNull(instrumentRepository, "instrumentRepository must not be null");
+        this.marginRuleRepository = Objects.requireNonNull(marginRuleRepository, "marginRuleRepository must not be null");
+        this.instrumentsBySymbol = new BoundedIndex<>(maxInstruments);
+        this.instrumentsById = new BoundedIndex<>(maxInstruments);
+        this.marginRules = new BoundedIndex<>(maxMarginRules);
+    }
+
+    public Optional<Instrument> findInstrumentBySymbol(String symbol) {
+        if (symbol == null) {
+            return Optional.empty();
+        }
+        Instrument cached = instrumentsBySymbol.get(symbol);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long version = instrumentsBySymbol.version(symbol);
+        Optional<Instrument> loaded = instrumentRepository.findOneBySymbol(symbol);
+        loaded.ifPresent(instrument -> instrumentsBySymbol.putIfVersion(symbol, instrument, version));
+        return loaded;
+    }
+
+    public Optional<Instrument> findInstrumentById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Instrument cached = instrumentsById.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long version = instrumentsById.version(id);
+        Optional<Instrument> loaded = instrumentRepository.findOneWithEagerRelationships(id);
+        loaded.ifPresent(instrument -> instrumentsById.putIfVersion(id, instrument, version));
+        return loaded;
+    }
+
+    /**
+     * The rule of the first of {@code scopes} on {@code exchangeCode} that has one. Scopes not yet cached are loaded
+     * in a single query, and those without a rule are remembered as such.
+     */
+    public Optional<MarginRule> findMarginRule(String exchangeCode, List<String> scopes) {
+        Objects.requireNonNull(exchangeCode, "exchangeCode must not be null");
+        List<String> missing = new ArrayList<>(scopes.size());
+        List<Long> versions = new ArrayList<>(scopes.size());
+        for (String scope : scopes) {
+            String key = marginRuleKey(exchangeCode, scope);
+            if (!marginRules.contains(key)) {
+                missing.add(scope);
+                versions.add(marginRules.version(key));
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, MarginRule> loaded = new LinkedHashMap<>();
+            for (MarginRule rule : marginRuleRepository.findAllByExchange_CodeAndScopeIn(exchangeCode, missing)) {
+                loaded.putIfAbsent(rule.getScope(), rule);
+            }
+            for (int i = 0; i < missing.size(); i++) {
+                String scope = missing.get(i);
+                marginRules.putIfVersion(marginRuleKey(exchangeCode, scope), Optional.ofNullable(loaded.get(scope)), versions.get(i));
+            }
+        }
+        for (String scope : scopes) {
+            Optional<MarginRule> rule = marginRules.get(marginRuleKey(exchangeCode, scope));
+            if (rule == null) {
+                // Evicted between loading and reading, or while loading; read the row itself rather than reloading the batch.
+                rule = marginRuleRepository.findOneByExchange_CodeAndScope(exchangeCode, scope);
+            }
+            if (rule.isPresent()) {
+                return rule;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Forget the instrument with {@code id}, and whatever is cached under {@code symbol}, which should be its symbol
+     * before the change.
+     */
+    public void evictInstrument(Long id, String symbol) {
+        evictNowAndOnCompletion(() -> {
+            Instrument cached = id == null ? null : instrumentsById.remove(id);
+            if (cached != null && cached.getSymbol() != null) {
+                instrumentsBySymbol.remove(cached.getSymbol());
+            }
+            if (symbol != null) {
+                instrumentsBySymbol.remove(symbol);
+            }
+            if (id != null) {
+                instrumentsBySymbol.removeIf(instrument -> id.equals(instrument.getId()));
+            }
+        });
+    }
+
+    /**
+     * Forget every margin rule. A rule's exchange or scope may change on update, so its old key is not known.
+     */
+    public void evictMarginRules() {
+        evictNowAndOnCompletion(marginRules::clear);
+    }
+
+    /**
+     * Forget everything, for changes such as an exchange update that reach every cached entity.
+     */
+    public void evictAll() {
+        evictNowAndOnCompletion(() -> {
+            instrumentsBySymbol.clear();
+            instrumentsById.clear();
+            marginRules.clear();
+        });
+    }
+
+    private static String marginRuleKey(String exchangeCode, String scope) {
+        return exchangeCode + '|' + scope;
+    }
+
+    private static void evictNowAndOnCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        eviction.run();
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Access-ordered map that drops its least recently used entry beyond {@code capacity}. Lookups reorder the map,
+     * so every access takes the lock; the critical sections are a single map operation.
+     * <p>
+     * Keys hash onto a fixed set of version stripes. Removing a key bumps its stripe and bulk removals bump them all,
+     * so {@link #putIfVersion} can tell whether a key was evicted since its version was read.
+     */
+    private static final class BoundedIndex<K, V> {
+
+        private static final int VERSION_STRIPES = 64;
+
+        private final Map<K, V> entries;
+        private final long[] versions = new long[VERSION_STRIPES];
+
+        private BoundedIndex(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            return entries.get(key);
+        }
+
+        synchronized boolean contains(K key) {
+            return entries.containsKey(key);
+        }
+
+        synchronized long version(K key) {
+            return versions[stripe(key)];
+        }
+
+        /**
+         * Cache {@code value} unless {@code key} was evicted after {@code version} was read.
+         */
+        synchronized boolean putIfVersion(K key, V value, long version) {
+            if (versions[stripe(key)] != version) {
+                return false;
+            }
+            entries.put(key, value);
+            return true;
+        }
+
+        synchronized V remove(K key) {
+            versions[stripe(key)]++;
+            return entries.remove(key);
+        }
+
+        synchronized void removeIf(Predicate<V> predicate) {
+            bumpAll();
+            entries.values().removeIf(predicate);
+        }
+
+        synchronized void clear() {
+            bumpAll();
+            entries.clear();
+        }
+
+        private void bumpAll() {
+            for (int i = 0; i < versions.length; i++) {
+                versions[i]++;
+            }
+        }
+
+        private static int stripe(Object key) {
+            return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+        }
+    }
+}
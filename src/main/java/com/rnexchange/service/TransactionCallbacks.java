@@ -0,0 +1,33 @@
+package com.rnexchange.service;
+
+import java.util.Objects;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a transaction, such as book or exposure updates, until its writes are visible.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Runs {@code action} once the current transaction commits, or straight away when no transaction synchronization
+     * is active. Nothing runs if the transaction rolls back.
+     */
+    public static void afterCommit(Runnable action) {
+        Objects.requireNonNull(action, "action must not be null");
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+}
@@ -2,7 +2,6 @@ package com.rnexchange.service;
 
 import com.rnexchange.domain.Watchlist;
 import com.rnexchange.domain.WatchlistItem;
-import com.rnexchange.repository.InstrumentRepository;
 import com.rnexchange.repository.WatchlistItemRepository;
 import com.rnexchange.repository.WatchlistRepository;
 import com.rnexchange.security.SecurityUtils;
@@ -31,20 +30,20 @@ public class WatchlistService {
 
     private final WatchlistRepository watchlistRepository;
     private final WatchlistItemRepository watchlistItemRepository;
-    private final InstrumentRepository instrumentRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final WatchlistMapper watchlistMapper;
     private final WatchlistAuthorizationService authorizationService;
 
     public WatchlistService(
         WatchlistRepository watchlistRepository,
         WatchlistItemRepository watchlistItemRepository,
-        InstrumentRepository instrumentRepository,
+        ReferenceDataCache referenceDataCache,
         WatchlistMapper watchlistMapper,
         WatchlistAuthorizationService authorizationService
     ) {
         this.watchlistRepository = watchlistRepository;
         this.watchlistItemRepository = watchlistItemRepository;
-        this.instrumentRepository = instrumentRepository;
+        this.referenceDataCache = referenceDataCache;
         this.watchlistMapper = watchlistMapper;
         this.authorizationService = authorizationService;
     }
@@ -67,8 +66,8 @@ public class WatchlistService {
     public WatchlistDTO addSymbol(Long watchlistId, String rawSymbol) {
         Watchlist watchlist = loadOwnedWatchlist(watchlistId);
         String normalizedSymbol = normalizeSymbol(rawSymbol);
-        instrumentRepository
-            .findOneBySymbol(normalizedSymbol)
+        referenceDataCache
+            .findInstrumentBySymbol(normalizedSymbol)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Symbol not found: " + normalizedSymbol));
         boolean exists = watchlist.getItems().stream().anyMatch(item -> normalizedSymbol.equals(item.getSymbol()));
         if (exists) {
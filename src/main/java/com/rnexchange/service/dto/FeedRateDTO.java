@@ -0,0 +1,9 @@
+package com.rnexchange.service.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Tick rate of the mock feed: how often each generator cycle runs and how many ticks it emits per instrument.
+ */
+public record FeedRateDTO(@Min(100) @Max(1000) int intervalMs, @Min(1) @Max(10) int batchSize) {}
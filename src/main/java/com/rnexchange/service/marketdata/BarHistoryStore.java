@@ -0,0 +1,362 @@
+package com.rnexchange.service.marketdata;
+
+import com.rnexchange.config.MockMarketDataProperties;
+import com.rnexchange.service.dto.BarDTO;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only bar history kept in memory-mapped segment files, one series per symbol and {@link BarTimeframe}.
+ * <p>
+ * Each segment file starts with an 8-byte record count followed by fixed-width records of six longs: interval
+ * start (epoch seconds), open, high, low and close as scaled prices (see {@link FixedPointPrice}) and volume. Bars
+ * close in time order, so records are sorted by start and a range query is a binary search per segment. The store
+ * never touches the database.
+ * <p>
+ * Series are opened on first use and closed again once idle for {@code idle-timeout-seconds}; queries never create
+ * a series, so a lookup for an unknown symbol maps nothing. Each symbol maps to one directory directly under the
+ * history root; a symbol that would resolve anywhere else (such as {@code ..}) has no history.
+ */
+@Component
+public class BarHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BarHistoryStore.class);
+
+    static final int HEADER_BYTES = Long.BYTES;
+    static final int RECORD_BYTES = 6 * Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".bars";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long idleTimeoutNanos;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public BarHistoryStore(MockMarketDataProperties properties) {
+        MockMarketDataProperties.HistoryProperties history = properties.getHistory();
+        this.enabled = history.isEnabled();
+        this.directory = Path.of(history.getDirectory()).toAbsolutePath().normalize();
+        this.segmentRecords = history.getSegmentRecords();
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(history.getIdleTimeoutSeconds());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(BarTimeframe timeframe, BarDTO bar) {
+        if (!enabled) {
+            return;
+        }
+        long start = bar.timestamp().getEpochSecond();
+        long open = FixedPointPrice.toScaled(bar.open());
+        long high = FixedPointPrice.toScaled(bar.high());
+        long low = FixedPointPrice.toScaled(bar.low());
+        long close = FixedPointPrice.toScaled(bar.close());
+        // A series closed as idle between lookup and append is reopened.
+        while (!series(bar.symbol(), timeframe, true).append(start, open, high, low, close, bar.volume())) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Bars whose interval starts in {@code [from, to)}, oldest first, at most {@code limit} of them. Without
+     * {@code from} these are the latest {@code limit} bars before {@code to}.
+     */
+    public List<BarDTO> find(String symbol, BarTimeframe timeframe, Instant from, Instant to, int limit) {
+        Objects.requireNonNull(symbol, "symbol must not be null");
+        Objects.requireNonNull(timeframe, "timeframe must not be null");
+        if (!enabled) {
+            return List.of();
+        }
+        long fromSecond = from == null ? Long.MIN_VALUE : from.getEpochSecond();
+        long toSecond = to == null ? Long.MAX_VALUE : to.getEpochSecond();
+        if (fromSecond >= toSecond || limit <= 0) {
+            return List.of();
+        }
+        while (true) {
+            Series existing = series(symbol, timeframe, false);
+            if (existing == null) {
+                return List.of();
+            }
+            List<BarDTO> bars = from == null ? existing.findLatest(toSecond, limit) : existing.find(fromSecond, toSecond, limit);
+            if (bars != null) {
+                return bars;
+            }
+        }
+    }
+
+    @PreDestroy
+    void flush() {
+        series.values().forEach(Series::force);
+    }
+
+    /**
+     * Flushes and closes the series nobody appended to or read from within the idle timeout, dropping their
+     * mappings; the next access maps them again.
+     */
+    @Scheduled(fixedDelayString = "${marketdata.mock.history.idle-check-ms:60000}")
+    public void closeIdle() {
+        closeIdle(System.nanoTime());
+    }
+
+    int closeIdle(long nowNanos) {
+        int closed = 0;
+        for (Map.Entry<String, Series> entry : series.entrySet()) {
+            if (entry.getValue().closeIfIdle(nowNanos - idleTimeoutNanos)) {
+                series.remove(entry.getKey(), entry.getValue());
+                closed++;
+            }
+        }
+        if (closed > 0 && log.isDebugEnabled()) {
+            log.debug("Closed {} idle bar history series", closed);
+        }
+        return closed;
+    }
+
+    int openSeriesCount() {
+        return series.size();
+    }
+
+    private Series series(String symbol, BarTimeframe timeframe, boolean create) {
+        String key = timeframe.getLabel() + '|' + symbol;
+        Series existing = series.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        Path symbolDirectory = directory.resolve(URLEncoder.encode(symbol, StandardCharsets.UTF_8)).normalize();
+        if (!directory.equals(symbolDirectory.getParent())) {
+            if (create) {
+                throw new IllegalArgumentException("Symbol " + symbol + " cannot name a bar history directory");
+            }
+            return null;
+        }
+        Path seriesDirectory = symbolDirectory.resolve(timeframe.getLabel());
+        if (!create && !Files.isDirectory(seriesDirectory)) {
+            return null;
+        }
+        return series.computeIfAbsent(key, k -> openSeries(symbol, timeframe, seriesDirectory));
+    }
+
+    private Series openSeries(String symbol, BarTimeframe timeframe, Path seriesDirectory) {
+        try {
+            Files.createDirectories(seriesDirectory);
+            Series opened = new Series(symbol, seriesDirectory);
+            try (Stream<Path> files = Files.list(seriesDirectory)) {
+                for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList()) {
+                    opened.segments.add(Segment.map(file, segmentRecords));
+                }
+            }
+            return opened;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open bar history for " + symbol + " " + timeframe.getLabel(), ex);
+        }
+    }
+
+    private final class Series {
+
+        private final String symbol;
+        private final Path directory;
+        private final List<Segment> segments = new ArrayList<>();
+        private long lastAccessNanos = System.nanoTime();
+        private boolean closed;
+
+        private Series(String symbol, Path directory) {
+            this.symbol = symbol;
+            this.directory = directory;
+        }
+
+        /**
+         * @return {@code false} when the series was closed and the caller must reopen it.
+         */
+        private synchronized boolean append(long start, long open, long high, long low, long close, long volume) {
+            if (closed) {
+                return false;
+            }
+            lastAccessNanos = System.nanoTime();
+            Segment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (tail != null && tail.count > 0 && start <= tail.startAt(tail.count - 1)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Ignoring out-of-order bar for {} at {}", symbol, start);
+                }
+                return true;
+            }
+            if (tail == null || tail.isFull()) {
+                tail = newSegment();
+            }
+            tail.append(start, open, high, low, close, volume);
+            return true;
+        }
+
+        /**
+         * @return {@code null} when the series was closed and the caller must reopen it.
+         */
+        private synchronized List<BarDTO> find(long fromSecond, long toSecond, int limit) {
+            if (closed) {
+                return null;
+            }
+            lastAccessNanos = System.nanoTime();
+            List<BarDTO> result = new ArrayList<>();
+            for (Segment segment : segments) {
+                if (segment.count == 0 || segment.startAt(segment.count - 1) < fromSecond) {
+                    continue;
+                }
+                if (segment.startAt(0) >= toSecond) {
+                    break;
+                }
+                for (int i = segment.firstAtOrAfter(fromSecond); i < segment.count; i++) {
+                    if (segment.startAt(i) >= toSecond || result.size() >= limit) {
+                        return result;
+                    }
+                    result.add(segment.toBar(symbol, i));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * The last {@code limit} bars starting before {@code toSecond}, oldest first; walks the segments backwards so
+         * the cost follows {@code limit} rather than the length of the series.
+         *
+         * @return {@code null} when the series was closed and the caller must reopen it.
+         */
+        private synchronized List<BarDTO> findLatest(long toSecond, int limit) {
+            if (closed) {
+                return null;
+            }
+            lastAccessNanos = System.nanoTime();
+            List<BarDTO> result = new ArrayList<>();
+            for (int s = segments.size() - 1; s >= 0 && result.size() < limit; s--) {
+                Segment segment = segments.get(s);
+                if (segment.count == 0 || segment.startAt(0) >= toSecond) {
+                    continue;
+                }
+                for (int i = segment.firstAtOrAfter(toSecond) - 1; i >= 0 && result.size() < limit; i--) {
+                    result.add(segment.toBar(symbol, i));
+                }
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        private synchronized void force() {
+            segments.forEach(segment -> segment.buffer.force());
+        }
+
+        private synchronized boolean closeIfIdle(long idleSinceNanos) {
+            if (lastAccessNanos - idleSinceNanos > 0) {
+                return false;
+            }
+            force();
+            // The mappings are released once the segments become unreachable.
+            segments.clear();
+            closed = true;
+            return true;
+        }
+
+        private Segment newSegment() {
+            Path file = directory.resolve("%08d%s".formatted(segments.size(), SEGMENT_SUFFIX));
+            try {
+                Segment segment = Segment.map(file, segmentRecords);
+                segments.add(segment);
+                return segment;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to create bar history segment " + file, ex);
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int count;
+
+        private Segment(MappedByteBuffer buffer, int capacity) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.count = (int) Math.min(buffer.getLong(0), capacity);
+        }
+
+        private static Segment map(Path file, int segmentRecords) throws IOException {
+            try (
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            ) {
+                // Existing segments keep the capacity they were created with.
+                long existingRecords = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+                int capacity = (int) Math.max(segmentRecords, existingRecords);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+                return new Segment(buffer, capacity);
+            }
+        }
+
+        private boolean isFull() {
+            return count >= capacity;
+        }
+
+        private void append(long start, long open, long high, long low, long close, long volume) {
+            int offset = HEADER_BYTES + count * RECORD_BYTES;
+            buffer.putLong(offset, start);
+            buffer.putLong(offset + 8, open);
+            buffer.putLong(offset + 16, high);
+            buffer.putLong(offset + 24, low);
+            buffer.putLong(offset + 32, close);
+            buffer.putLong(offset + 40, volume);
+            // Publish the record only after it is fully written.
+            count++;
+            buffer.putLong(0, count);
+        }
+
+        private long startAt(int index) {
+            return buffer.getLong(HEADER_BYTES + index * RECORD_BYTES);
+        }
+
+        private int firstAtOrAfter(long second) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startAt(mid) < second) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private BarDTO toBar(String symbol, int index) {
+            int offset = HEADER_BYTES + index * RECORD_BYTES;
+            return new BarDTO(
+                symbol,
+                FixedPointPrice.toDecimal(buffer.getLong(offset + 8)),
+                FixedPointPrice.toDecimal(buffer.getLong(offset + 16)),
+                FixedPointPrice.toDecimal(buffer.getLong(offset + 24)),
+                FixedPointPrice.toDecimal(buffer.getLong(offset + 32)),
+                buffer.getLong(offset + 40),
+                Instant.ofEpochSecond(buffer.getLong(offset))
+            );
+        }
+    }
+}
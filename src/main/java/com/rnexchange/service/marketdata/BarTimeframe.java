@@ -0,0 +1,54 @@
+package com.rnexchange.service.marketdata;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Bar intervals maintained by {@link IntervalBars}. Each timeframe is an exact multiple of the previous one, so
+ * coarser bars are rolled up from closed finer bars rather than recomputed from ticks.
+ */
+public enum BarTimeframe {
+    S1("1s", 1),
+    M1("1m", 60),
+    M5("5m", 300),
+    M15("15m", 900),
+    H1("1h", 3600);
+
+    private final String label;
+    private final long seconds;
+
+    BarTimeframe(String label, long seconds) {
+        this.label = label;
+        this.seconds = seconds;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    public static boolean isSupported(long seconds) {
+        for (BarTimeframe timeframe : values()) {
+            if (timeframe.seconds == seconds) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static BarTimeframe ofSeconds(long seconds) {
+        for (BarTimeframe timeframe : values()) {
+            if (timeframe.seconds == seconds) {
+                return timeframe;
+            }
+        }
+        throw new IllegalArgumentException("No bar timeframe of " + seconds + " seconds; supported: " + supportedSeconds());
+    }
+
+    public static String supportedSeconds() {
+        return Arrays.stream(values()).map(timeframe -> String.valueOf(timeframe.seconds)).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,49 @@
+package com.rnexchange.service.marketdata;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Conversions between {@link BigDecimal} prices and the scaled {@code long} representation used on the tick path.
+ * A scaled price holds the value in hundredths (paise for INR instruments), matching the two-decimal precision of
+ * the {@code price}/{@code px} columns, so arithmetic per tick stays on primitives and BigDecimal is only created
+ * when a DTO is built.
+ */
+public final class FixedPointPrice {
+
+    public static final int SCALE = 2;
+
+    private static final long PERCENT_FACTOR = 100L * 100L;
+
+    private FixedPointPrice() {}
+
+    public static long toScaled(BigDecimal price) {
+        Objects.requireNonNull(price, "price must not be null");
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    /**
+     * Percentage change of {@code last} against {@code open}, expressed in hundredths of a percent and rounded
+     * half-up, i.e. the scaled form of a two-decimal percentage.
+     */
+    public static long changePercentScaled(long last, long open) {
+        if (open == 0) {
+            return 0;
+        }
+        return divideHalfUp((last - open) * PERCENT_FACTOR, open);
+    }
+
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
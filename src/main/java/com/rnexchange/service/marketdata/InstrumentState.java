@@ -1,59 +1,109 @@
 package com.rnexchange.service.marketdata;
 
+import com.rnexchange.service.dto.BarDTO;
+import com.rnexchange.service.dto.QuoteDTO;
 import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
+/**
+ * Session OHLC state for one instrument. Prices are held as scaled longs (see {@link FixedPointPrice}) so a tick
+ * updates primitives only; the BigDecimal accessors convert on demand.
+ * <p>
+ * Every update publishes a new immutable {@link Snapshot} with a single volatile write, so readers never lock and
+ * always see open, high, low, last, volume and timestamp from the same tick. Updates come from the one thread that
+ * owns the instrument (its generator shard, or the replay task), so they are not synchronized against each other.
+ */
 public class InstrumentState {
 
-    private static final MathContext CHANGE_MATH_CONTEXT = MathContext.DECIMAL64;
-
     private final String symbol;
     private final String exchangeCode;
     private final double volatility;
     private final Clock clock;
 
-    private final BigDecimal sessionOpen;
-    private BigDecimal sessionHigh;
-    private BigDecimal sessionLow;
-    private BigDecimal lastPrice;
-    private long cumulativeVolume;
-    private Instant lastUpdated;
+    private volatile Snapshot snapshot;
 
     public InstrumentState(String symbol, String exchangeCode, BigDecimal openPrice, double volatility, Clock clock) {
         this.symbol = Objects.requireNonNull(symbol, "symbol must not be null");
         this.exchangeCode = Objects.requireNonNull(exchangeCode, "exchangeCode must not be null");
-        this.sessionOpen = Objects.requireNonNull(openPrice, "openPrice must not be null");
+        long open = FixedPointPrice.toScaled(Objects.requireNonNull(openPrice, "openPrice must not be null"));
         this.volatility = volatility;
         this.clock = clock == null ? Clock.systemUTC() : clock;
-
-        this.sessionHigh = openPrice;
-        this.sessionLow = openPrice;
-        this.lastPrice = openPrice;
-        this.lastUpdated = this.clock.instant();
+        this.snapshot = Snapshot.opening(open, this.clock.instant());
     }
 
     public InstrumentState(String symbol, String exchangeCode, BigDecimal openPrice, double volatility) {
         this(symbol, exchangeCode, openPrice, volatility, Clock.systemUTC());
     }
 
-    public synchronized void updateWithTick(BigDecimal newPrice, long volumeDelta) {
+    private InstrumentState(InstrumentState source, double volatility) {
+        this.symbol = source.symbol;
+        this.exchangeCode = source.exchangeCode;
+        this.volatility = volatility;
+        this.clock = source.clock;
+        this.snapshot = source.snapshot;
+    }
+
+    /**
+     * A copy of this instrument that walks at {@code volatility}. It starts from the current snapshot; the owning
+     * thread calls {@link #continueSession(InstrumentState)} when it swaps the copy in, to pick up later ticks.
+     */
+    public InstrumentState withVolatility(double volatility) {
+        return new InstrumentState(this, volatility);
+    }
+
+    /**
+     * Carry on the session of {@code previous}, the state this one replaces. Must run on the owning thread.
+     */
+    public void continueSession(InstrumentState previous) {
+        snapshot = previous.snapshot;
+    }
+
+    public Snapshot updateWithTick(BigDecimal newPrice, long volumeDelta) {
         Objects.requireNonNull(newPrice, "newPrice must not be null");
-        this.lastPrice = newPrice;
-        if (newPrice.compareTo(sessionHigh) > 0) {
-            this.sessionHigh = newPrice;
-        }
-        if (newPrice.compareTo(sessionLow) < 0) {
-            this.sessionLow = newPrice;
-        }
-        if (volumeDelta > 0) {
-            this.cumulativeVolume += volumeDelta;
-        }
-        this.lastUpdated = clock.instant();
+        return updateWithTick(FixedPointPrice.toScaled(newPrice), volumeDelta);
+    }
+
+    /**
+     * Apply one tick and publish the resulting snapshot, which is also returned so the caller need not read it back.
+     */
+    public Snapshot updateWithTick(long newPrice, long volumeDelta) {
+        Snapshot current = snapshot;
+        Snapshot next = new Snapshot(
+            current.sessionOpen,
+            Math.max(current.sessionHigh, newPrice),
+            Math.min(current.sessionLow, newPrice),
+            newPrice,
+            volumeDelta > 0 ? current.cumulativeVolume + volumeDelta : current.cumulativeVolume,
+            clock.instant()
+        );
+        snapshot = next;
+        return next;
+    }
+
+    /**
+     * Start a new session at {@code openPrice}, discarding the running high, low and volume. Used by replay, where
+     * the session opens at the first recorded price rather than the configured default.
+     */
+    public void openSession(long openPrice) {
+        snapshot = Snapshot.opening(openPrice, clock.instant());
+    }
+
+    /**
+     * The latest published state. Read it once and use its fields when several values must agree.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public QuoteDTO toQuote() {
+        return snapshot.toQuote(symbol);
+    }
+
+    public BarDTO toBar() {
+        return snapshot.toBar(symbol);
     }
 
     public String getSymbol() {
@@ -69,42 +119,98 @@ public class InstrumentState {
     }
 
     public BigDecimal getSessionOpen() {
-        return sessionOpen;
+        return FixedPointPrice.toDecimal(snapshot.sessionOpen);
     }
 
-    public synchronized BigDecimal getSessionHigh() {
-        return sessionHigh;
+    public long getSessionOpenScaled() {
+        return snapshot.sessionOpen;
     }
 
-    public synchronized BigDecimal getSessionLow() {
-        return sessionLow;
+    public BigDecimal getSessionHigh() {
+        return FixedPointPrice.toDecimal(snapshot.sessionHigh);
     }
 
-    public synchronized BigDecimal getLastPrice() {
-        return lastPrice;
+    public BigDecimal getSessionLow() {
+        return FixedPointPrice.toDecimal(snapshot.sessionLow);
     }
 
-    public synchronized long getCumulativeVolume() {
-        return cumulativeVolume;
+    public BigDecimal getLastPrice() {
+        return FixedPointPrice.toDecimal(snapshot.lastPrice);
     }
 
-    public synchronized Instant getLastUpdated() {
-        return lastUpdated;
+    public long getLastPriceScaled() {
+        return snapshot.lastPrice;
     }
 
-    public synchronized BigDecimal getChange() {
-        return lastPrice.subtract(sessionOpen, CHANGE_MATH_CONTEXT).setScale(2, RoundingMode.HALF_UP);
+    public long getCumulativeVolume() {
+        return snapshot.cumulativeVolume;
     }
 
-    public synchronized BigDecimal getChangePercent() {
-        if (sessionOpen.signum() == 0) {
-            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
-        }
-        BigDecimal percent = getChange().divide(sessionOpen, CHANGE_MATH_CONTEXT).multiply(BigDecimal.valueOf(100), CHANGE_MATH_CONTEXT);
-        return percent.setScale(2, RoundingMode.HALF_UP);
+    public Instant getLastUpdated() {
+        return snapshot.lastUpdated;
+    }
+
+    public BigDecimal getChange() {
+        return snapshot.change();
+    }
+
+    public BigDecimal getChangePercent() {
+        return snapshot.changePercent();
+    }
+
+    public Instant getLastUpdatedMinuteBucket() {
+        return snapshot.lastUpdated.truncatedTo(ChronoUnit.MINUTES);
     }
 
-    public synchronized Instant getLastUpdatedMinuteBucket() {
-        return lastUpdated.truncatedTo(ChronoUnit.MINUTES);
+    /**
+     * One consistent view of the session; prices are scaled as in {@link FixedPointPrice}. This is where scaled
+     * prices become BigDecimal.
+     */
+    public record Snapshot(
+        long sessionOpen,
+        long sessionHigh,
+        long sessionLow,
+        long lastPrice,
+        long cumulativeVolume,
+        Instant lastUpdated
+    ) {
+        static Snapshot opening(long openPrice, Instant at) {
+            return new Snapshot(openPrice, openPrice, openPrice, openPrice, 0, at);
+        }
+
+        public BigDecimal change() {
+            return FixedPointPrice.toDecimal(lastPrice - sessionOpen);
+        }
+
+        public BigDecimal changePercent() {
+            return FixedPointPrice.toDecimal(FixedPointPrice.changePercentScaled(lastPrice, sessionOpen));
+        }
+
+        public QuoteDTO toQuote(String symbol) {
+            return new QuoteDTO(
+                symbol,
+                FixedPointPrice.toDecimal(lastPrice),
+                FixedPointPrice.toDecimal(sessionOpen),
+                change(),
+                changePercent(),
+                cumulativeVolume,
+                lastUpdated
+            );
+        }
+
+        /**
+         * The session so far as a bar stamped with the minute of the last update.
+         */
+        public BarDTO toBar(String symbol) {
+            return new BarDTO(
+                symbol,
+                FixedPointPrice.toDecimal(sessionOpen),
+                FixedPointPrice.toDecimal(sessionHigh),
+                FixedPointPrice.toDecimal(sessionLow),
+                FixedPointPrice.toDecimal(lastPrice),
+                cumulativeVolume,
+                lastUpdated.truncatedTo(ChronoUnit.MINUTES)
+            );
+        }
     }
 }
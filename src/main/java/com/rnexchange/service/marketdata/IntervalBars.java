@@ -0,0 +1,97 @@
+package com.rnexchange.service.marketdata;
+
+import com.rnexchange.service.dto.BarDTO;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Incremental OHLCV bars for one instrument across every {@link BarTimeframe}.
+ * <p>
+ * A tick only updates the working one-second bar. When a bar closes it is emitted and folded into the working bar
+ * of the next timeframe, which closes in turn once its own interval has elapsed, so each tick costs constant time.
+ * Bars close on time via {@link #closeElapsed(long, Listener)}, and intervals without ticks produce no bar. Not
+ * thread-safe: an instance is owned by the generator shard that ticks the instrument.
+ */
+public class IntervalBars {
+
+    private static final BarTimeframe[] TIMEFRAMES = BarTimeframe.values();
+
+    private final String symbol;
+    private final long[] start = new long[TIMEFRAMES.length];
+    private final long[] open = new long[TIMEFRAMES.length];
+    private final long[] high = new long[TIMEFRAMES.length];
+    private final long[] low = new long[TIMEFRAMES.length];
+    private final long[] close = new long[TIMEFRAMES.length];
+    private final long[] volume = new long[TIMEFRAMES.length];
+    private final boolean[] active = new boolean[TIMEFRAMES.length];
+
+    public IntervalBars(String symbol) {
+        this.symbol = Objects.requireNonNull(symbol, "symbol must not be null");
+    }
+
+    public void onTick(long epochSecond, long price, long volumeDelta, Listener listener) {
+        closeElapsed(epochSecond, listener);
+        fold(0, epochSecond, price, price, price, price, Math.max(0, volumeDelta), listener);
+    }
+
+    /**
+     * Close every working bar whose interval ended at or before {@code epochSecond}.
+     */
+    public void closeElapsed(long epochSecond, Listener listener) {
+        for (int level = 0; level < TIMEFRAMES.length; level++) {
+            if (active[level] && epochSecond >= start[level] + TIMEFRAMES[level].getSeconds()) {
+                close(level, listener);
+            }
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    private void fold(int level, long at, long o, long h, long l, long c, long v, Listener listener) {
+        long seconds = TIMEFRAMES[level].getSeconds();
+        long bucket = Math.floorDiv(at, seconds) * seconds;
+        if (active[level] && start[level] != bucket) {
+            close(level, listener);
+        }
+        if (!active[level]) {
+            active[level] = true;
+            start[level] = bucket;
+            open[level] = o;
+            high[level] = h;
+            low[level] = l;
+            close[level] = c;
+            volume[level] = v;
+            return;
+        }
+        high[level] = Math.max(high[level], h);
+        low[level] = Math.min(low[level], l);
+        close[level] = c;
+        volume[level] += v;
+    }
+
+    private void close(int level, Listener listener) {
+        active[level] = false;
+        listener.onBarClosed(
+            TIMEFRAMES[level],
+            new BarDTO(
+                symbol,
+                FixedPointPrice.toDecimal(open[level]),
+                FixedPointPrice.toDecimal(high[level]),
+                FixedPointPrice.toDecimal(low[level]),
+                FixedPointPrice.toDecimal(close[level]),
+                volume[level],
+                Instant.ofEpochSecond(start[level])
+            )
+        );
+        if (level + 1 < TIMEFRAMES.length) {
+            fold(level + 1, start[level], open[level], high[level], low[level], close[level], volume[level], listener);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onBarClosed(BarTimeframe timeframe, BarDTO bar);
+    }
+}
@@ -0,0 +1,90 @@
+package com.rnexchange.service.marketdata;
+
+import com.rnexchange.service.dto.QuoteDTO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latest quote per symbol, as last flushed by the mock feed, so a price can be served from memory without waiting
+ * for the next flush or touching instrument state.
+ * <p>
+ * Every write takes a number from one sequence, and every removal bumps a removal count, so a set of symbols can be
+ * versioned cheaply: its version changes whenever one of its quotes does. The cache keeps its quotes when the feed
+ * stops, since the last traded price is still the best answer, and drops those of symbols the next start no longer
+ * lists.
+ */
+@Component
+public class LastQuoteCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong removals = new AtomicLong();
+
+    public void put(QuoteDTO quote) {
+        Objects.requireNonNull(quote, "quote must not be null");
+        entries.put(quote.symbol(), new Entry(quote, sequence.incrementAndGet()));
+    }
+
+    public void putAll(Collection<QuoteDTO> quotes) {
+        quotes.forEach(this::put);
+    }
+
+    public void remove(String symbol) {
+        if (entries.remove(symbol) != null) {
+            removals.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop the quotes of every symbol not in {@code symbols}.
+     */
+    public void retainAll(Set<String> symbols) {
+        Objects.requireNonNull(symbols, "symbols must not be null");
+        for (String symbol : entries.keySet()) {
+            if (!symbols.contains(symbol)) {
+                remove(symbol);
+            }
+        }
+    }
+
+    public Optional<QuoteDTO> get(String symbol) {
+        Entry entry = symbol == null ? null : entries.get(symbol);
+        return entry == null ? Optional.empty() : Optional.of(entry.quote());
+    }
+
+    /**
+     * The cached quotes of {@code symbols}, in the order given, skipping symbols without a quote.
+     */
+    public Snapshot snapshot(Collection<String> symbols) {
+        long removed = removals.get();
+        List<QuoteDTO> quotes = new ArrayList<>(symbols.size());
+        long latest = 0;
+        for (String symbol : symbols) {
+            Entry entry = entries.get(symbol);
+            if (entry != null) {
+                quotes.add(entry.quote());
+                latest = Math.max(latest, entry.sequence());
+            }
+        }
+        return new Snapshot(quotes, latest + "-" + removed + "-" + quotes.size());
+    }
+
+    public List<QuoteDTO> all() {
+        return entries.values().stream().map(Entry::quote).toList();
+    }
+
+    /**
+     * Quotes of a set of symbols with an opaque version suitable for an ETag.
+     */
+    public record Snapshot(List<QuoteDTO> quotes, String version) {}
+
+    private record Entry(QuoteDTO quote, long sequence) {}
+}
@@ -0,0 +1,227 @@
+package com.rnexchange.service.marketdata;
+
+import com.rnexchange.config.MockMarketDataProperties;
+import com.rnexchange.config.MockMarketDataProperties.SessionProperties;
+import com.rnexchange.domain.Exchange;
+import com.rnexchange.domain.MarketHoliday;
+import com.rnexchange.repository.ExchangeRepository;
+import com.rnexchange.repository.MarketHolidayRepository;
+import com.rnexchange.service.marketdata.events.MarketHolidayChangedEvent;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory market holiday calendar, indexed by trade date, plus each exchange's trading session in its own
+ * timezone. The mock feed consults it on its hot paths, so lookups never reach the database; the calendar reloads
+ * when holidays change and once a day to drop past dates.
+ */
+@Component
+public class MarketCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketCalendar.class);
+
+    private final MarketHolidayRepository marketHolidayRepository;
+    private final ExchangeRepository exchangeRepository;
+    private final Map<String, SessionProperties> sessionProperties;
+    private final Clock clock;
+
+    private volatile Map<LocalDate, Set<String>> closedExchangesByDate = Collections.emptyMap();
+    private volatile Map<String, TradingSession> sessions = Collections.emptyMap();
+
+    @Autowired
+    public MarketCalendar(
+        MarketHolidayRepository marketHolidayRepository,
+        ExchangeRepository exchangeRepository,
+        MockMarketDataProperties properties
+    ) {
+        this(marketHolidayRepository, exchangeRepository, properties, Clock.systemUTC());
+    }
+
+    MarketCalendar(
+        MarketHolidayRepository marketHolidayRepository,
+        ExchangeRepository exchangeRepository,
+        MockMarketDataProperties properties,
+        Clock clock
+    ) {
+        this.marketHolidayRepository = Objects.requireNonNull(marketHolidayRepository, "marketHolidayRepository must not be null");
+        this.exchangeRepository = Objects.requireNonNull(exchangeRepository, "exchangeRepository must not be null");
+        this.sessionProperties = Map.copyOf((properties != null ? properties : new MockMarketDataProperties()).getSessions());
+        this.clock = clock == null ? Clock.systemUTC() : clock;
+    }
+
+    public boolean isClosed(String exchangeCode, LocalDate date) {
+        return closedExchanges(date).contains(exchangeCode);
+    }
+
+    public Set<String> closedExchanges(LocalDate date) {
+        return closedExchangesByDate.getOrDefault(date, Collections.emptySet());
+    }
+
+    /**
+     * Whether {@code exchangeCode} is trading at {@code at}: not on holiday for its local trade date and, when a
+     * session is configured, on a trading day within session hours. Unknown exchanges are treated as UTC.
+     */
+    public boolean isOpen(String exchangeCode, Instant at) {
+        TradingSession session = sessionOf(exchangeCode);
+        ZonedDateTime local = at.atZone(session.zone());
+        if (isClosed(exchangeCode, local.toLocalDate())) {
+            return false;
+        }
+        return session.isTradingAt(local);
+    }
+
+    /**
+     * Whether {@code exchangeCode} is on holiday for the trade date it is on at {@code at}.
+     */
+    public boolean isHoliday(String exchangeCode, Instant at) {
+        return isClosed(exchangeCode, at.atZone(sessionOf(exchangeCode).zone()).toLocalDate());
+    }
+
+    /**
+     * The first instant after {@code at} at which {@link #isOpen} may change for {@code exchangeCode}: the next
+     * session open or close, or the next local midnight, when the trade date and its holiday status roll over.
+     */
+    public Instant nextTransition(String exchangeCode, Instant at) {
+        TradingSession session = sessionOf(exchangeCode);
+        ZonedDateTime local = at.atZone(session.zone());
+        ZonedDateTime next = local.toLocalDate().plusDays(1).atStartOfDay(session.zone());
+        if (session.open() != null) {
+            ZonedDateTime open = local.with(session.open());
+            ZonedDateTime close = local.with(session.close());
+            if (open.isAfter(local) && open.isBefore(next)) {
+                next = open;
+            } else if (close.isAfter(local) && close.isBefore(next)) {
+                next = close;
+            }
+        }
+        return next.toInstant();
+    }
+
+    /**
+     * The latest session close of {@code exchangeCode} at or before {@code at}, or the start of its local trade date
+     * when it trades around the clock. Orders valid for the day expire once it has passed.
+     */
+    public Instant lastSessionClose(String exchangeCode, Instant at) {
+        TradingSession session = sessionOf(exchangeCode);
+        ZonedDateTime local = at.atZone(session.zone());
+        if (session.close() == null) {
+            return local.toLocalDate().atStartOfDay(session.zone()).toInstant();
+        }
+        ZonedDateTime close = local.with(session.close());
+        return (close.isAfter(local) ? close.minusDays(1) : close).toInstant();
+    }
+
+    private TradingSession sessionOf(String exchangeCode) {
+        TradingSession session = sessions.get(exchangeCode);
+        return session != null ? session : TradingSession.forExchange(ZoneOffset.UTC, sessionProperties.get(exchangeCode));
+    }
+
+    /**
+     * Reload holidays from yesterday onwards, and exchange timezones; the extra day covers exchanges whose local date
+     * lags UTC.
+     */
+    @Transactional(readOnly = true)
+    public void refresh() {
+        LocalDate from = LocalDate.now(clock).minusDays(1);
+        Map<LocalDate, Set<String>> loaded = new HashMap<>();
+        for (MarketHoliday holiday : marketHolidayRepository.findAllHolidaysFrom(from)) {
+            if (holiday.getExchange() == null || holiday.getTradeDate() == null) {
+                continue;
+            }
+            loaded.computeIfAbsent(holiday.getTradeDate(), date -> new HashSet<>()).add(holiday.getExchange().getCode());
+        }
+        Map<LocalDate, Set<String>> snapshot = new HashMap<>();
+        loaded.forEach((date, codes) -> snapshot.put(date, Set.copyOf(codes)));
+        closedExchangesByDate = Map.copyOf(snapshot);
+
+        Map<String, TradingSession> loadedSessions = new HashMap<>();
+        for (Exchange exchange : exchangeRepository.findAll()) {
+            if (exchange.getCode() != null) {
+                loadedSessions.put(
+                    exchange.getCode(),
+                    TradingSession.forExchange(zoneOf(exchange), sessionProperties.get(exchange.getCode()))
+                );
+            }
+        }
+        sessions = Map.copyOf(loadedSessions);
+        log.debug(
+            "Market calendar loaded {} holiday date(s) from {} and {} exchange session(s)",
+            snapshot.size(),
+            from,
+            loadedSessions.size()
+        );
+    }
+
+    private static ZoneId zoneOf(Exchange exchange) {
+        try {
+            return exchange.getTimezone() != null ? ZoneId.of(exchange.getTimezone()) : ZoneOffset.UTC;
+        } catch (DateTimeException ex) {
+            log.warn("Exchange {} has invalid timezone '{}'; using UTC", exchange.getCode(), exchange.getTimezone());
+            return ZoneOffset.UTC;
+        }
+    }
+
+    /**
+     * Runs ahead of other listeners of the same event, so they read the refreshed calendar.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void onMarketHolidayChanged(MarketHolidayChangedEvent event) {
+        refresh();
+    }
+
+    @Scheduled(cron = "0 0 0 * * ?", zone = "UTC")
+    public void refreshOnDateRollover() {
+        refresh();
+    }
+
+    /**
+     * Session hours of one exchange; {@code open} and {@code close} are {@code null} for an exchange that trades
+     * around the clock.
+     */
+    record TradingSession(ZoneId zone, LocalTime open, LocalTime close, Set<DayOfWeek> days) {
+        static TradingSession forExchange(ZoneId zone, SessionProperties properties) {
+            if (properties == null) {
+                return new TradingSession(zone, null, null, Set.of(DayOfWeek.values()));
+            }
+            return new TradingSession(
+                zone,
+                LocalTime.parse(properties.getOpen()),
+                LocalTime.parse(properties.getClose()),
+                Set.copyOf(properties.getDays())
+            );
+        }
+
+        boolean isTradingAt(ZonedDateTime local) {
+            if (open == null) {
+                return true;
+            }
+            LocalTime time = local.toLocalTime();
+            return days.contains(local.getDayOfWeek()) && !time.isBefore(open) && time.isBefore(close);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.rnexchange.service.marketdata;
 import com.rnexchange.config.MockMarketDataProperties;
 import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
+import java.time.LocalTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 @Component
 public class MockMarketDataConfigurationValidator {
@@ -21,25 +23,39 @@ public class MockMarketDataConfigurationValidator {
     @PostConstruct
     public void validateConfiguration() {
         BigDecimal min = properties.getMinPrice();
-        BigDecimal max = properties.getMaxPrice();
         BigDecimal defaultPrice = properties.getDefaultPrice();
 
-        if (min.compareTo(max) >= 0) {
+        if (defaultPrice.compareTo(min) < 0) {
+            throw new IllegalStateException("marketdata.mock.default-price must not be below marketdata.mock.min-price");
+        }
+
+        if (!BarTimeframe.isSupported(properties.getBarIntervalSeconds())) {
             throw new IllegalStateException(
-                "marketdata.mock.min-price must be strictly less than marketdata.mock.max-price (check application.yml)"
+                "marketdata.mock.bar-interval-seconds must be one of " +
+                BarTimeframe.supportedSeconds() +
+                " but was " +
+                properties.getBarIntervalSeconds()
             );
         }
 
-        if (defaultPrice.compareTo(min) < 0 || defaultPrice.compareTo(max) > 0) {
-            throw new IllegalStateException("marketdata.mock.default-price must fall within the configured min/max price rails");
+        if (properties.getReplay().isEnabled() && !StringUtils.hasText(properties.getReplay().getFile())) {
+            throw new IllegalStateException("marketdata.mock.replay.file must be set when marketdata.mock.replay.enabled is true");
         }
 
+        properties
+            .getSessions()
+            .forEach((exchange, session) -> {
+                if (!LocalTime.parse(session.getOpen()).isBefore(LocalTime.parse(session.getClose()))) {
+                    throw new IllegalStateException("marketdata.mock.sessions." + exchange + ".open must be before its close");
+                }
+            });
+
         LOG.debug(
-            "Mock market data configuration active: interval={} ms, batchSize={}, priceRange=[{}, {}]",
+            "Mock market data configuration active: interval={} ms, batchSize={}, minPrice={}, railPercent={}",
             properties.getIntervalMs(),
             properties.getBatchSize(),
             min,
-            max
+            properties.getRailPercent()
         );
     }
 }
@@ -1,35 +1,52 @@
 package com.rnexchange.service.marketdata;
 
 import com.rnexchange.config.MockMarketDataProperties;
+import com.rnexchange.config.MockMarketDataProperties.GeneratorPartitioning;
+import com.rnexchange.config.MockMarketDataProperties.ReplayProperties;
 import com.rnexchange.domain.Instrument;
-import com.rnexchange.domain.MarketHoliday;
+import com.rnexchange.repository.DailySettlementPriceRepository;
 import com.rnexchange.repository.InstrumentRepository;
-import com.rnexchange.repository.MarketHolidayRepository;
+import com.rnexchange.repository.projection.LatestSettlementPriceRow;
 import com.rnexchange.service.dto.BarDTO;
 import com.rnexchange.service.dto.ExchangeStatusDTO;
+import com.rnexchange.service.dto.FeedRateDTO;
 import com.rnexchange.service.dto.FeedState;
 import com.rnexchange.service.dto.FeedStatusDTO;
 import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.ReplayFeedSource.ReplayTick;
 import com.rnexchange.service.marketdata.RollingMinuteVolatilityGuard.GuardSnapshot;
+import com.rnexchange.service.marketdata.RollingMinuteVolatilityGuard.GuardTransition;
+import com.rnexchange.service.marketdata.VolatilityConfigurationLoader.VolatilityOverrides;
+import com.rnexchange.service.marketdata.events.DefaultPriceAppliedEvent;
 import com.rnexchange.service.marketdata.events.FeedStartedEvent;
 import com.rnexchange.service.marketdata.events.FeedStoppedEvent;
+import com.rnexchange.service.marketdata.events.InstrumentChangedEvent;
+import com.rnexchange.service.marketdata.events.MarketHolidayChangedEvent;
+import com.rnexchange.service.marketdata.events.VolatilityGuardReleasedEvent;
+import com.rnexchange.service.marketdata.events.VolatilityGuardTriggeredEvent;
 import com.rnexchange.web.websocket.MarketDataWebSocketHandler;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,64 +57,93 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Service
 public class MockMarketDataService {
 
     private static final Logger log = LoggerFactory.getLogger(MockMarketDataService.class);
 
-    private static final int DEFAULT_INTERVAL_MILLIS = 750;
-    private static final BigDecimal DEFAULT_PRICE = new BigDecimal("100.00");
+    static final int MIN_INTERVAL_MILLIS = 100;
+    static final int MAX_INTERVAL_MILLIS = 1000;
+    static final int MIN_BATCH_SIZE = 1;
+    static final int MAX_BATCH_SIZE = 10;
+    static final int REPLAY_POLL_MILLIS = 10;
+    static final int MAX_REPLAY_TICKS_PER_CYCLE = 50_000;
+    static final long MIN_SESSION_CHECK_MILLIS = 1_000;
+    static final long MAX_SESSION_CHECK_MILLIS = 60_000;
+    static final BigDecimal FALLBACK_VOLATILITY = new BigDecimal("0.01");
+    private static final String ACTIVE_STATUS = "ACTIVE";
 
     private final InstrumentRepository instrumentRepository;
-    private final MarketHolidayRepository marketHolidayRepository;
+    private final DailySettlementPriceRepository settlementPriceRepository;
+    private final VolatilityConfigurationLoader volatilityConfigurationLoader;
+    private final MarketCalendar marketCalendar;
     private final MarketDataWebSocketHandler webSocketHandler;
     private final RollingMinuteVolatilityGuard volatilityGuard;
-    private final BarAggregator barAggregator;
+    private final BarHistoryStore barHistoryStore;
+    private final LastQuoteCache lastQuoteCache;
     private final ApplicationEventPublisher eventPublisher;
     private final Clock clock;
 
     private final Map<String, InstrumentState> instrumentStates = new ConcurrentHashMap<>();
-    private final Map<String, ExchangeMetrics> exchangeMetrics = new ConcurrentHashMap<>();
-    private final Map<String, PriceGenerator> priceGenerators = new ConcurrentHashMap<>();
-    /**
-     * Pending quotes to be broadcast in batches. This enables high tick rates while
-     * keeping WebSocket send frequency bounded, as described in research.md §6.1.
-     */
-    private final Queue<QuoteDTO> pendingQuotes = new ConcurrentLinkedQueue<>();
     private final AtomicReference<FeedState> feedState = new AtomicReference<>(FeedState.STOPPED);
     private volatile Instant startedAt;
-    private volatile ScheduledFuture<?> generatorTask;
+    private volatile List<GeneratorShard> shards = List.of();
     private volatile ScheduledFuture<?> flushTask;
-    private volatile ScheduledFuture<?> barTask;
+    private volatile ScheduledFuture<?> sessionTask;
+    private volatile Set<String> holidayExchanges = Set.of();
+    private volatile Set<String> sessionClosedExchanges = Set.of();
     private final ScheduledExecutorService scheduler;
-    private final int barIntervalSeconds;
-    private volatile Set<String> lastClosedExchanges = Collections.emptySet();
+    // Reused by the flush task, which always runs on the single scheduler thread.
+    private final List<QuoteDTO> flushBuffer = new ArrayList<>();
+    private final ScheduledExecutorService generatorScheduler;
+    private final int generatorThreads;
+    private final GeneratorPartitioning partitioning;
+    private final BarTimeframe primaryBarTimeframe;
+    private final BigDecimal minPrice;
+    private final BigDecimal defaultPrice;
+    private final BigDecimal railPercent;
+    private final Long configuredSeed;
+    private volatile int intervalMillis;
+    private volatile int batchSize;
+    private final ReplayProperties replay;
+    private volatile ReplayRun replayRun;
 
     @org.springframework.beans.factory.annotation.Autowired
     public MockMarketDataService(
         InstrumentRepository instrumentRepository,
-        MarketHolidayRepository marketHolidayRepository,
+        DailySettlementPriceRepository settlementPriceRepository,
+        VolatilityConfigurationLoader volatilityConfigurationLoader,
+        MarketCalendar marketCalendar,
         MarketDataWebSocketHandler webSocketHandler,
         RollingMinuteVolatilityGuard volatilityGuard,
+        BarHistoryStore barHistoryStore,
+        LastQuoteCache lastQuoteCache,
         ApplicationEventPublisher eventPublisher,
-        BarAggregator barAggregator,
         MockMarketDataProperties properties
     ) {
         this(
             instrumentRepository,
-            marketHolidayRepository,
+            settlementPriceRepository,
+            volatilityConfigurationLoader,
+            marketCalendar,
             webSocketHandler,
             volatilityGuard,
+            barHistoryStore,
+            lastQuoteCache,
             eventPublisher,
-            barAggregator,
             properties,
             Clock.systemUTC()
         );
@@ -105,24 +151,43 @@ public class MockMarketDataService {
 
     MockMarketDataService(
         InstrumentRepository instrumentRepository,
-        MarketHolidayRepository marketHolidayRepository,
+        DailySettlementPriceRepository settlementPriceRepository,
+        VolatilityConfigurationLoader volatilityConfigurationLoader,
+        MarketCalendar marketCalendar,
         MarketDataWebSocketHandler webSocketHandler,
         RollingMinuteVolatilityGuard volatilityGuard,
+        BarHistoryStore barHistoryStore,
+        LastQuoteCache lastQuoteCache,
         ApplicationEventPublisher eventPublisher,
-        BarAggregator barAggregator,
         MockMarketDataProperties properties,
         Clock clock
     ) {
         this.instrumentRepository = Objects.requireNonNull(instrumentRepository, "instrumentRepository must not be null");
-        this.marketHolidayRepository = Objects.requireNonNull(marketHolidayRepository, "marketHolidayRepository must not be null");
+        this.settlementPriceRepository = Objects.requireNonNull(settlementPriceRepository, "settlementPriceRepository must not be null");
+        this.volatilityConfigurationLoader = Objects.requireNonNull(
+            volatilityConfigurationLoader,
+            "volatilityConfigurationLoader must not be null"
+        );
+        this.marketCalendar = Objects.requireNonNull(marketCalendar, "marketCalendar must not be null");
         this.webSocketHandler = Objects.requireNonNull(webSocketHandler, "webSocketHandler must not be null");
         this.volatilityGuard = Objects.requireNonNull(volatilityGuard, "volatilityGuard must not be null");
-        this.barAggregator = Objects.requireNonNull(barAggregator, "barAggregator must not be null");
+        this.barHistoryStore = Objects.requireNonNull(barHistoryStore, "barHistoryStore must not be null");
+        this.lastQuoteCache = Objects.requireNonNull(lastQuoteCache, "lastQuoteCache must not be null");
         this.eventPublisher = Objects.requireNonNull(eventPublisher, "eventPublisher must not be null");
         this.clock = clock == null ? Clock.systemUTC() : clock;
         this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("mock-marketdata"));
-        int configuredBarInterval = properties != null ? properties.getBarIntervalSeconds() : 60;
-        this.barIntervalSeconds = Math.max(1, configuredBarInterval);
+        MockMarketDataProperties config = properties != null ? properties : new MockMarketDataProperties();
+        this.primaryBarTimeframe = BarTimeframe.ofSeconds(config.getBarIntervalSeconds());
+        this.generatorThreads = Math.max(1, config.getGeneratorThreads());
+        this.partitioning = config.getPartitioning();
+        this.minPrice = config.getMinPrice();
+        this.defaultPrice = config.getDefaultPrice();
+        this.railPercent = config.getRailPercent();
+        this.configuredSeed = config.getSeed();
+        this.intervalMillis = config.getIntervalMs();
+        this.batchSize = config.getBatchSize();
+        this.replay = config.getReplay();
+        this.generatorScheduler = Executors.newScheduledThreadPool(generatorThreads, new NamedThreadFactory("mock-marketdata-gen"));
     }
 
     @PostConstruct
@@ -134,6 +199,7 @@ public class MockMarketDataService {
     void onShutdown() {
         stop();
         scheduler.shutdownNow();
+        generatorScheduler.shutdownNow();
     }
 
     @Transactional(readOnly = true)
@@ -160,47 +226,190 @@ public class MockMarketDataService {
         }
 
         Set<String> exchanges = loadedStates.values().stream().map(InstrumentState::getExchangeCode).collect(Collectors.toSet());
-        Set<String> closedExchanges = findClosedExchanges(exchanges);
-        if (closedExchanges.size() == exchanges.size()) {
-            log.info("All exchanges are closed today; mock feed will remain stopped");
-            feedState.set(FeedState.STOPPED);
-            lastClosedExchanges = closedExchanges;
-            return;
+        // Recorded ticks carry their own trading days, so the calendar only gates the random walk.
+        if (!replay.isEnabled()) {
+            // Holidays may have been written without going through MarketHolidayService, so reload before deciding.
+            marketCalendar.refresh();
+            Instant now = clock.instant();
+            if (exchanges.stream().allMatch(code -> marketCalendar.isHoliday(code, now))) {
+                log.info("All exchanges are closed today; mock feed will remain stopped");
+                feedState.set(FeedState.STOPPED);
+                return;
+            }
         }
 
+        long seed = configuredSeed != null ? configuredSeed : ThreadLocalRandom.current().nextLong();
+        List<GeneratorShard> partitioned = partition(loadedStates.values(), seed);
+        replayRun = replay.isEnabled() ? openReplay(partitioned) : null;
         instrumentStates.clear();
         instrumentStates.putAll(loadedStates);
-        exchangeMetrics.clear();
-        exchanges.forEach(code -> exchangeMetrics.put(code, new ExchangeMetrics()));
+        // Forget symbols delisted while stopped, and serve opening prices until the first flush replaces them.
+        lastQuoteCache.retainAll(loadedStates.keySet());
+        loadedStates.values().forEach(state -> lastQuoteCache.put(state.toQuote()));
+        shards = partitioned;
         feedState.set(FeedState.RUNNING);
         startedAt = clock.instant();
-        lastClosedExchanges = closedExchanges;
 
         scheduleGenerator();
         eventPublisher.publishEvent(new FeedStartedEvent(new ArrayList<>(exchanges), "manual", startedAt));
-        log.info("Mock market data feed started with {} instruments across {} exchanges", instrumentStates.size(), exchanges.size());
+        log.info(
+            "Mock market data feed started with {} instruments across {} exchanges on {} generator shard(s), seed={}{}",
+            instrumentStates.size(),
+            exchanges.size(),
+            partitioned.size(),
+            seed,
+            replayRun != null ? " replaying " + replayRun.source.getName() + " at " + replay.getSpeed() : ""
+        );
     }
 
     public synchronized void stop() {
+        stop("STOP_INVOKED");
+    }
+
+    private synchronized void stop(String reason) {
         if (feedState.get() == FeedState.STOPPED) {
             log.debug("Mock market data feed already stopped; ignoring stop request");
             return;
         }
-        if (generatorTask != null) {
-            generatorTask.cancel(false);
-            generatorTask = null;
+        shards.forEach(GeneratorShard::cancel);
+        if (sessionTask != null) {
+            sessionTask.cancel(false);
+            sessionTask = null;
         }
+        holidayExchanges = Set.of();
+        sessionClosedExchanges = Set.of();
+        closeReplay();
         if (flushTask != null) {
             flushTask.cancel(false);
             flushTask = null;
         }
-        if (barTask != null) {
-            barTask.cancel(false);
-            barTask = null;
-        }
         feedState.set(FeedState.STOPPED);
-        eventPublisher.publishEvent(new FeedStoppedEvent(List.copyOf(exchangeMetrics.keySet()), "manual", clock.instant(), "STOP_INVOKED"));
-        log.info("Mock market data feed stopped");
+        eventPublisher.publishEvent(new FeedStoppedEvent(List.copyOf(activeExchanges()), "manual", clock.instant(), reason));
+        log.info("Mock market data feed stopped ({})", reason);
+    }
+
+    public FeedRateDTO getRate() {
+        return new FeedRateDTO(intervalMillis, batchSize);
+    }
+
+    /**
+     * Change the tick rate without restarting the feed. A running feed is rescheduled immediately; instrument state,
+     * metrics and pending quotes are kept.
+     */
+    public synchronized FeedRateDTO retune(int newIntervalMillis, int newBatchSize) {
+        if (newIntervalMillis < MIN_INTERVAL_MILLIS || newIntervalMillis > MAX_INTERVAL_MILLIS) {
+            throw new IllegalArgumentException(
+                "intervalMs must be between %d and %d".formatted(MIN_INTERVAL_MILLIS, MAX_INTERVAL_MILLIS)
+            );
+        }
+        if (newBatchSize < MIN_BATCH_SIZE || newBatchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between %d and %d".formatted(MIN_BATCH_SIZE, MAX_BATCH_SIZE));
+        }
+        boolean intervalChanged = newIntervalMillis != intervalMillis;
+        intervalMillis = newIntervalMillis;
+        batchSize = newBatchSize;
+        if (intervalChanged && feedState.get() == FeedState.RUNNING && replayRun == null) {
+            scheduleShards();
+        }
+        log.info("Mock market data feed retuned to interval={}ms batchSize={}", newIntervalMillis, newBatchSize);
+        return getRate();
+    }
+
+    /**
+     * Fold an instrument create, update or delete into the running feed without touching the session state of any
+     * other instrument. A stopped feed ignores the change, since {@link #start()} loads the universe afresh.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void onInstrumentChanged(InstrumentChangedEvent event) {
+        if (feedState.get() != FeedState.RUNNING) {
+            return;
+        }
+        Instrument current = instrumentRepository
+            .findById(event.instrumentId())
+            .filter(instrument -> ACTIVE_STATUS.equalsIgnoreCase(instrument.getStatus()))
+            .orElse(null);
+        InstrumentState added = null;
+        boolean continuesSession = false;
+        if (current != null) {
+            InstrumentState existing = instrumentStates.get(current.getSymbol());
+            VolatilityOverrides volatilityOverrides = volatilityConfigurationLoader.load();
+            if (existing == null || !existing.getExchangeCode().equals(current.getExchangeCode())) {
+                BigDecimal lastClose = settlementPriceRepository
+                    .findSettlementPricesBySymbol(current.getSymbol(), PageRequest.of(0, 1))
+                    .stream()
+                    .map(LatestSettlementPriceRow::settlePrice)
+                    .filter(price -> price != null && price.signum() > 0)
+                    .findFirst()
+                    .orElse(null);
+                added = createInstrumentState(current, lastClose, volatilityOverrides);
+            } else {
+                // An asset class or override change alters the walk, not the session.
+                double volatility = volatilityOf(current, volatilityOverrides);
+                if (Double.compare(volatility, existing.getVolatility()) != 0) {
+                    added = existing.withVolatility(volatility);
+                    continuesSession = true;
+                }
+            }
+        }
+        applyInstrumentChange(event.previousSymbol(), current != null ? current.getSymbol() : null, added, continuesSession);
+    }
+
+    /**
+     * Park or resume exchanges as soon as a holiday change lands instead of at the next session check.
+     * {@link MarketCalendar} refreshes on the same event first.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMarketHolidayChanged(MarketHolidayChangedEvent event) {
+        applySessionsSafe();
+    }
+
+    private synchronized void applyInstrumentChange(
+        String previousSymbol,
+        String currentSymbol,
+        InstrumentState added,
+        boolean continuesSession
+    ) {
+        if (feedState.get() != FeedState.RUNNING) {
+            return;
+        }
+        if (previousSymbol != null && !previousSymbol.equals(currentSymbol)) {
+            removeInstrument(previousSymbol);
+        }
+        if (added == null) {
+            return;
+        }
+        if (continuesSession) {
+            InstrumentState existing = instrumentStates.get(added.getSymbol());
+            if (existing == null || !existing.getExchangeCode().equals(added.getExchangeCode())) {
+                return;
+            }
+            instrumentStates.put(added.getSymbol(), added);
+            shards.get(shardIndexOf(added)).enqueueRetune(added);
+            log.info("Retuned {} on {} to volatility {}", added.getSymbol(), added.getExchangeCode(), added.getVolatility());
+            return;
+        }
+        // An instrument that moved exchange is re-created, possibly on another shard.
+        removeInstrument(added.getSymbol());
+        instrumentStates.put(added.getSymbol(), added);
+        lastQuoteCache.put(added.toQuote());
+        shards.get(shardIndexOf(added)).enqueueAdd(added);
+        log.info("Added {} on {} to the running mock feed", added.getSymbol(), added.getExchangeCode());
+        // The instrument may bring an exchange, and so a parked shard, into session.
+        applySessions();
+    }
+
+    private void removeInstrument(String symbol) {
+        InstrumentState removed = instrumentStates.remove(symbol);
+        if (removed != null) {
+            shards.get(shardIndexOf(removed)).enqueueRemoval(symbol);
+            lastQuoteCache.remove(symbol);
+            log.info("Removed {} on {} from the running mock feed", symbol, removed.getExchangeCode());
+        }
+    }
+
+    Optional<InstrumentState> findInstrumentState(String symbol) {
+        return Optional.ofNullable(instrumentStates.get(symbol));
     }
 
     public Map<String, GuardSnapshot> getVolatilitySnapshots() {
@@ -214,157 +423,681 @@ public class MockMarketDataService {
     }
 
     private Map<String, InstrumentState> loadInstrumentStates() {
-        List<Instrument> instruments = instrumentRepository.findAll();
-        return instruments
-            .stream()
-            .filter(instrument -> "ACTIVE".equalsIgnoreCase(instrument.getStatus()))
-            .collect(Collectors.toMap(Instrument::getSymbol, this::createInstrumentState));
+        List<Instrument> instruments = instrumentRepository.findAllByStatusIgnoreCase(ACTIVE_STATUS);
+        Map<String, BigDecimal> lastCloses = loadLastCloses();
+        VolatilityOverrides volatilityOverrides = volatilityConfigurationLoader.load();
+        Map<String, InstrumentState> states = new HashMap<>();
+        int defaulted = 0;
+        for (Instrument instrument : instruments) {
+            BigDecimal lastClose = lastCloses.get(instrument.getSymbol());
+            if (lastClose == null) {
+                defaulted++;
+            }
+            states.put(instrument.getSymbol(), createInstrumentState(instrument, lastClose, volatilityOverrides));
+        }
+        if (!states.isEmpty()) {
+            log.info(
+                "Opened {} instruments at their last settlement price and {} at the default price {}",
+                states.size() - defaulted,
+                defaulted,
+                defaultPrice
+            );
+        }
+        return states;
+    }
+
+    private InstrumentState createInstrumentState(Instrument instrument, BigDecimal lastClose, VolatilityOverrides volatilityOverrides) {
+        BigDecimal openPrice = lastClose;
+        if (openPrice == null) {
+            openPrice = defaultPrice;
+            eventPublisher.publishEvent(
+                new DefaultPriceAppliedEvent(instrument.getSymbol(), instrument.getExchangeCode(), defaultPrice, clock.instant())
+            );
+        }
+        return new InstrumentState(
+            instrument.getSymbol(),
+            instrument.getExchangeCode(),
+            openPrice,
+            volatilityOf(instrument, volatilityOverrides)
+        );
+    }
+
+    private static double volatilityOf(Instrument instrument, VolatilityOverrides volatilityOverrides) {
+        String assetClass = instrument.getAssetClass() != null ? instrument.getAssetClass().name() : null;
+        return volatilityOverrides.resolve(instrument.getExchangeCode(), assetClass, FALLBACK_VOLATILITY).doubleValue();
+    }
+
+    /**
+     * Latest positive settlement price per symbol, fetched in a single query however many instruments are listed.
+     */
+    private Map<String, BigDecimal> loadLastCloses() {
+        Map<String, BigDecimal> lastCloses = new HashMap<>();
+        for (LatestSettlementPriceRow row : settlementPriceRepository.findLatestSettlementPrices()) {
+            if (row.settlePrice() != null && row.settlePrice().signum() > 0) {
+                lastCloses.putIfAbsent(row.instrumentSymbol(), row.settlePrice());
+            }
+        }
+        return lastCloses;
+    }
+
+    /**
+     * Rails of the walk for one instrument: {@code railPercent} either side of its open, never below the global
+     * minimum price.
+     */
+    private PriceGenerator priceGeneratorFor(InstrumentState state, RandomGenerator random) {
+        BigDecimal open = state.getSessionOpen();
+        BigDecimal floor = open.multiply(BigDecimal.ONE.subtract(railPercent)).setScale(FixedPointPrice.SCALE, RoundingMode.HALF_UP);
+        BigDecimal ceiling = open.multiply(BigDecimal.ONE.add(railPercent)).setScale(FixedPointPrice.SCALE, RoundingMode.HALF_UP);
+        // One walk step per tick; batch emission is handled by the generator loop so each tick is recorded.
+        return new PriceGenerator(random, floor.max(minPrice), ceiling.max(minPrice), 1);
+    }
+
+    /**
+     * One shard per generator thread, indexed by {@link #shardIndexOf}, so an instrument added later always has a
+     * shard to join even if its exchange had no instruments at start.
+     */
+    private List<GeneratorShard> partition(Collection<InstrumentState> states, long seed) {
+        List<List<InstrumentState>> byIndex = new ArrayList<>(generatorThreads);
+        for (int index = 0; index < generatorThreads; index++) {
+            byIndex.add(new ArrayList<>());
+        }
+        for (InstrumentState state : states) {
+            byIndex.get(shardIndexOf(state)).add(state);
+        }
+        List<GeneratorShard> partitioned = new ArrayList<>(generatorThreads);
+        for (int index = 0; index < generatorThreads; index++) {
+            partitioned.add(new GeneratorShard(index, byIndex.get(index), seed));
+        }
+        return List.copyOf(partitioned);
     }
 
-    private InstrumentState createInstrumentState(Instrument instrument) {
-        BigDecimal openPrice = DEFAULT_PRICE;
-        InstrumentState state = new InstrumentState(instrument.getSymbol(), instrument.getExchangeCode(), openPrice, 0.01);
-        BigDecimal minPrice = openPrice.multiply(new BigDecimal("0.50"));
-        BigDecimal maxPrice = openPrice.multiply(new BigDecimal("1.50"));
-        priceGenerators.put(instrument.getSymbol(), new PriceGenerator(minPrice, maxPrice, 1));
-        return state;
+    private int shardIndexOf(InstrumentState state) {
+        String key = partitioning == GeneratorPartitioning.SYMBOL ? state.getSymbol() : state.getExchangeCode();
+        return Math.floorMod(key.hashCode(), generatorThreads);
     }
 
     private void scheduleGenerator() {
-        if (generatorTask != null && !generatorTask.isCancelled()) {
-            generatorTask.cancel(false);
+        if (replayRun != null) {
+            scheduleReplay(replayRun);
+        } else {
+            scheduleShards();
         }
-        generatorTask = scheduler.scheduleAtFixedRate(this::generateTicksSafe, 0, DEFAULT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
         if (flushTask != null && !flushTask.isCancelled()) {
             flushTask.cancel(false);
         }
         // Flush quote batches every 100ms, deduplicating by symbol to keep latency low
         // while dramatically reducing WebSocket send volume.
         flushTask = scheduler.scheduleAtFixedRate(this::flushQuotesSafe, 100, 100, TimeUnit.MILLISECONDS);
-        if (barTask != null && !barTask.isCancelled()) {
-            barTask.cancel(false);
-        }
-        barTask = scheduler.scheduleAtFixedRate(this::broadcastBarsSafe, barIntervalSeconds, barIntervalSeconds, TimeUnit.SECONDS);
     }
 
-    private void generateTicksSafe() {
+    private void scheduleShards() {
+        shards.forEach(GeneratorShard::cancel);
+        applySessions();
+    }
+
+    private void applySessionsSafe() {
         try {
-            generateTicks();
+            applySessions();
         } catch (Exception ex) {
-            log.error("Failed to generate mock market data tick", ex);
+            log.error("Failed to apply exchange trading sessions", ex);
+            sessionTask = scheduler.schedule(this::applySessionsSafe, MAX_SESSION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
         }
     }
 
-    private void generateTicks() {
-        if (feedState.get() != FeedState.RUNNING) {
+    /**
+     * Run the shards that hold an instrument of an exchange in session and park the rest, then check again at the
+     * earliest session open, close or local date rollover. A parked shard has no scheduled task at all, so it costs
+     * nothing until one of its exchanges opens; its last working bars close on its first cycle after the open.
+     */
+    private synchronized void applySessions() {
+        if (feedState.get() != FeedState.RUNNING || replayRun != null) {
             return;
         }
+        Instant now = clock.instant();
+        Map<String, Boolean> openByExchange = new HashMap<>();
+        Set<String> holidays = new HashSet<>();
+        Set<String> outOfSession = new HashSet<>();
+        Instant nextCheck = now.plusMillis(MAX_SESSION_CHECK_MILLIS);
+        boolean[] active = new boolean[shards.size()];
+        for (InstrumentState state : instrumentStates.values()) {
+            String exchangeCode = state.getExchangeCode();
+            Boolean open = openByExchange.get(exchangeCode);
+            if (open == null) {
+                open = marketCalendar.isOpen(exchangeCode, now);
+                openByExchange.put(exchangeCode, open);
+                if (!open) {
+                    (marketCalendar.isHoliday(exchangeCode, now) ? holidays : outOfSession).add(exchangeCode);
+                }
+                Instant transition = marketCalendar.nextTransition(exchangeCode, now);
+                if (transition.isBefore(nextCheck)) {
+                    nextCheck = transition;
+                }
+            }
+            if (open) {
+                active[shardIndexOf(state)] = true;
+            }
+        }
+        holidayExchanges = Set.copyOf(holidays);
+        sessionClosedExchanges = Set.copyOf(outOfSession);
+        Set<String> closed = new HashSet<>(holidays);
+        closed.addAll(outOfSession);
+        Set<String> closedSnapshot = Set.copyOf(closed);
 
-        Set<String> exchanges = instrumentStates.values().stream().map(InstrumentState::getExchangeCode).collect(Collectors.toSet());
-        Set<String> closedExchanges = findClosedExchanges(exchanges);
-        lastClosedExchanges = closedExchanges;
+        long interval = intervalMillis;
+        for (GeneratorShard shard : shards) {
+            shard.closedExchanges = closedSnapshot;
+            if (active[shard.index] && shard.task == null) {
+                shard.task = generatorScheduler.scheduleAtFixedRate(shard::generateTicksSafe, 0, interval, TimeUnit.MILLISECONDS);
+                log.debug("Generator shard {} running", shard.index);
+            } else if (!active[shard.index] && shard.task != null) {
+                shard.cancel();
+                log.info("Generator shard {} parked until one of its exchanges opens", shard.index);
+            }
+        }
 
-        instrumentStates
-            .values()
-            .forEach(state -> {
-                if (closedExchanges.contains(state.getExchangeCode())) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(
-                            "Skipping {} tick because exchange {} is closed per holiday calendar",
-                            state.getSymbol(),
-                            state.getExchangeCode()
-                        );
-                    }
-                    return;
-                }
-                PriceGenerator generator = priceGenerators.getOrDefault(state.getSymbol(), new PriceGenerator());
-                BigDecimal nextPrice = generator.nextPrice(state.getLastPrice(), state.getSessionOpen(), state.getVolatility());
-                long volume = ThreadLocalRandom.current().nextLong(1, 500);
-                state.updateWithTick(nextPrice, volume);
-                volatilityGuard.register(state.getSymbol(), state.getSessionOpen(), nextPrice);
-                QuoteDTO quote = new QuoteDTO(
-                    state.getSymbol(),
-                    state.getLastPrice(),
-                    state.getSessionOpen(),
-                    state.getChange(),
-                    state.getChangePercent(),
-                    state.getCumulativeVolume(),
-                    state.getLastUpdated()
-                );
-                pendingQuotes.add(quote);
-                exchangeMetrics.computeIfAbsent(state.getExchangeCode(), key -> new ExchangeMetrics()).recordTick(state.getLastUpdated());
-            });
+        if (sessionTask != null) {
+            sessionTask.cancel(false);
+        }
+        long delay = Math.max(MIN_SESSION_CHECK_MILLIS, Duration.between(now, nextCheck).toMillis());
+        sessionTask = scheduler.schedule(this::applySessionsSafe, delay, TimeUnit.MILLISECONDS);
     }
 
-    private void flushQuotesSafe() {
+    private ReplayRun openReplay(List<GeneratorShard> partitioned) {
+        Path file = Path.of(replay.getFile());
+        ReplayFeedSource source;
         try {
-            flushQuotes();
+            source = ReplayFeedSource.open(file, replay.getSpeed());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open replay file " + file, ex);
+        }
+        return new ReplayRun(source, partitioned);
+    }
+
+    private void scheduleReplay(ReplayRun run) {
+        // Recorded ticks are interleaved across symbols, so one task drains the file in order and applies each tick
+        // on its instrument's shard. Shard tasks are not scheduled, which keeps every shard single-writer.
+        long delay = replay.getSpeed().isUnbounded() ? 1 : REPLAY_POLL_MILLIS;
+        run.startedNanos = System.nanoTime();
+        run.task = generatorScheduler.scheduleWithFixedDelay(() -> replayTicksSafe(run), 0, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void replayTicksSafe(ReplayRun run) {
+        try {
+            replayTicks(run);
         } catch (Exception ex) {
-            log.error("Failed to flush mock market data quotes", ex);
+            if (run != replayRun) {
+                // The feed was stopped underneath the task, which closes the source.
+                return;
+            }
+            log.error("Failed to replay mock market data from {}", run.source.getName(), ex);
+            stop("REPLAY_FAILED");
+        }
+    }
+
+    private void replayTicks(ReplayRun run) {
+        if (feedState.get() != FeedState.RUNNING || run != replayRun) {
+            return;
+        }
+        run.applyPendingChanges();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - run.startedNanos);
+        run.source.drainDue(elapsedMillis, MAX_REPLAY_TICKS_PER_CYCLE, run::apply);
+        if (run.source.isExhausted()) {
+            run.closeAllBars();
+            log.info(
+                "Replay of {} completed: {} ticks replayed, {} rows skipped, {} ticks for unknown symbols",
+                run.source.getName(),
+                run.source.getTicksEmitted(),
+                run.source.getRowsSkipped(),
+                run.unknownSymbolTicks
+            );
+            // The flush task is cancelled on stop, so publish the final quotes on its thread first.
+            scheduler.execute(this::flushQuotesSafe);
+            stop("REPLAY_COMPLETED");
         }
     }
 
-    private void broadcastBarsSafe() {
+    private void closeReplay() {
+        ReplayRun run = replayRun;
+        if (run == null) {
+            return;
+        }
+        replayRun = null;
+        if (run.task != null) {
+            run.task.cancel(false);
+        }
         try {
-            broadcastBars();
+            run.source.close();
+        } catch (IOException ex) {
+            log.warn("Failed to close replay file {}: {}", run.source.getName(), ex.getMessage());
+        }
+    }
+
+    private void flushQuotesSafe() {
+        try {
+            flushQuotes();
         } catch (Exception ex) {
-            log.error("Failed to broadcast mock market data bars", ex);
+            log.error("Failed to flush mock market data quotes", ex);
         }
     }
 
     /**
-     * Drain pending quotes, deduplicate by symbol, and broadcast only the latest
-     * quote per symbol. This implements the batch broadcasting strategy from
+     * Collect the latest quote of every symbol that ticked since the last flush and
+     * broadcast them together. This implements the batch broadcasting strategy from
      * research.md Section 6.1 to support high tick throughput without
      * overwhelming WebSocket consumers.
      */
     private void flushQuotes() {
-        if (pendingQuotes.isEmpty()) {
-            return;
+        List<QuoteDTO> batch = flushBuffer;
+        batch.clear();
+        for (GeneratorShard shard : shards) {
+            shard.drainChanged(batch);
         }
-        Map<String, QuoteDTO> latestBySymbol = new HashMap<>();
-        QuoteDTO quote;
-        while ((quote = pendingQuotes.poll()) != null) {
-            latestBySymbol.put(quote.symbol(), quote);
+        if (!batch.isEmpty()) {
+            lastQuoteCache.putAll(batch);
+            webSocketHandler.broadcastQuotes(batch);
         }
-        latestBySymbol.values().forEach(webSocketHandler::broadcastQuote);
-    }
-
-    private void broadcastBars() {
-        if (feedState.get() != FeedState.RUNNING) {
-            return;
-        }
-        instrumentStates
-            .values()
-            .forEach(state -> {
-                if (lastClosedExchanges.contains(state.getExchangeCode())) {
-                    return;
-                }
-                BarDTO bar = barAggregator.createBar(state);
-                webSocketHandler.broadcastBar(bar);
-            });
+        batch.clear();
     }
 
     private ExchangeStatusDTO buildExchangeStatus(String exchangeCode, FeedState currentState) {
-        ExchangeMetrics metrics = exchangeMetrics.getOrDefault(exchangeCode, new ExchangeMetrics());
-        FeedState exchangeState = lastClosedExchanges.contains(exchangeCode) ? FeedState.HOLIDAY : currentState;
+        Instant lastTickTime = null;
+        int ticksPerSecond = 0;
+        for (GeneratorShard shard : shards) {
+            ExchangeMetrics metrics = shard.metrics.get(exchangeCode);
+            if (metrics == null) {
+                continue;
+            }
+            // With SYMBOL partitioning an exchange spans several shards, so combine their metrics.
+            Instant shardLastTick = metrics.getLastTickTime();
+            if (shardLastTick != null && (lastTickTime == null || shardLastTick.isAfter(lastTickTime))) {
+                lastTickTime = shardLastTick;
+            }
+            ticksPerSecond += metrics.getTicksPerSecond();
+        }
+        FeedState exchangeState = currentState;
+        if (holidayExchanges.contains(exchangeCode)) {
+            exchangeState = FeedState.HOLIDAY;
+        } else if (sessionClosedExchanges.contains(exchangeCode)) {
+            exchangeState = FeedState.STOPPED;
+        }
         return new ExchangeStatusDTO(
             exchangeCode,
             exchangeState,
-            metrics.getLastTickTime(),
-            metrics.getTicksPerSecond(),
+            lastTickTime,
+            ticksPerSecond,
             (int) instrumentStates.values().stream().filter(state -> state.getExchangeCode().equals(exchangeCode)).count()
         );
     }
 
-    private Set<String> findClosedExchanges(Set<String> exchanges) {
-        LocalDate today = LocalDate.now(clock);
-        return exchanges.stream().filter(code -> isExchangeClosed(code, today)).collect(Collectors.toUnmodifiableSet());
+    private Set<String> activeExchanges() {
+        return instrumentStates.values().stream().map(InstrumentState::getExchangeCode).collect(Collectors.toSet());
+    }
+
+    private void publishGuardTransition(InstrumentState state, GuardTransition transition) {
+        Instant now = clock.instant();
+        if (transition.upTriggered()) {
+            eventPublisher.publishEvent(
+                new VolatilityGuardTriggeredEvent(state.getSymbol(), state.getExchangeCode(), FeedState.RUNNING, "UP", now)
+            );
+        }
+        if (transition.downTriggered()) {
+            eventPublisher.publishEvent(
+                new VolatilityGuardTriggeredEvent(state.getSymbol(), state.getExchangeCode(), FeedState.RUNNING, "DOWN", now)
+            );
+        }
+        if (transition.released()) {
+            eventPublisher.publishEvent(new VolatilityGuardReleasedEvent(state.getSymbol(), state.getExchangeCode(), now));
+        }
     }
 
-    private boolean isExchangeClosed(String exchangeCode, LocalDate date) {
-        List<MarketHoliday> holidays = marketHolidayRepository.findAllByExchange_CodeAndTradeDateAndIsHolidayTrue(exchangeCode, date);
-        return !holidays.isEmpty();
+    /**
+     * A slice of the instrument universe generated on its own thread. Each shard owns its instruments, its pending
+     * quotes and its tick metrics, so shards never contend with each other on the tick path. Instruments added or
+     * removed while the feed runs are queued and folded into a new {@link SlotLayout} by the thread that ticks the
+     * shard, so existing instrument state, bars and random streams carry over untouched. A retuned instrument swaps in
+     * its new state but keeps its slot's session, bars and random stream.
+     */
+    private final class GeneratorShard implements IntervalBars.Listener {
+
+        private final int index;
+        private final long seed;
+        private final Queue<UniverseChange> pendingChanges = new ConcurrentLinkedQueue<>();
+        private volatile SlotLayout layout = SlotLayout.EMPTY;
+        private final Map<String, ExchangeMetrics> metrics = new ConcurrentHashMap<>();
+        private volatile Set<String> closedExchanges = Collections.emptySet();
+        private volatile ScheduledFuture<?> task;
+
+        private GeneratorShard(int index, List<InstrumentState> states, long seed) {
+            this.index = index;
+            this.seed = seed;
+            this.layout = relayout(SlotLayout.EMPTY, states, Set.of(), Set.of());
+        }
+
+        private void enqueueAdd(InstrumentState state) {
+            pendingChanges.add(new UniverseChange(state.getSymbol(), state, false));
+        }
+
+        private void enqueueRetune(InstrumentState state) {
+            pendingChanges.add(new UniverseChange(state.getSymbol(), state, true));
+        }
+
+        private void enqueueRemoval(String symbol) {
+            pendingChanges.add(new UniverseChange(symbol, null, false));
+        }
+
+        /**
+         * Apply queued universe changes. Must run on the thread that ticks this shard.
+         */
+        private void applyPendingChanges() {
+            if (pendingChanges.isEmpty()) {
+                return;
+            }
+            // Replay the queue in order so the last change of a symbol wins.
+            Map<String, InstrumentState> added = new LinkedHashMap<>();
+            Set<String> retuned = new HashSet<>();
+            Set<String> removed = new HashSet<>();
+            for (UniverseChange change = pendingChanges.poll(); change != null; change = pendingChanges.poll()) {
+                if (change.added() != null) {
+                    // A retune only continues the session when nothing re-created the instrument before it.
+                    if (change.retune() && (!added.containsKey(change.symbol()) || retuned.contains(change.symbol()))) {
+                        retuned.add(change.symbol());
+                    } else {
+                        retuned.remove(change.symbol());
+                    }
+                    added.put(change.symbol(), change.added());
+                    removed.remove(change.symbol());
+                } else {
+                    added.remove(change.symbol());
+                    retuned.remove(change.symbol());
+                    removed.add(change.symbol());
+                }
+            }
+            SlotLayout previous = layout;
+            SlotLayout next = relayout(previous, added.values(), removed, retuned);
+            layout = next;
+            // Instruments that left or restarted their session start the guard window afresh.
+            removed.forEach(volatilityGuard::remove);
+            added.keySet().stream().filter(symbol -> !retuned.contains(symbol)).forEach(volatilityGuard::remove);
+            // Carry over quotes the flusher has not taken yet; bits of removed slots are dropped.
+            for (int word = 0; word < previous.changed.length(); word++) {
+                long bits = previous.changed.getAndSet(word, 0);
+                while (bits != 0) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    String symbol = previous.slots[slot].getSymbol();
+                    Integer moved = next.slotBySymbol.get(symbol);
+                    if (moved != null && (next.slots[moved] == previous.slots[slot] || retuned.contains(symbol))) {
+                        next.markChanged(moved);
+                    }
+                    bits &= bits - 1;
+                }
+            }
+            log.debug("Generator shard {} now owns {} instruments (+{} -{})", index, next.slots.length, added.size(), removed.size());
+        }
+
+        /**
+         * Keep the slots of instruments neither removed nor replaced, in order, and append the added ones. A retuned
+         * instrument takes over the session, bars and random stream of the slot it replaces.
+         */
+        private SlotLayout relayout(SlotLayout previous, Collection<InstrumentState> added, Set<String> removed, Set<String> retuned) {
+            Set<String> addedSymbols = new HashSet<>();
+            added.forEach(state -> addedSymbols.add(state.getSymbol()));
+            List<Integer> kept = new ArrayList<>(previous.slots.length);
+            for (int slot = 0; slot < previous.slots.length; slot++) {
+                String symbol = previous.slots[slot].getSymbol();
+                if (!removed.contains(symbol) && !addedSymbols.contains(symbol)) {
+                    kept.add(slot);
+                }
+            }
+            int size = kept.size() + added.size();
+            InstrumentState[] slots = new InstrumentState[size];
+            IntervalBars[] bars = new IntervalBars[size];
+            PriceGenerator[] generators = new PriceGenerator[size];
+            RandomGenerator[] randoms = new RandomGenerator[size];
+            int slot = 0;
+            for (int old : kept) {
+                slots[slot] = previous.slots[old];
+                bars[slot] = previous.bars[old];
+                generators[slot] = previous.generators[old];
+                randoms[slot] = previous.randoms[old];
+                slot++;
+            }
+            for (InstrumentState state : added) {
+                slots[slot] = state;
+                Integer replaced = retuned.contains(state.getSymbol()) ? previous.slotBySymbol.get(state.getSymbol()) : null;
+                if (replaced != null) {
+                    state.continueSession(previous.slots[replaced]);
+                    bars[slot] = previous.bars[replaced];
+                    generators[slot] = previous.generators[replaced];
+                    randoms[slot] = previous.randoms[replaced];
+                    slot++;
+                    continue;
+                }
+                bars[slot] = new IntervalBars(state.getSymbol());
+                // Price and volume draw from one per-symbol stream, so a seeded run is repeatable on any shard layout.
+                randoms[slot] = SeededRandoms.forSymbol(seed, state.getSymbol());
+                generators[slot] = priceGeneratorFor(state, randoms[slot]);
+                slot++;
+            }
+            return new SlotLayout(slots, bars, generators, randoms);
+        }
+
+        /**
+         * Append a quote for every slot that ticked since the last drain.
+         */
+        private void drainChanged(List<QuoteDTO> into) {
+            layout.drainChanged(into);
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> current = task;
+            if (current != null) {
+                current.cancel(false);
+                task = null;
+            }
+        }
+
+        private void generateTicksSafe() {
+            try {
+                generateTicks();
+            } catch (Exception ex) {
+                log.error("Failed to generate mock market data tick on shard {}", index, ex);
+            }
+        }
+
+        private void generateTicks() {
+            if (feedState.get() != FeedState.RUNNING) {
+                return;
+            }
+
+            applyPendingChanges();
+            SlotLayout current = layout;
+            Set<String> closed = closedExchanges;
+            int ticksPerCycle = batchSize;
+            long nowSecond = clock.instant().getEpochSecond();
+            closeElapsedBars(nowSecond);
+
+            for (int slot = 0; slot < current.slots.length; slot++) {
+                InstrumentState state = current.slots[slot];
+                if (closed.contains(state.getExchangeCode())) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(
+                            "Skipping {} tick because exchange {} is closed per its trading calendar",
+                            state.getSymbol(),
+                            state.getExchangeCode()
+                        );
+                    }
+                    continue;
+                }
+                PriceGenerator generator = current.generators[slot];
+                RandomGenerator random = current.randoms[slot];
+                ExchangeMetrics exchangeMetrics = metrics.computeIfAbsent(state.getExchangeCode(), key -> new ExchangeMetrics());
+                long anchor = state.getSessionOpenScaled();
+                long lowerBound = volatilityGuard.lowerBound(state.getSymbol(), anchor);
+                long upperBound = volatilityGuard.upperBound(state.getSymbol(), anchor);
+                for (int i = 0; i < ticksPerCycle; i++) {
+                    long nextPrice = generator.nextPriceScaled(state.getLastPriceScaled(), state.getVolatility(), lowerBound, upperBound);
+                    long volume = random.nextLong(1, 500);
+                    applyTick(current, slot, nextPrice, volume, nowSecond, exchangeMetrics);
+                }
+                current.markChanged(slot);
+            }
+        }
+
+        /**
+         * The per-tick pipeline shared by the random walk and replay: state, volatility guard, metrics and bars. The
+         * caller marks the slot changed once it is done with the instrument.
+         */
+        private void applyTick(SlotLayout current, int slot, long price, long volume, long barSecond, ExchangeMetrics exchangeMetrics) {
+            InstrumentState state = current.slots[slot];
+            InstrumentState.Snapshot ticked = state.updateWithTick(price, volume);
+            GuardTransition transition = volatilityGuard.register(state.getSymbol(), ticked.sessionOpen(), price);
+            if (transition.changed()) {
+                publishGuardTransition(state, transition);
+            }
+            exchangeMetrics.recordTick(ticked.lastUpdated());
+            current.bars[slot].onTick(barSecond, price, volume, this);
+        }
+
+        private void closeElapsedBars(long epochSecond) {
+            for (IntervalBars instrumentBars : layout.bars) {
+                instrumentBars.closeElapsed(epochSecond, this);
+            }
+        }
+
+        @Override
+        public void onBarClosed(BarTimeframe timeframe, BarDTO bar) {
+            try {
+                barHistoryStore.append(timeframe, bar);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to record {} bar for {}: {}", timeframe.getLabel(), bar.symbol(), ex.getMessage());
+            }
+            webSocketHandler.broadcastClosedBar(timeframe, bar, timeframe == primaryBarTimeframe);
+        }
+    }
+
+    /**
+     * A queued change to a shard's instruments; {@code added} is {@code null} for a removal, and {@code retune} marks
+     * an added state that continues the session of the one it replaces.
+     */
+    private record UniverseChange(String symbol, InstrumentState added, boolean retune) {}
+
+    /**
+     * The instruments of one shard and everything indexed by their slot. A layout is never resized; a universe change
+     * publishes a new one, so the flusher always reads slots and change bits that belong together.
+     */
+    private static final class SlotLayout {
+
+        private static final SlotLayout EMPTY = new SlotLayout(
+            new InstrumentState[0],
+            new IntervalBars[0],
+            new PriceGenerator[0],
+            new RandomGenerator[0]
+        );
+
+        private final InstrumentState[] slots;
+        private final IntervalBars[] bars;
+        private final PriceGenerator[] generators;
+        private final RandomGenerator[] randoms;
+        private final Map<String, Integer> slotBySymbol;
+        /**
+         * One bit per slot, set by the generator when the instrument ticked and cleared by the flusher when it takes
+         * the quote. The instrument state itself is the "latest value" slot, so quotes are batched per symbol
+         * (research.md §6.1) without queueing a node or a record per tick.
+         */
+        private final AtomicLongArray changed;
+
+        private SlotLayout(InstrumentState[] slots, IntervalBars[] bars, PriceGenerator[] generators, RandomGenerator[] randoms) {
+            this.slots = slots;
+            this.bars = bars;
+            this.generators = generators;
+            this.randoms = randoms;
+            this.slotBySymbol = new HashMap<>(Math.max(16, slots.length * 2));
+            for (int slot = 0; slot < slots.length; slot++) {
+                slotBySymbol.put(slots[slot].getSymbol(), slot);
+            }
+            this.changed = new AtomicLongArray((slots.length + 63) >>> 6);
+        }
+
+        private void markChanged(int slot) {
+            int word = slot >>> 6;
+            long bit = 1L << slot;
+            long current;
+            do {
+                current = changed.get(word);
+            } while ((current & bit) == 0 && !changed.compareAndSet(word, current, current | bit));
+        }
+
+        /**
+         * Only words with set bits are visited.
+         */
+        private void drainChanged(List<QuoteDTO> into) {
+            for (int word = 0; word < changed.length(); word++) {
+                if (changed.get(word) == 0) {
+                    continue;
+                }
+                long bits = changed.getAndSet(word, 0);
+                while (bits != 0) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    into.add(slots[slot].toQuote());
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * One pass over a replay file. Bars are built on the recorded timestamps, so a replay yields the same bars at
+     * any speed; quotes and metrics keep wall-clock time like the random walk. Only touched by the replay task.
+     */
+    private final class ReplayRun {
+
+        private final ReplayFeedSource source;
+        private final List<GeneratorShard> replayShards;
+        private final Set<String> opened = new HashSet<>();
+        private long lastSecond = Long.MIN_VALUE;
+        private long unknownSymbolTicks;
+        private long startedNanos;
+        private volatile ScheduledFuture<?> task;
+
+        private ReplayRun(ReplayFeedSource source, List<GeneratorShard> replayShards) {
+            this.source = source;
+            this.replayShards = replayShards;
+        }
+
+        /**
+         * The replay task ticks every shard, so it also applies their queued universe changes.
+         */
+        private void applyPendingChanges() {
+            replayShards.forEach(GeneratorShard::applyPendingChanges);
+        }
+
+        private void apply(ReplayTick tick) {
+            InstrumentState known = instrumentStates.get(tick.symbol());
+            GeneratorShard shard = known != null ? replayShards.get(shardIndexOf(known)) : null;
+            SlotLayout current = shard != null ? shard.layout : SlotLayout.EMPTY;
+            Integer slot = current.slotBySymbol.get(tick.symbol());
+            if (slot == null) {
+                unknownSymbolTicks++;
+                return;
+            }
+            long second = tick.timestamp().getEpochSecond();
+            if (second != lastSecond) {
+                // Close bars of instruments that did not tick in the second that just ended.
+                lastSecond = second;
+                replayShards.forEach(replayShard -> replayShard.closeElapsedBars(second));
+            }
+            InstrumentState state = current.slots[slot];
+            if (opened.add(tick.symbol())) {
+                state.openSession(tick.priceScaled());
+            }
+            ExchangeMetrics exchangeMetrics = shard.metrics.computeIfAbsent(state.getExchangeCode(), key -> new ExchangeMetrics());
+            shard.applyTick(current, slot, tick.priceScaled(), tick.volume(), second, exchangeMetrics);
+            current.markChanged(slot);
+        }
+
+        private void closeAllBars() {
+            replayShards.forEach(shard -> shard.closeElapsedBars(Long.MAX_VALUE));
+        }
     }
 
     private static class ExchangeMetrics {
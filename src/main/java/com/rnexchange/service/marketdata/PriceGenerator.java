@@ -4,16 +4,25 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.Objects;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
 import java.util.function.DoubleSupplier;
+import java.util.random.RandomGenerator;
 
+/**
+ * Bounded geometric random walk. Not thread-safe: each instrument owns a generator and its random stream, which the
+ * generator shard ticking the instrument draws from.
+ */
 public class PriceGenerator {
 
+    private static final int MAX_RESAMPLES = 3;
+
     private final DoubleSupplier gaussianSupplier;
     private final BigDecimal minPrice;
     private final BigDecimal maxPrice;
     private final int batchSize;
     private final MathContext mathContext;
+    private final long minScaled;
+    private final long maxScaled;
 
     public PriceGenerator(
         DoubleSupplier gaussianSupplier,
@@ -27,10 +36,20 @@ public class PriceGenerator {
         this.maxPrice = Objects.requireNonNull(maxPrice, "maxPrice must not be null");
         this.batchSize = Math.max(1, batchSize);
         this.mathContext = mathContext == null ? MathContext.DECIMAL64 : mathContext;
+        this.minScaled = FixedPointPrice.toScaled(minPrice);
+        this.maxScaled = FixedPointPrice.toScaled(maxPrice);
+    }
+
+    /**
+     * Walk driven by {@code random}; its {@link RandomGenerator#nextGaussian()} uses the ziggurat method, so a draw
+     * costs a table lookup in the common case.
+     */
+    public PriceGenerator(RandomGenerator random, BigDecimal minPrice, BigDecimal maxPrice, int batchSize) {
+        this(Objects.requireNonNull(random, "random must not be null")::nextGaussian, minPrice, maxPrice, batchSize, MathContext.DECIMAL64);
     }
 
     public PriceGenerator(BigDecimal minPrice, BigDecimal maxPrice, int batchSize) {
-        this(ThreadLocalRandom.current()::nextGaussian, minPrice, maxPrice, batchSize, MathContext.DECIMAL64);
+        this(new SplittableRandom(), minPrice, maxPrice, batchSize);
     }
 
     public PriceGenerator() {
@@ -53,6 +72,41 @@ public class PriceGenerator {
         return current.setScale(2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Fixed-point variant of {@link #nextPrice(BigDecimal, BigDecimal, double)} used on the tick path. Prices are
+     * scaled longs (see {@link FixedPointPrice}); the walk runs on doubles and allocates nothing.
+     */
+    public long nextPriceScaled(long lastPrice, double volatility) {
+        return nextPriceScaled(lastPrice, volatility, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Band-aware variant of {@link #nextPriceScaled(long, double)}. Each step whose proposal falls outside the
+     * volatility guard's band {@code [lowerBound, upperBound]} is redrawn up to {@value #MAX_RESAMPLES} times and
+     * then clamped to the band, so the walk keeps its distribution inside the band and never breaches it. The band is
+     * narrowed to the configured rails; when the two do not overlap the rails win.
+     */
+    public long nextPriceScaled(long lastPrice, double volatility, long lowerBound, long upperBound) {
+        double floor = Math.max(minScaled, lowerBound);
+        double ceiling = Math.min(maxScaled, upperBound);
+        if (floor > ceiling) {
+            // The band lies outside the configured rails; the rails win.
+            floor = minScaled;
+            ceiling = maxScaled;
+        }
+        double current = lastPrice;
+
+        for (int i = 0; i < batchSize; i++) {
+            double proposed = current * Math.exp(volatility * gaussianSupplier.getAsDouble());
+            for (int attempt = 0; attempt < MAX_RESAMPLES && (proposed < floor || proposed > ceiling); attempt++) {
+                proposed = current * Math.exp(volatility * gaussianSupplier.getAsDouble());
+            }
+            current = Math.min(ceiling, Math.max(floor, proposed));
+        }
+
+        return Math.round(current);
+    }
+
     private BigDecimal clamp(BigDecimal price) {
         if (price.compareTo(minPrice) < 0) {
             return minPrice.setScale(2, RoundingMode.HALF_UP);
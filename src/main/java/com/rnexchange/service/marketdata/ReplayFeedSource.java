@@ -0,0 +1,190 @@
+package com.rnexchange.service.marketdata;
+
+import com.rnexchange.config.MockMarketDataProperties.ReplaySpeed;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams recorded ticks from a CSV file for deterministic replay.
+ * <p>
+ * Rows are {@code timestamp,symbol,price,volume}, where the timestamp is either ISO-8601 or epoch milliseconds. An
+ * optional header row, blank lines and {@code #} comments are skipped, as are malformed rows (they are counted, not
+ * fatal). Files ending in {@code .gz} are decompressed on the fly. The file is read one row ahead of the pacing
+ * clock, so its size does not matter. Timestamps that go backwards are held at the previous timestamp to keep the
+ * replayed sequence monotonic. Not thread-safe: one replay task drains the source.
+ */
+public class ReplayFeedSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayFeedSource.class);
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final String name;
+    private final ReplaySpeed speed;
+
+    private ReplayTick pending;
+    private Instant epoch;
+    private Instant lastTimestamp;
+    private boolean exhausted;
+    private long lineNumber;
+    private long ticksEmitted;
+    private long rowsSkipped;
+
+    public ReplayFeedSource(BufferedReader reader, String name, ReplaySpeed speed) {
+        this.reader = Objects.requireNonNull(reader, "reader must not be null");
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.speed = Objects.requireNonNull(speed, "speed must not be null");
+    }
+
+    public static ReplayFeedSource open(Path file, ReplaySpeed speed) throws IOException {
+        Objects.requireNonNull(file, "file must not be null");
+        InputStream in = Files.newInputStream(file);
+        try {
+            if (file.getFileName().toString().endsWith(".gz")) {
+                in = new GZIPInputStream(in, READ_BUFFER_BYTES);
+            }
+        } catch (IOException ex) {
+            in.close();
+            throw ex;
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_BYTES);
+        return new ReplayFeedSource(reader, file.toString(), speed);
+    }
+
+    /**
+     * Hand every tick that is due after {@code elapsedMillis} of wall-clock replay time to {@code sink}, at most
+     * {@code maxTicks} of them. A tick is due once its offset from the first recorded tick, divided by the speed
+     * multiplier, has elapsed; at {@link ReplaySpeed#MAX} every tick is due.
+     *
+     * @return the number of ticks emitted.
+     */
+    public int drainDue(long elapsedMillis, int maxTicks, Consumer<ReplayTick> sink) {
+        int emitted = 0;
+        while (emitted < maxTicks) {
+            ReplayTick tick = peek();
+            if (tick == null || !isDue(tick, elapsedMillis)) {
+                break;
+            }
+            pending = null;
+            sink.accept(tick);
+            emitted++;
+        }
+        ticksEmitted += emitted;
+        return emitted;
+    }
+
+    public boolean isExhausted() {
+        return exhausted && pending == null;
+    }
+
+    public long getTicksEmitted() {
+        return ticksEmitted;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void close() throws IOException {
+        exhausted = true;
+        pending = null;
+        reader.close();
+    }
+
+    private boolean isDue(ReplayTick tick, long elapsedMillis) {
+        if (speed.isUnbounded()) {
+            return true;
+        }
+        long offsetMillis = tick.timestamp().toEpochMilli() - epoch.toEpochMilli();
+        return offsetMillis <= elapsedMillis * speed.getMultiplier();
+    }
+
+    private ReplayTick peek() {
+        while (pending == null && !exhausted) {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read replay file " + name, ex);
+            }
+            if (line == null) {
+                exhausted = true;
+                break;
+            }
+            lineNumber++;
+            pending = parse(line);
+        }
+        return pending;
+    }
+
+    private ReplayTick parse(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        String[] fields = trimmed.split(",", -1);
+        if (lineNumber == 1 && fields[0].strip().equalsIgnoreCase("timestamp")) {
+            return null;
+        }
+        if (fields.length != 4) {
+            return skip(line, "expected 4 fields");
+        }
+        try {
+            Instant timestamp = parseTimestamp(fields[0].strip());
+            String symbol = fields[1].strip();
+            long price = FixedPointPrice.toScaled(new BigDecimal(fields[2].strip()));
+            long volume = Long.parseLong(fields[3].strip());
+            if (symbol.isEmpty() || price <= 0 || volume < 0) {
+                return skip(line, "blank symbol, non-positive price or negative volume");
+            }
+            if (epoch == null) {
+                epoch = timestamp;
+            }
+            if (lastTimestamp != null && timestamp.isBefore(lastTimestamp)) {
+                timestamp = lastTimestamp;
+            }
+            lastTimestamp = timestamp;
+            return new ReplayTick(timestamp, symbol, price, volume);
+        } catch (RuntimeException ex) {
+            return skip(line, ex.getMessage());
+        }
+    }
+
+    private ReplayTick skip(String line, String reason) {
+        rowsSkipped++;
+        if (log.isDebugEnabled()) {
+            log.debug("Skipping replay row {} of {} ({}): {}", lineNumber, name, reason, line);
+        }
+        return null;
+    }
+
+    private static Instant parseTimestamp(String value) {
+        boolean numeric = !value.isEmpty() && value.chars().allMatch(Character::isDigit);
+        return numeric ? Instant.ofEpochMilli(Long.parseLong(value)) : Instant.parse(value);
+    }
+
+    /**
+     * One recorded tick; the price is scaled as in {@link FixedPointPrice}.
+     */
+    public record ReplayTick(Instant timestamp, String symbol, long priceScaled, long volume) {}
+}
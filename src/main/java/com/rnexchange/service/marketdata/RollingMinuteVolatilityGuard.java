@@ -6,26 +6,35 @@ import java.math.RoundingMode;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Component;
 
+/**
+ * Tracks the high and low of each symbol over a rolling window and flags moves beyond {@code bandPercent} of the
+ * anchor price. Samples are folded into a ring of one-second buckets holding scaled min/max prices, so a tick costs
+ * constant time however many ticks the window holds; the aggregate over earlier buckets is recomputed only when the
+ * second rolls over. Band bounds are cached per anchor.
+ * <p>
+ * The random walk is clamped to {@link #lowerBound}/{@link #upperBound}, so in practice only replayed ticks trip the
+ * guard; {@link #register} reports the resulting edges for the feed to publish.
+ */
 @Component
 public class RollingMinuteVolatilityGuard {
 
     private static final MathContext MATH_CONTEXT = MathContext.DECIMAL64;
 
-    private final Duration window;
+    private final long windowSeconds;
     private final BigDecimal bandPercent;
     private final Clock clock;
     private final Map<String, GuardEntry> entries = new ConcurrentHashMap<>();
 
     public RollingMinuteVolatilityGuard(Duration window, BigDecimal bandPercent, Clock clock) {
-        this.window = Objects.requireNonNull(window, "window must not be null");
+        Objects.requireNonNull(window, "window must not be null");
+        this.windowSeconds = Math.max(1, window.getSeconds() + (window.getNano() > 0 ? 1 : 0));
         this.bandPercent = Objects.requireNonNull(bandPercent, "bandPercent must not be null");
         this.clock = clock == null ? Clock.systemUTC() : clock;
     }
@@ -38,95 +47,203 @@ public class RollingMinuteVolatilityGuard {
         this(Duration.ofSeconds(60), new BigDecimal("0.05"));
     }
 
-    public void register(String symbol, BigDecimal anchorPrice, BigDecimal candidatePrice) {
-        Objects.requireNonNull(symbol, "symbol must not be null");
+    public GuardTransition register(String symbol, BigDecimal anchorPrice, BigDecimal candidatePrice) {
         Objects.requireNonNull(anchorPrice, "anchorPrice must not be null");
         Objects.requireNonNull(candidatePrice, "candidatePrice must not be null");
+        return register(symbol, FixedPointPrice.toScaled(anchorPrice), FixedPointPrice.toScaled(candidatePrice));
+    }
 
-        GuardEntry entry = entries.computeIfAbsent(symbol, s -> new GuardEntry(anchorPrice));
+    /**
+     * Scaled-price variant of {@link #register(String, BigDecimal, BigDecimal)} (see {@link FixedPointPrice}).
+     *
+     * @return the suppression changes this sample caused; {@link GuardTransition#NONE} on the usual tick.
+     */
+    public GuardTransition register(String symbol, long anchorPrice, long candidatePrice) {
+        Objects.requireNonNull(symbol, "symbol must not be null");
+
+        GuardEntry entry = entries.computeIfAbsent(symbol, s -> new GuardEntry((int) windowSeconds + 1));
         Instant now = clock.instant();
 
         synchronized (entry) {
-            entry.anchorPrice = anchorPrice;
-            pruneExpiredSamples(entry, now);
-            entry.samples.addLast(new PriceSample(now, candidatePrice));
+            if (entry.anchorPrice != anchorPrice || !entry.boundsCached) {
+                cacheBounds(entry, anchorPrice);
+            }
+            entry.record(now.getEpochSecond(), candidatePrice, windowSeconds);
             entry.lastUpdated = now;
+            boolean wasUpSuppressed = entry.upSuppressed;
+            boolean wasDownSuppressed = entry.downSuppressed;
             evaluate(entry);
+            return GuardTransition.of(wasUpSuppressed, wasDownSuppressed, entry.upSuppressed, entry.downSuppressed);
         }
     }
 
-    public boolean canMoveUp(String symbol) {
-        GuardEntry entry = entries.get(symbol);
-        if (entry == null) {
-            return true;
+    /**
+     * Highest scaled price inside the band around {@code anchorPrice}; {@link Long#MAX_VALUE} when there is no anchor.
+     * Uses the bounds cached for the symbol, so the tick path can keep the walk inside the band without allocating.
+     */
+    public long upperBound(String symbol, long anchorPrice) {
+        if (anchorPrice == 0) {
+            return Long.MAX_VALUE;
         }
+        GuardEntry entry = boundedEntry(symbol, anchorPrice);
         synchronized (entry) {
-            return !entry.upSuppressed;
+            return entry.upperBound;
         }
     }
 
-    public boolean canMoveDown(String symbol) {
-        GuardEntry entry = entries.get(symbol);
-        if (entry == null) {
-            return true;
+    /**
+     * Lowest scaled price inside the band around {@code anchorPrice}; {@link Long#MIN_VALUE} when there is no anchor.
+     */
+    public long lowerBound(String symbol, long anchorPrice) {
+        if (anchorPrice == 0) {
+            return Long.MIN_VALUE;
         }
+        GuardEntry entry = boundedEntry(symbol, anchorPrice);
         synchronized (entry) {
-            return !entry.downSuppressed;
+            return entry.lowerBound;
         }
     }
 
+    /**
+     * Forget the window and suppression state of {@code symbol}, e.g. once it leaves the feed.
+     */
+    public void remove(String symbol) {
+        entries.remove(symbol);
+    }
+
     public Optional<GuardSnapshot> snapshot(String symbol) {
         GuardEntry entry = entries.get(symbol);
         if (entry == null) {
             return Optional.empty();
         }
         synchronized (entry) {
-            return Optional.of(new GuardSnapshot(entry.upSuppressed, entry.downSuppressed, entry.anchorPrice, entry.lastUpdated));
+            return Optional.of(
+                new GuardSnapshot(entry.upSuppressed, entry.downSuppressed, FixedPointPrice.toDecimal(entry.anchorPrice), entry.lastUpdated)
+            );
         }
     }
 
-    private void pruneExpiredSamples(GuardEntry entry, Instant now) {
-        Instant floor = now.minus(window);
-        while (!entry.samples.isEmpty() && entry.samples.peekFirst().timestamp().isBefore(floor)) {
-            entry.samples.removeFirst();
+    private GuardEntry boundedEntry(String symbol, long anchorPrice) {
+        Objects.requireNonNull(symbol, "symbol must not be null");
+        GuardEntry entry = entries.computeIfAbsent(symbol, s -> new GuardEntry((int) windowSeconds + 1));
+        synchronized (entry) {
+            if (entry.anchorPrice != anchorPrice || !entry.boundsCached) {
+                cacheBounds(entry, anchorPrice);
+            }
         }
+        return entry;
     }
 
-    private void evaluate(GuardEntry entry) {
-        if (entry.anchorPrice.signum() == 0) {
-            entry.upSuppressed = false;
-            entry.downSuppressed = false;
-            return;
-        }
-
-        BigDecimal upperBound = entry.anchorPrice
+    private void cacheBounds(GuardEntry entry, long anchorPrice) {
+        BigDecimal anchor = FixedPointPrice.toDecimal(anchorPrice);
+        BigDecimal upperBound = anchor
             .multiply(BigDecimal.ONE.add(bandPercent, MATH_CONTEXT), MATH_CONTEXT)
             .setScale(2, RoundingMode.HALF_UP);
-        BigDecimal lowerBound = entry.anchorPrice
+        BigDecimal lowerBound = anchor
             .multiply(BigDecimal.ONE.subtract(bandPercent, MATH_CONTEXT), MATH_CONTEXT)
             .setScale(2, RoundingMode.HALF_UP);
+        entry.anchorPrice = anchorPrice;
+        entry.upperBound = FixedPointPrice.toScaled(upperBound);
+        entry.lowerBound = FixedPointPrice.toScaled(lowerBound);
+        entry.boundsCached = true;
+    }
 
-        BigDecimal maxPrice = entry.samples.stream().map(PriceSample::price).max(BigDecimal::compareTo).orElse(entry.anchorPrice);
-        BigDecimal minPrice = entry.samples.stream().map(PriceSample::price).min(BigDecimal::compareTo).orElse(entry.anchorPrice);
-
-        entry.upSuppressed = maxPrice.compareTo(upperBound) > 0;
-        entry.downSuppressed = minPrice.compareTo(lowerBound) < 0;
+    private void evaluate(GuardEntry entry) {
+        if (entry.anchorPrice == 0) {
+            entry.upSuppressed = false;
+            entry.downSuppressed = false;
+            return;
+        }
+        entry.upSuppressed = entry.windowMax() > entry.upperBound;
+        entry.downSuppressed = entry.windowMin() < entry.lowerBound;
     }
 
     private static final class GuardEntry {
 
-        private final Deque<PriceSample> samples = new ArrayDeque<>();
-        private BigDecimal anchorPrice;
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        // Ring of one-second buckets; slot i holds the second stored in bucketSecond[i].
+        private final long[] bucketSecond;
+        private final long[] bucketMax;
+        private final long[] bucketMin;
+        private long currentSecond = EMPTY;
+        private int currentSlot;
+        // Aggregate of the in-window buckets before the current second.
+        private long priorMax = Long.MIN_VALUE;
+        private long priorMin = Long.MAX_VALUE;
+
+        private long anchorPrice;
+        private long upperBound;
+        private long lowerBound;
+        private boolean boundsCached;
         private boolean upSuppressed;
         private boolean downSuppressed;
         private Instant lastUpdated;
 
-        private GuardEntry(BigDecimal anchorPrice) {
-            this.anchorPrice = anchorPrice;
+        private GuardEntry(int buckets) {
+            this.bucketSecond = new long[buckets];
+            this.bucketMax = new long[buckets];
+            this.bucketMin = new long[buckets];
+            Arrays.fill(bucketSecond, EMPTY);
+        }
+
+        private void record(long second, long price, long windowSeconds) {
+            if (second > currentSecond) {
+                roll(second, windowSeconds);
+            }
+            bucketMax[currentSlot] = Math.max(bucketMax[currentSlot], price);
+            bucketMin[currentSlot] = Math.min(bucketMin[currentSlot], price);
+        }
+
+        private void roll(long second, long windowSeconds) {
+            currentSecond = second;
+            currentSlot = (int) Math.floorMod(second, (long) bucketSecond.length);
+            bucketSecond[currentSlot] = second;
+            bucketMax[currentSlot] = Long.MIN_VALUE;
+            bucketMin[currentSlot] = Long.MAX_VALUE;
+
+            long floor = second - windowSeconds;
+            priorMax = Long.MIN_VALUE;
+            priorMin = Long.MAX_VALUE;
+            for (int i = 0; i < bucketSecond.length; i++) {
+                long bucket = bucketSecond[i];
+                if (i == currentSlot || bucket == EMPTY || bucket < floor) {
+                    continue;
+                }
+                priorMax = Math.max(priorMax, bucketMax[i]);
+                priorMin = Math.min(priorMin, bucketMin[i]);
+            }
+        }
+
+        private long windowMax() {
+            return Math.max(priorMax, bucketMax[currentSlot]);
+        }
+
+        private long windowMin() {
+            return Math.min(priorMin, bucketMin[currentSlot]);
         }
     }
 
-    private record PriceSample(Instant timestamp, BigDecimal price) {}
+    /**
+     * Edges in a symbol's suppression state: a direction that became suppressed, or the guard clearing entirely.
+     */
+    public record GuardTransition(boolean upTriggered, boolean downTriggered, boolean released) {
+        public static final GuardTransition NONE = new GuardTransition(false, false, false);
+
+        static GuardTransition of(boolean wasUp, boolean wasDown, boolean up, boolean down) {
+            boolean upTriggered = up && !wasUp;
+            boolean downTriggered = down && !wasDown;
+            boolean released = (wasUp || wasDown) && !up && !down;
+            if (!upTriggered && !downTriggered && !released) {
+                return NONE;
+            }
+            return new GuardTransition(upTriggered, downTriggered, released);
+        }
+
+        public boolean changed() {
+            return this != NONE;
+        }
+    }
 
     public record GuardSnapshot(boolean upSuppressed, boolean downSuppressed, BigDecimal anchorPrice, Instant lastUpdated) {}
 }
@@ -0,0 +1,14 @@
+package com.rnexchange.service.marketdata.events;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+public record DefaultPriceAppliedEvent(String symbol, String exchange, BigDecimal appliedDefault, Instant timestamp) {
+    public DefaultPriceAppliedEvent {
+        symbol = Objects.requireNonNull(symbol, "symbol must not be null");
+        exchange = Objects.requireNonNull(exchange, "exchange must not be null");
+        appliedDefault = Objects.requireNonNull(appliedDefault, "appliedDefault must not be null");
+        timestamp = Objects.requireNonNull(timestamp, "timestamp must not be null");
+    }
+}
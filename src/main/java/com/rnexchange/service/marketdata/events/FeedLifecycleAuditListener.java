@@ -38,7 +38,26 @@ public class FeedLifecycleAuditListener {
         writeEntry("FEED_STOPPED", event.exchangeCodes(), event.timestamp(), event.triggeredBy(), event.reason());
     }
 
+    @EventListener
+    public void onDefaultPriceApplied(DefaultPriceAppliedEvent event) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("symbol", event.symbol());
+        details.put("appliedDefault", event.appliedDefault().toPlainString());
+        writeEntry("DEFAULT_PRICE_APPLIED", List.of(event.exchange()), event.timestamp(), "system", null, details);
+    }
+
     private void writeEntry(String action, List<String> exchanges, Instant feedTimestamp, String triggeredBy, String reason) {
+        writeEntry(action, exchanges, feedTimestamp, triggeredBy, reason, Map.of());
+    }
+
+    private void writeEntry(
+        String action,
+        List<String> exchanges,
+        Instant feedTimestamp,
+        String triggeredBy,
+        String reason,
+        Map<String, Object> details
+    ) {
         Map<String, Object> payload = new LinkedHashMap<>();
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         payload.put("timestamp", Instant.now().toString());
@@ -49,6 +68,7 @@ public class FeedLifecycleAuditListener {
         if (StringUtils.hasText(reason)) {
             payload.put("reason", reason);
         }
+        payload.putAll(details);
         payload.put("actorId", resolveActorId(authentication, triggeredBy));
         payload.put("actorRole", resolveActorRole(authentication));
 
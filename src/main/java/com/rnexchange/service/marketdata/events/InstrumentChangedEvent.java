@@ -0,0 +1,15 @@
+package com.rnexchange.service.marketdata.events;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Published whenever an instrument is created, updated or deleted so the mock feed can adjust its universe in place.
+ * {@code previousSymbol} is the symbol before the change, or {@code null} for a new instrument.
+ */
+public record InstrumentChangedEvent(Long instrumentId, String previousSymbol, Instant timestamp) {
+    public InstrumentChangedEvent {
+        instrumentId = Objects.requireNonNull(instrumentId, "instrumentId must not be null");
+        timestamp = Objects.requireNonNull(timestamp, "timestamp must not be null");
+    }
+}
@@ -0,0 +1,13 @@
+package com.rnexchange.service.marketdata.events;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Published whenever a market holiday is created, updated or deleted so cached calendars can reload.
+ */
+public record MarketHolidayChangedEvent(Long holidayId, Instant timestamp) {
+    public MarketHolidayChangedEvent {
+        timestamp = Objects.requireNonNull(timestamp, "timestamp must not be null");
+    }
+}
@@ -28,6 +28,7 @@ import com.rnexchange.repository.MarketHolidayRepository;
 import com.rnexchange.repository.TraderProfileRepository;
 import com.rnexchange.repository.TradingAccountRepository;
 import com.rnexchange.repository.UserRepository;
+import com.rnexchange.service.ReferenceDataCache;
 import com.rnexchange.service.seed.dto.BaselineSeedRequest;
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -50,6 +51,7 @@ public class BaselineSeedDataLoader {
     private final MarginRuleRepository marginRuleRepository;
     private final ContractRepository contractRepository;
     private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     public BaselineSeedDataLoader(
         ExchangeRepository exchangeRepository,
@@ -61,7 +63,8 @@ public class BaselineSeedDataLoader {
         MarketHolidayRepository marketHolidayRepository,
         MarginRuleRepository marginRuleRepository,
         ContractRepository contractRepository,
-        UserRepository userRepository
+        UserRepository userRepository,
+        ReferenceDataCache referenceDataCache
     ) {
         this.exchangeRepository = exchangeRepository;
         this.instrumentRepository = instrumentRepository;
@@ -73,6 +76,7 @@ public class BaselineSeedDataLoader {
         this.marginRuleRepository = marginRuleRepository;
         this.contractRepository = contractRepository;
         this.userRepository = userRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Transactional
@@ -159,6 +163,8 @@ public class BaselineSeedDataLoader {
         metrics.put("contractCount", String.valueOf(contractRepository.count()));
         metrics.put("traderCount", String.valueOf(traderProfileRepository.count()));
         metrics.put("accountCount", String.valueOf(tradingAccountRepository.count()));
+        // Seeded rows bypass the entity services; drop anything read while the seed was in flight.
+        referenceDataCache.evictAll();
         return metrics;
     }
 
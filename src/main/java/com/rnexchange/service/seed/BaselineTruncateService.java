@@ -18,6 +18,10 @@ import com.rnexchange.repository.RiskAlertRepository;
 import com.rnexchange.repository.SettlementBatchRepository;
 import com.rnexchange.repository.TraderProfileRepository;
 import com.rnexchange.repository.TradingAccountRepository;
+import com.rnexchange.service.ReferenceDataCache;
+import com.rnexchange.service.TransactionCallbacks;
+import com.rnexchange.service.trading.AccountExposureBook;
+import com.rnexchange.service.trading.MatchingEngine;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +46,9 @@ public class BaselineTruncateService {
     private final TraderProfileRepository traderProfileRepository;
     private final BrokerRepository brokerRepository;
     private final ExchangeRepository exchangeRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final MatchingEngine matchingEngine;
+    private final AccountExposureBook accountExposureBook;
 
     public BaselineTruncateService(
         LedgerEntryRepository ledgerEntryRepository,
@@ -61,7 +68,10 @@ public class BaselineTruncateService {
         BrokerDeskRepository brokerDeskRepository,
         TraderProfileRepository traderProfileRepository,
         BrokerRepository brokerRepository,
-        ExchangeRepository exchangeRepository
+        ExchangeRepository exchangeRepository,
+        ReferenceDataCache referenceDataCache,
+        MatchingEngine matchingEngine,
+        AccountExposureBook accountExposureBook
     ) {
         this.ledgerEntryRepository = ledgerEntryRepository;
         this.executionRepository = executionRepository;
@@ -81,6 +91,9 @@ public class BaselineTruncateService {
         this.traderProfileRepository = traderProfileRepository;
         this.brokerRepository = brokerRepository;
         this.exchangeRepository = exchangeRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.matchingEngine = matchingEngine;
+        this.accountExposureBook = accountExposureBook;
     }
 
     @Transactional
@@ -103,5 +116,12 @@ public class BaselineTruncateService {
         instrumentRepository.deleteAllInBatch();
         brokerRepository.deleteAllInBatch();
         exchangeRepository.deleteAllInBatch();
+        // Bulk deletes bypass the entity services, so nothing else evicts the rows they removed.
+        referenceDataCache.evictAll();
+        // The books and exposure mirror the deleted orders and accounts; drop them once the deletes are visible.
+        TransactionCallbacks.afterCommit(() -> {
+            matchingEngine.clear();
+            accountExposureBook.clear();
+        });
     }
 }
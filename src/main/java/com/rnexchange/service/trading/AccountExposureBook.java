@@ -0,0 +1,477 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.service.marketdata.FixedPointPrice;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory exposure of every trading account seen since start: cash balance, margin blocked by working orders and
+ * margin held against open positions. A pre-trade check and the reservation it leads to happen under one lock, so
+ * concurrent orders of one account cannot each pass against the same funds.
+ * <p>
+ * Accounts are guarded by striped monitors chosen by account id; an operation touches one account and holds its
+ * stripe for a few arithmetic steps, never across I/O. Amounts and quantities are scaled longs as in
+ * {@link FixedPointPrice}. Filled quantity moves its share of an order's blocked margin to the position of that
+ * symbol; fills that reduce a position free the matching share of its margin instead. The database stays the
+ * system of record: {@link AccountExposureReconciler} refreshes balances and positions and drops orders that are no
+ * longer open.
+ */
+@Component
+public class AccountExposureBook {
+
+    private static final int STRIPES = 64;
+
+    private final Object[] stripes = new Object[STRIPES];
+    private final Map<Long, AccountExposure> accounts = new ConcurrentHashMap<>();
+    private final Map<Long, OrderExposure> orders = new ConcurrentHashMap<>();
+
+    public AccountExposureBook() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public boolean isTracked(Long accountId) {
+        return accounts.containsKey(accountId);
+    }
+
+    /**
+     * Start tracking an account from its persisted balance and positions. A no-op if it is already tracked, so
+     * concurrent first orders of one account may both call it.
+     */
+    public void track(Long accountId, BigDecimal balance, Collection<PositionExposure> positions) {
+        Objects.requireNonNull(accountId, "accountId must not be null");
+        AccountExposure account = new AccountExposure(toScaled(balance));
+        account.replacePositions(positions);
+        accounts.putIfAbsent(accountId, account);
+    }
+
+    /**
+     * Block {@code amount} of the account's available funds if they cover it. The returned reservation says whether
+     * it did and what was available beforehand; an accepted one must later be bound to its order or released.
+     */
+    public Reservation reserve(Long accountId, BigDecimal amount) {
+        long required = toScaled(amount);
+        synchronized (stripeFor(accountId)) {
+            AccountExposure account = account(accountId);
+            long available = account.available();
+            boolean accepted = available >= required;
+            if (accepted) {
+                account.blocked += required;
+            }
+            return new Reservation(accountId, required, available, accepted);
+        }
+    }
+
+    /**
+     * Block what replacing {@code orderId} with an order requiring {@code amount} adds to what the order already
+     * blocks, if the account's available funds cover that increase; a replacement that needs less blocks nothing.
+     * The order's own blocked margin counts as available to it, and is reported so. An accepted reservation must
+     * later be folded into the order with {@link #rebind} or released.
+     */
+    public Reservation reserveReplacement(Long accountId, Long orderId, BigDecimal amount) {
+        long required = toScaled(amount);
+        synchronized (stripeFor(accountId)) {
+            AccountExposure account = account(accountId);
+            OrderExposure order = orders.get(orderId);
+            long held = order != null && order.accountId.equals(accountId) ? order.blocked : 0;
+            long increase = Math.max(0, required - held);
+            long available = account.available();
+            boolean accepted = available >= increase;
+            if (accepted) {
+                account.blocked += increase;
+            }
+            return new Reservation(accountId, increase, available + held, accepted);
+        }
+    }
+
+    /**
+     * Fold a reservation from {@link #reserveReplacement} into its order once the order has been replaced: the order
+     * then blocks at most {@code amount} for an open {@code quantity}, and anything it held beyond that is released.
+     * An order that is not tracked, e.g. one restored to its book after a restart, is bound to the reservation.
+     */
+    public void rebind(Reservation reservation, Long orderId, String symbol, OrderSide side, BigDecimal amount, BigDecimal quantity) {
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        long target = toScaled(amount);
+        synchronized (stripeFor(reservation.accountId())) {
+            AccountExposure account = accounts.get(reservation.accountId());
+            if (account == null || !reservation.accepted() || reservation.released || reservation.orderId != null) {
+                throw new IllegalStateException("Reservation for account " + reservation.accountId() + " is not open");
+            }
+            OrderExposure order = orders.get(orderId);
+            if (order == null) {
+                account.orderIds.add(orderId);
+                order = new OrderExposure(reservation.accountId(), symbol, side, reservation.amount(), 0, reservation);
+                orders.put(orderId, order);
+                reservation.orderId = orderId;
+            } else {
+                order.blocked += reservation.amount();
+                reservation.released = true;
+            }
+            if (order.blocked > target) {
+                account.blocked -= order.blocked - target;
+                order.blocked = target;
+            }
+            order.remainingQuantity = toScaled(quantity);
+        }
+    }
+
+    /**
+     * Funds the account could commit right now, without reserving any of them.
+     */
+    public BigDecimal available(Long accountId) {
+        synchronized (stripeFor(accountId)) {
+            return FixedPointPrice.toDecimal(account(accountId).available());
+        }
+    }
+
+    /**
+     * Hand an accepted reservation to the order it was made for, so fills and cancellation can draw on it.
+     */
+    public void bind(Reservation reservation, Long orderId, String symbol, OrderSide side, BigDecimal quantity) {
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        synchronized (stripeFor(reservation.accountId())) {
+            AccountExposure account = accounts.get(reservation.accountId());
+            if (account == null || !reservation.accepted() || reservation.released) {
+                throw new IllegalStateException("Reservation for account " + reservation.accountId() + " is not open");
+            }
+            account.orderIds.add(orderId);
+            orders.put(
+                orderId,
+                new OrderExposure(reservation.accountId(), symbol, side, reservation.amount(), toScaled(quantity), reservation)
+            );
+            reservation.orderId = orderId;
+        }
+    }
+
+    /**
+     * Return what is still blocked by the reservation, or by the order it was bound to, to the account's available
+     * funds. Safe to call more than once.
+     */
+    public void release(Reservation reservation) {
+        synchronized (stripeFor(reservation.accountId())) {
+            if (!reservation.accepted() || reservation.released) {
+                return;
+            }
+            if (reservation.orderId != null) {
+                releaseOrder(reservation.orderId);
+            } else {
+                reservation.released = true;
+                AccountExposure account = accounts.get(reservation.accountId());
+                if (account != null) {
+                    account.blocked -= reservation.amount();
+                }
+            }
+        }
+    }
+
+    /**
+     * Release what the order still blocks, e.g. once it is cancelled or expires. Unknown orders are ignored.
+     */
+    public void release(Long orderId) {
+        OrderExposure order = orders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        synchronized (stripeFor(order.accountId)) {
+            releaseOrder(orderId);
+        }
+    }
+
+    /**
+     * Move the share of the order's blocked margin that {@code quantity} represents onto its position.
+     */
+    public void applyFill(Long orderId, BigDecimal quantity) {
+        OrderExposure order = orders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        long filled = toScaled(quantity);
+        if (filled <= 0) {
+            return;
+        }
+        synchronized (stripeFor(order.accountId)) {
+            AccountExposure account = accounts.get(order.accountId);
+            if (account == null || orders.get(orderId) != order) {
+                return;
+            }
+            filled = Math.min(filled, order.remainingQuantity);
+            long margin = share(order.blocked, filled, order.remainingQuantity);
+            order.blocked -= margin;
+            order.remainingQuantity -= filled;
+            account.blocked -= margin;
+            account.applyToPosition(order.symbol, order.side == OrderSide.SELL ? -filled : filled, margin);
+            account.lastFillNanos = System.nanoTime();
+            if (order.remainingQuantity == 0) {
+                releaseOrder(orderId);
+            }
+        }
+    }
+
+    public Optional<ExposureSnapshot> snapshot(Long accountId) {
+        synchronized (stripeFor(accountId)) {
+            AccountExposure account = accounts.get(accountId);
+            if (account == null) {
+                return Optional.empty();
+            }
+            return Optional.of(
+                new ExposureSnapshot(
+                    FixedPointPrice.toDecimal(account.balance),
+                    FixedPointPrice.toDecimal(account.blocked),
+                    FixedPointPrice.toDecimal(account.positionMargin),
+                    FixedPointPrice.toDecimal(account.available())
+                )
+            );
+        }
+    }
+
+    public Set<Long> trackedAccounts() {
+        return Set.copyOf(accounts.keySet());
+    }
+
+    /**
+     * Align an account with the database: take over its persisted balance, and release tracked orders bound before
+     * {@code boundBeforeNanos} (a {@link System#nanoTime()} reading) that are not among {@code openOrderIds}, since
+     * they were closed by some path that bypassed this book. Later orders may not be committed yet. Positions are
+     * rebuilt from {@code positions} unless the account took a fill since {@code boundBeforeNanos}: that fill may
+     * have been read before it committed, and dropping it would understate the margin held.
+     */
+    public void reconcile(
+        Long accountId,
+        BigDecimal balance,
+        Collection<PositionExposure> positions,
+        Set<Long> openOrderIds,
+        long boundBeforeNanos
+    ) {
+        synchronized (stripeFor(accountId)) {
+            AccountExposure account = accounts.get(accountId);
+            if (account == null) {
+                return;
+            }
+            account.balance = toScaled(balance);
+            if (account.lastFillNanos - boundBeforeNanos < 0) {
+                account.replacePositions(positions);
+            }
+            for (Long orderId : Set.copyOf(account.orderIds)) {
+                OrderExposure order = orders.get(orderId);
+                if (order != null && order.boundAtNanos - boundBeforeNanos < 0 && !openOrderIds.contains(orderId)) {
+                    releaseOrder(orderId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop tracking an account that no longer exists. Its next order, if any, starts it afresh.
+     */
+    public void forget(Long accountId) {
+        synchronized (stripeFor(accountId)) {
+            AccountExposure account = accounts.remove(accountId);
+            if (account != null) {
+                account.orderIds.forEach(orders::remove);
+            }
+        }
+    }
+
+    /**
+     * Stop tracking every account and order, e.g. once they have been deleted. Accounts are seeded afresh on their
+     * next order.
+     */
+    public void clear() {
+        accounts.clear();
+        orders.clear();
+    }
+
+    private void releaseOrder(Long orderId) {
+        OrderExposure order = orders.remove(orderId);
+        if (order == null) {
+            return;
+        }
+        order.reservation.released = true;
+        AccountExposure account = accounts.get(order.accountId);
+        if (account != null) {
+            account.blocked -= order.blocked;
+            account.orderIds.remove(orderId);
+        }
+    }
+
+    private AccountExposure account(Long accountId) {
+        AccountExposure account = accounts.get(accountId);
+        if (account == null) {
+            throw new IllegalStateException("Exposure of trading account " + accountId + " is not tracked");
+        }
+        return account;
+    }
+
+    private Object stripeFor(Long accountId) {
+        Objects.requireNonNull(accountId, "accountId must not be null");
+        return stripes[Math.floorMod(Long.hashCode(accountId), STRIPES)];
+    }
+
+    private static long toScaled(BigDecimal value) {
+        return value == null ? 0 : FixedPointPrice.toScaled(value);
+    }
+
+    /**
+     * {@code amount * part / whole}, rounded down, without overflowing on large amounts.
+     */
+    static long share(long amount, long part, long whole) {
+        if (part >= whole) {
+            return amount;
+        }
+        if (part <= 0 || amount == 0) {
+            return 0;
+        }
+        try {
+            return Math.multiplyExact(amount, part) / whole;
+        } catch (ArithmeticException ex) {
+            return BigInteger.valueOf(amount).multiply(BigInteger.valueOf(part)).divide(BigInteger.valueOf(whole)).longValueExact();
+        }
+    }
+
+    /**
+     * Funds an account may commit, as blocked and position margin reduce its balance.
+     */
+    public record ExposureSnapshot(BigDecimal balance, BigDecimal blockedMargin, BigDecimal positionMargin, BigDecimal available) {}
+
+    /**
+     * An open position as persisted, with the margin it holds; {@code quantity} is negative for a short position.
+     */
+    public record PositionExposure(String symbol, BigDecimal quantity, BigDecimal margin) {}
+
+    /**
+     * Margin blocked for one order before the order exists. Its mutable state is guarded by the account's stripe.
+     */
+    public static final class Reservation {
+
+        private final Long accountId;
+        private final long amount;
+        private final long availableBefore;
+        private final boolean accepted;
+        private Long orderId;
+        private boolean released;
+
+        private Reservation(Long accountId, long amount, long availableBefore, boolean accepted) {
+            this.accountId = accountId;
+            this.amount = amount;
+            this.availableBefore = availableBefore;
+            this.accepted = accepted;
+        }
+
+        public Long accountId() {
+            return accountId;
+        }
+
+        public boolean accepted() {
+            return accepted;
+        }
+
+        public BigDecimal availableBefore() {
+            return FixedPointPrice.toDecimal(availableBefore);
+        }
+
+        long amount() {
+            return amount;
+        }
+    }
+
+    private static final class AccountExposure {
+
+        private final Map<String, Holding> positions = new HashMap<>();
+        private final Set<Long> orderIds = new HashSet<>();
+        private long balance;
+        private long blocked;
+        private long positionMargin;
+        private long lastFillNanos = System.nanoTime();
+
+        private AccountExposure(long balance) {
+            this.balance = balance;
+        }
+
+        private void replacePositions(Collection<PositionExposure> persisted) {
+            positions.clear();
+            positionMargin = 0;
+            for (PositionExposure position : persisted) {
+                long margin = toScaled(position.margin());
+                positions.put(position.symbol(), new Holding(toScaled(position.quantity()), margin));
+                positionMargin += margin;
+            }
+        }
+
+        private long available() {
+            return balance - blocked - positionMargin;
+        }
+
+        /**
+         * Add a signed fill to the symbol's position. The part that opens or extends the position holds its share
+         * of {@code margin}; the part that closes it frees the matching share of the position's margin.
+         */
+        private void applyToPosition(String symbol, long quantity, long margin) {
+            Holding holding = positions.computeIfAbsent(symbol, key -> new Holding(0, 0));
+            long closing = holding.quantity == 0 || Long.signum(holding.quantity) == Long.signum(quantity)
+                ? 0
+                : Math.min(Math.abs(quantity), Math.abs(holding.quantity));
+            if (closing > 0) {
+                long freed = share(holding.margin, closing, Math.abs(holding.quantity));
+                holding.margin -= freed;
+                positionMargin -= freed;
+            }
+            long opened = share(margin, Math.abs(quantity) - closing, Math.abs(quantity));
+            holding.margin += opened;
+            positionMargin += opened;
+            holding.quantity += quantity;
+            if (holding.quantity == 0) {
+                positionMargin -= holding.margin;
+                positions.remove(symbol);
+            }
+        }
+    }
+
+    private static final class Holding {
+
+        private long quantity;
+        private long margin;
+
+        private Holding(long quantity, long margin) {
+            this.quantity = quantity;
+            this.margin = margin;
+        }
+    }
+
+    private static final class OrderExposure {
+
+        private final Long accountId;
+        private final String symbol;
+        private final OrderSide side;
+        private final Reservation reservation;
+        private final long boundAtNanos = System.nanoTime();
+        private long blocked;
+        private long remainingQuantity;
+
+        private OrderExposure(
+            Long accountId,
+            String symbol,
+            OrderSide side,
+            long blocked,
+            long remainingQuantity,
+            Reservation reservation
+        ) {
+            this.accountId = accountId;
+            this.symbol = symbol;
+            this.side = side;
+            this.blocked = blocked;
+            this.remainingQuantity = remainingQuantity;
+            this.reservation = reservation;
+        }
+    }
+}
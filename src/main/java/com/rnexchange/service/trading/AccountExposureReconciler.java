@@ -0,0 +1,101 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.config.TradingProperties;
+import com.rnexchange.domain.TradingAccount;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.repository.OrderRepository;
+import com.rnexchange.repository.TradingAccountRepository;
+import com.rnexchange.service.trading.AccountExposureBook.PositionExposure;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically aligns the {@link AccountExposureBook} with the database, off the order path: balances changed by
+ * settlement or the ledger are picked up, position margin is rebuilt from the persisted positions, orders closed
+ * outside the order service stop blocking margin, and accounts that were deleted are forgotten. Accounts are read in
+ * batches, three queries per batch.
+ */
+@Component
+public class AccountExposureReconciler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountExposureReconciler.class);
+
+    /**
+     * Statuses of orders that may still trade and so block margin.
+     */
+    public static final Set<OrderStatus> OPEN_STATUSES = Collections.unmodifiableSet(
+        EnumSet.of(OrderStatus.NEW, OrderStatus.ACCEPTED, OrderStatus.WORKING, OrderStatus.PARTIAL)
+    );
+    private static final int BATCH_SIZE = 500;
+
+    private final AccountExposureBook accountExposureBook;
+    private final TradingAccountRepository tradingAccountRepository;
+    private final OrderRepository orderRepository;
+    private final PositionExposureLoader positionExposureLoader;
+    private final long graceNanos;
+
+    public AccountExposureReconciler(
+        AccountExposureBook accountExposureBook,
+        TradingAccountRepository tradingAccountRepository,
+        OrderRepository orderRepository,
+        PositionExposureLoader positionExposureLoader,
+        TradingProperties properties
+    ) {
+        this.accountExposureBook = accountExposureBook;
+        this.tradingAccountRepository = tradingAccountRepository;
+        this.orderRepository = orderRepository;
+        this.positionExposureLoader = positionExposureLoader;
+        this.graceNanos = TimeUnit.MILLISECONDS.toNanos(properties.getExposure().getReconcileIntervalMs());
+    }
+
+    @Scheduled(
+        initialDelayString = "${trading.exposure.reconcile-interval-ms:5000}",
+        fixedDelayString = "${trading.exposure.reconcile-interval-ms:5000}"
+    )
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        List<Long> accountIds = new ArrayList<>(accountExposureBook.trackedAccounts());
+        if (accountIds.isEmpty()) {
+            return;
+        }
+        long boundBeforeNanos = System.nanoTime() - graceNanos;
+        for (int from = 0; from < accountIds.size(); from += BATCH_SIZE) {
+            reconcileBatch(accountIds.subList(from, Math.min(from + BATCH_SIZE, accountIds.size())), boundBeforeNanos);
+        }
+        LOG.debug("Reconciled exposure of {} trading account(s)", accountIds.size());
+    }
+
+    private void reconcileBatch(List<Long> accountIds, long boundBeforeNanos) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (TradingAccount account : tradingAccountRepository.findAllById(accountIds)) {
+            balances.put(account.getId(), account.getBalance());
+        }
+        Map<Long, Set<Long>> openOrders = new HashMap<>();
+        for (Object[] row : orderRepository.findIdsByTradingAccountIdInAndStatusIn(accountIds, OPEN_STATUSES)) {
+            openOrders.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+        Map<Long, List<PositionExposure>> positions = positionExposureLoader.loadAll(accountIds);
+        for (Long accountId : accountIds) {
+            if (balances.containsKey(accountId)) {
+                Set<Long> open = openOrders.getOrDefault(accountId, Set.of());
+                List<PositionExposure> held = positions.getOrDefault(accountId, List.of());
+                accountExposureBook.reconcile(accountId, balances.get(accountId), held, open, boundBeforeNanos);
+            } else {
+                accountExposureBook.forget(accountId);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Immutable order ticket handed to the {@link MatchingEngine}. The {@code limitPrice} of a MARKET order is the
+ * trader-supplied reference price used for margin; it does not constrain matching. Only LIMIT orders rest: the
+ * unfilled remainder of a MARKET or {@link Tif#IOC} order is cancelled.
+ */
+public record BookOrder(
+    Long orderId,
+    String symbol,
+    OrderSide side,
+    OrderType type,
+    BigDecimal limitPrice,
+    BigDecimal quantity,
+    Tif tif
+) {
+    public BookOrder {
+        orderId = Objects.requireNonNull(orderId, "orderId must not be null");
+        symbol = Objects.requireNonNull(symbol, "symbol must not be null");
+        side = Objects.requireNonNull(side, "side must not be null");
+        type = Objects.requireNonNull(type, "type must not be null");
+        quantity = Objects.requireNonNull(quantity, "quantity must not be null");
+        tif = Objects.requireNonNull(tif, "tif must not be null");
+        if (type == OrderType.LIMIT) {
+            Objects.requireNonNull(limitPrice, "limitPrice must not be null for LIMIT orders");
+        }
+        if (quantity.signum() <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.Tif;
+import com.rnexchange.repository.OrderRepository;
+import com.rnexchange.service.TransactionCallbacks;
+import com.rnexchange.service.marketdata.MarketCalendar;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Expires DAY orders once the session they were entered for has closed. Each sweep reads the open DAY orders of a
+ * venue that predate its last close in one query, takes them off the books with one task per engine shard, and
+ * cancels them with batched bulk updates instead of loading and saving each order.
+ */
+@Component
+public class DayOrderExpirySweeper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DayOrderExpirySweeper.class);
+
+    private static final Set<OrderStatus> OPEN_STATUSES = AccountExposureReconciler.OPEN_STATUSES;
+    private static final int BATCH_SIZE = 1000;
+
+    private final OrderRepository orderRepository;
+    private final MatchingEngine matchingEngine;
+    private final AccountExposureBook accountExposureBook;
+    private final MarketCalendar marketCalendar;
+
+    public DayOrderExpirySweeper(
+        OrderRepository orderRepository,
+        MatchingEngine matchingEngine,
+        AccountExposureBook accountExposureBook,
+        MarketCalendar marketCalendar
+    ) {
+        this.orderRepository = orderRepository;
+        this.matchingEngine = matchingEngine;
+        this.accountExposureBook = accountExposureBook;
+        this.marketCalendar = marketCalendar;
+    }
+
+    @Scheduled(
+        initialDelayString = "${trading.expiry.sweep-interval-ms:60000}",
+        fixedDelayString = "${trading.expiry.sweep-interval-ms:60000}"
+    )
+    @Transactional
+    public int sweep() {
+        return sweep(Instant.now());
+    }
+
+    int sweep(Instant now) {
+        int expired = 0;
+        for (String venue : orderRepository.findDistinctVenueByTifAndStatusIn(Tif.DAY, OPEN_STATUSES)) {
+            expired += expireVenue(venue, marketCalendar.lastSessionClose(venue, now), now);
+        }
+        return expired;
+    }
+
+    private int expireVenue(String venue, Instant lastClose, Instant now) {
+        List<Object[]> rows = orderRepository.findIdsAndSymbolsByVenueAndTifAndStatusInAndCreatedAtBefore(
+            venue,
+            Tif.DAY,
+            OPEN_STATUSES,
+            lastClose
+        );
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> orderIds = new ArrayList<>(rows.size());
+        Map<String, List<Long>> orderIdsBySymbol = new HashMap<>();
+        for (Object[] row : rows) {
+            Long orderId = (Long) row[0];
+            orderIds.add(orderId);
+            if (row[1] != null) {
+                orderIdsBySymbol.computeIfAbsent((String) row[1], symbol -> new ArrayList<>()).add(orderId);
+            }
+        }
+        // Off the books first, so none of these orders can trade while its status changes.
+        matchingEngine.cancelAll(orderIdsBySymbol);
+        int expired = 0;
+        for (int from = 0; from < orderIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + BATCH_SIZE, orderIds.size()));
+            expired += orderRepository.updateStatusByIdInAndStatusIn(batch, OPEN_STATUSES, OrderStatus.CANCELED, now);
+        }
+        // Margin is freed once the cancellations commit. If they roll back, the orders stay off the books and
+        // expired, so the next sweep cancels them again.
+        TransactionCallbacks.afterCommit(() -> orderIds.forEach(accountExposureBook::release));
+        LOG.info("Expired {} DAY order(s) on {} after the session close at {}", expired, venue, lastClose);
+        return expired;
+    }
+}
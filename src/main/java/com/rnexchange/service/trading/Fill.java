@@ -0,0 +1,12 @@
+package com.rnexchange.service.trading;
+
+import java.math.BigDecimal;
+
+/**
+ * A single match between an incoming (taker) order and a resting (maker) order, priced at the maker's level.
+ */
+public record Fill(Long takerOrderId, Long makerOrderId, BigDecimal price, BigDecimal quantity, BigDecimal makerRemaining) {
+    public boolean makerFilled() {
+        return makerRemaining.signum() == 0;
+    }
+}
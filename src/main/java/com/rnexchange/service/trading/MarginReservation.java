@@ -0,0 +1,15 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.service.dto.MarginAssessment;
+import java.util.Objects;
+
+/**
+ * An accepted margin check together with the funds it blocked in the {@link AccountExposureBook}, which the order
+ * path binds to the order once it is saved.
+ */
+public record MarginReservation(MarginAssessment assessment, AccountExposureBook.Reservation reservation) {
+    public MarginReservation {
+        assessment = Objects.requireNonNull(assessment, "assessment must not be null");
+        reservation = Objects.requireNonNull(reservation, "reservation must not be null");
+    }
+}
@@ -0,0 +1,14 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.enumeration.OrderStatus;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+public record MatchResult(Long orderId, OrderStatus status, BigDecimal filledQuantity, BigDecimal remainingQuantity, List<Fill> fills) {
+    public MatchResult {
+        orderId = Objects.requireNonNull(orderId, "orderId must not be null");
+        status = Objects.requireNonNull(status, "status must not be null");
+        fills = List.copyOf(Objects.requireNonNull(fills, "fills must not be null"));
+    }
+}
@@ -0,0 +1,279 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.config.TradingProperties;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory matching engine. Order books are sharded by symbol across a fixed set of single-writer threads; every
+ * mutation of a book runs on the shard thread that owns it, so matching never takes a lock and never touches the
+ * database. Callers block only until their own order has been matched, cancelled or replaced.
+ */
+@Component
+public class MatchingEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MatchingEngine.class);
+
+    private final Shard[] shards;
+    private final long submitTimeoutMillis;
+
+    public MatchingEngine(TradingProperties properties) {
+        TradingProperties.MatchingProperties matching = properties.getMatching();
+        this.shards = new Shard[Math.max(1, matching.getShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i);
+        }
+        this.submitTimeoutMillis = matching.getSubmitTimeoutMs();
+        LOG.info("Matching engine initialised with {} shard(s)", shards.length);
+    }
+
+    public MatchResult submit(BookOrder order) {
+        Objects.requireNonNull(order, "order must not be null");
+        Shard shard = shardFor(order.symbol());
+        return await(shard.executor.submit(() -> shard.book(order.symbol()).match(order)), "order " + order.orderId());
+    }
+
+    /**
+     * Take a resting order off its book.
+     *
+     * @return the quantity that was still open, or empty if the order is not resting, e.g. because it was filled.
+     */
+    public Optional<BigDecimal> cancel(String symbol, Long orderId) {
+        Objects.requireNonNull(symbol, "symbol must not be null");
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        Shard shard = shardFor(symbol);
+        return await(
+            shard.executor.submit(() -> {
+                OrderBook book = shard.books.get(symbol);
+                return book == null ? Optional.<BigDecimal>empty() : book.cancel(orderId);
+            }),
+            "cancel of order " + orderId
+        );
+    }
+
+    /**
+     * Replace a resting order atomically with respect to every other order of its symbol; see
+     * {@link OrderBook#replace}.
+     *
+     * @return the outcome, or empty if the order is not resting.
+     */
+    public Optional<MatchResult> replace(BookOrder replacement) {
+        Objects.requireNonNull(replacement, "replacement must not be null");
+        Shard shard = shardFor(replacement.symbol());
+        return await(
+            shard.executor.submit(() -> {
+                OrderBook book = shard.books.get(replacement.symbol());
+                return book == null ? Optional.<MatchResult>empty() : book.replace(replacement);
+            }),
+            "replace of order " + replacement.orderId()
+        );
+    }
+
+    /**
+     * Take many orders off their books with one task per shard rather than one per order.
+     *
+     * @return how many of them were resting.
+     */
+    public int cancelAll(Map<String, ? extends Collection<Long>> orderIdsBySymbol) {
+        Map<Shard, List<Map.Entry<String, ? extends Collection<Long>>>> byShard = new HashMap<>();
+        for (Map.Entry<String, ? extends Collection<Long>> entry : orderIdsBySymbol.entrySet()) {
+            byShard.computeIfAbsent(shardFor(entry.getKey()), shard -> new ArrayList<>()).add(entry);
+        }
+        List<Future<Integer>> tasks = new ArrayList<>(byShard.size());
+        byShard.forEach((shard, entries) ->
+            tasks.add(
+                shard.executor.submit(() -> {
+                    int canceled = 0;
+                    for (Map.Entry<String, ? extends Collection<Long>> entry : entries) {
+                        OrderBook book = shard.books.get(entry.getKey());
+                        if (book != null) {
+                            for (Long orderId : entry.getValue()) {
+                                canceled += book.cancel(orderId).isPresent() ? 1 : 0;
+                            }
+                        }
+                    }
+                    return canceled;
+                })
+            )
+        );
+        int canceled = 0;
+        for (Future<Integer> task : tasks) {
+            canceled += await(task, "bulk cancel");
+        }
+        return canceled;
+    }
+
+    /**
+     * Put persisted orders back on their books without matching them, with one task per shard. Orders must be given
+     * in their original arrival order.
+     */
+    public void restore(List<RestingOrder> orders) {
+        Map<Shard, List<RestingOrder>> byShard = new HashMap<>();
+        for (RestingOrder resting : orders) {
+            byShard.computeIfAbsent(shardFor(resting.order().symbol()), shard -> new ArrayList<>()).add(resting);
+        }
+        List<Future<Void>> tasks = new ArrayList<>(byShard.size());
+        byShard.forEach((shard, entries) ->
+            tasks.add(
+                shard.executor.submit(() -> {
+                    for (RestingOrder resting : entries) {
+                        shard.book(resting.order().symbol()).restore(resting.order(), resting.filledQuantity());
+                    }
+                    return null;
+                })
+            )
+        );
+        for (Future<Void> task : tasks) {
+            await(task, "restore of resting orders");
+        }
+    }
+
+    /**
+     * Undo a match that could not be recorded, in one step on the book: take order {@code orderId} off its book, give
+     * each of {@code makers} back what it traded (see {@link OrderBook#reinstate}) and, unless it is {@code null},
+     * put {@code previous} back as the order was persisted before the match, e.g. the version a replace superseded.
+     */
+    public void unwind(String symbol, Long orderId, List<RestingOrder> makers, RestingOrder previous) {
+        Objects.requireNonNull(symbol, "symbol must not be null");
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        Objects.requireNonNull(makers, "makers must not be null");
+        Shard shard = shardFor(symbol);
+        await(
+            shard.executor.submit(() -> {
+                OrderBook book = shard.book(symbol);
+                book.cancel(orderId);
+                for (RestingOrder maker : makers) {
+                    book.reinstate(maker.order(), maker.filledQuantity());
+                }
+                if (previous != null) {
+                    book.restore(previous.order(), previous.filledQuantity());
+                }
+                return null;
+            }),
+            "unwind of order " + orderId
+        );
+    }
+
+    /**
+     * Drop every book, e.g. once the orders behind them have been deleted.
+     */
+    public void clear() {
+        List<Future<Void>> tasks = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            tasks.add(
+                shard.executor.submit(() -> {
+                    shard.books.clear();
+                    return null;
+                })
+            );
+        }
+        for (Future<Void> task : tasks) {
+            await(task, "clear of the order books");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Shard shard : shards) {
+            shard.executor.shutdownNow();
+        }
+    }
+
+    private Shard shardFor(String symbol) {
+        return shards[Math.floorMod(symbol.hashCode(), shards.length)];
+    }
+
+    private <T> T await(Future<T> future, String task) {
+        try {
+            return future.get(submitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            if (future.cancel(false)) {
+                throw new IllegalStateException(
+                    "Matching engine did not accept %s within %d ms".formatted(task, submitTimeoutMillis)
+                );
+            }
+            // The shard has already started on this task; the book is being mutated, so wait for the outcome.
+            return awaitUninterruptibly(future);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + task, ex);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    private <T> T awaitUninterruptibly(Future<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    throw unwrap(ex);
+                } catch (CancellationException ex) {
+                    throw new IllegalStateException("Matching task was cancelled", ex);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        if (ex.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException("Matching engine failure", ex.getCause());
+    }
+
+    /**
+     * A persisted order to put back on its book: {@code order} carries the open quantity, {@code filledQuantity}
+     * what it had traded before.
+     */
+    public record RestingOrder(BookOrder order, BigDecimal filledQuantity) {
+        public RestingOrder {
+            order = Objects.requireNonNull(order, "order must not be null");
+            filledQuantity = Objects.requireNonNull(filledQuantity, "filledQuantity must not be null");
+        }
+    }
+
+    private static final class Shard {
+
+        private final ExecutorService executor;
+        // Only touched from the shard thread.
+        private final Map<String, OrderBook> books = new HashMap<>();
+
+        private Shard(int index) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "matching-engine-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private OrderBook book(String symbol) {
+            return books.computeIfAbsent(symbol, OrderBook::new);
+        }
+    }
+}
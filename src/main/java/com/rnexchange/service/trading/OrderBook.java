@@ -0,0 +1,240 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Price-time priority limit order book for a single instrument.
+ * <p>
+ * Instances are confined to the {@link MatchingEngine} shard thread that owns the symbol, so the book keeps no
+ * locks. Each price level is an insertion-ordered map, which gives FIFO matching within a level and constant-time
+ * removal by order id; a resting order remembers its side and price, so cancelling or replacing it costs one
+ * lookup of its level.
+ */
+public class OrderBook {
+
+    private final String symbol;
+    private final NavigableMap<BigDecimal, Map<Long, RestingOrder>> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<BigDecimal, Map<Long, RestingOrder>> asks = new TreeMap<>();
+    private final Map<Long, RestingOrder> restingOrders = new HashMap<>();
+
+    public OrderBook(String symbol) {
+        this.symbol = Objects.requireNonNull(symbol, "symbol must not be null");
+    }
+
+    public MatchResult match(BookOrder incoming) {
+        Objects.requireNonNull(incoming, "incoming order must not be null");
+        checkSymbol(incoming);
+        return match(incoming, BigDecimal.ZERO);
+    }
+
+    /**
+     * Take a resting order off the book.
+     *
+     * @return the quantity that was still open, or empty if the order is not resting here.
+     */
+    public Optional<BigDecimal> cancel(Long orderId) {
+        RestingOrder resting = restingOrders.remove(orderId);
+        if (resting == null) {
+            return Optional.empty();
+        }
+        removeFromLevel(resting);
+        return Optional.of(resting.remaining);
+    }
+
+    /**
+     * Put an order back on the book as it was persisted, without matching it, e.g. when the books are rebuilt on
+     * start. Its quantity is the open quantity; {@code filled} is what it had traded before. Orders are restored in
+     * their original arrival order, so each joins the back of its level. An order already resting is left alone.
+     */
+    public void restore(BookOrder order, BigDecimal filled) {
+        Objects.requireNonNull(order, "order must not be null");
+        checkSymbol(order);
+        if (order.type() != OrderType.LIMIT) {
+            throw new IllegalArgumentException("Only LIMIT orders rest; order %d is %s".formatted(order.orderId(), order.type()));
+        }
+        if (!restingOrders.containsKey(order.orderId())) {
+            rest(order, order.quantity(), filled);
+        }
+    }
+
+    /**
+     * Give a maker back the quantity it traded in a match that could not be recorded; {@code order} carries that
+     * quantity and {@code filled} what the maker had traded before the match. A maker still resting keeps its place
+     * and grows by the quantity, one the match took off the book rests again at the back of its level.
+     */
+    public void reinstate(BookOrder order, BigDecimal filled) {
+        Objects.requireNonNull(order, "order must not be null");
+        checkSymbol(order);
+        RestingOrder resting = restingOrders.get(order.orderId());
+        if (resting == null) {
+            restore(order, filled);
+            return;
+        }
+        resting.remaining = resting.remaining.add(order.quantity());
+        resting.filled = resting.filled.subtract(order.quantity()).max(BigDecimal.ZERO);
+    }
+
+    /**
+     * Replace a resting order with {@code replacement}, whose quantity is the new open quantity. Reducing the
+     * quantity at an unchanged price amends the order in place and keeps its time priority; any other change takes
+     * it off the book and matches the replacement as a new arrival at the back of its level. The result reports the
+     * order as a whole: its filled quantity includes fills from before the replacement, its fills only new ones.
+     *
+     * @return the outcome, or empty if the order is not resting here.
+     */
+    public Optional<MatchResult> replace(BookOrder replacement) {
+        Objects.requireNonNull(replacement, "replacement must not be null");
+        checkSymbol(replacement);
+        RestingOrder resting = restingOrders.get(replacement.orderId());
+        if (resting == null) {
+            return Optional.empty();
+        }
+        if (resting.side != replacement.side()) {
+            throw new IllegalArgumentException("Order %d cannot change side on replace".formatted(replacement.orderId()));
+        }
+        if (replacement.type() != OrderType.LIMIT) {
+            throw new IllegalArgumentException(
+                "Order %d cannot be replaced by a %s order".formatted(replacement.orderId(), replacement.type())
+            );
+        }
+        if (
+            resting.price.compareTo(replacement.limitPrice()) == 0 &&
+            replacement.quantity().compareTo(resting.remaining) <= 0
+        ) {
+            resting.remaining = replacement.quantity();
+            OrderStatus status = restingStatus(resting.filled);
+            return Optional.of(new MatchResult(resting.orderId, status, resting.filled, resting.remaining, List.of()));
+        }
+        restingOrders.remove(resting.orderId);
+        removeFromLevel(resting);
+        return Optional.of(match(replacement, resting.filled));
+    }
+
+    private MatchResult match(BookOrder incoming, BigDecimal previouslyFilled) {
+        NavigableMap<BigDecimal, Map<Long, RestingOrder>> opposite = incoming.side() == OrderSide.BUY ? asks : bids;
+        List<Fill> fills = new ArrayList<>();
+        BigDecimal remaining = incoming.quantity();
+
+        while (remaining.signum() > 0 && !opposite.isEmpty()) {
+            Map.Entry<BigDecimal, Map<Long, RestingOrder>> best = opposite.firstEntry();
+            if (!crosses(incoming, best.getKey())) {
+                break;
+            }
+            Iterator<RestingOrder> makers = best.getValue().values().iterator();
+            while (remaining.signum() > 0 && makers.hasNext()) {
+                RestingOrder maker = makers.next();
+                BigDecimal quantity = remaining.min(maker.remaining);
+                maker.remaining = maker.remaining.subtract(quantity);
+                maker.filled = maker.filled.add(quantity);
+                remaining = remaining.subtract(quantity);
+                fills.add(new Fill(incoming.orderId(), maker.orderId, best.getKey(), quantity, maker.remaining));
+                if (maker.remaining.signum() == 0) {
+                    makers.remove();
+                    restingOrders.remove(maker.orderId);
+                }
+            }
+            if (best.getValue().isEmpty()) {
+                opposite.pollFirstEntry();
+            }
+        }
+
+        BigDecimal filled = previouslyFilled.add(incoming.quantity().subtract(remaining));
+        if (remaining.signum() == 0) {
+            return new MatchResult(incoming.orderId(), OrderStatus.FILLED, filled, remaining, fills);
+        }
+        if (incoming.type() == OrderType.MARKET || incoming.tif() == Tif.IOC) {
+            // Only LIMIT orders rest: a MARKET order takes what liquidity there is, and an IOC remainder must not rest.
+            return new MatchResult(incoming.orderId(), OrderStatus.CANCELED, filled, remaining, fills);
+        }
+
+        rest(incoming, remaining, filled);
+        return new MatchResult(incoming.orderId(), restingStatus(filled), filled, remaining, fills);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Optional<BigDecimal> bestBid() {
+        return bids.isEmpty() ? Optional.empty() : Optional.of(bids.firstKey());
+    }
+
+    public Optional<BigDecimal> bestAsk() {
+        return asks.isEmpty() ? Optional.empty() : Optional.of(asks.firstKey());
+    }
+
+    public int restingOrderCount() {
+        return restingOrders.size();
+    }
+
+    private void rest(BookOrder order, BigDecimal remaining, BigDecimal filled) {
+        RestingOrder resting = new RestingOrder(order.orderId(), order.side(), order.limitPrice(), remaining, filled);
+        levels(order.side()).computeIfAbsent(order.limitPrice(), price -> new LinkedHashMap<>()).put(order.orderId(), resting);
+        restingOrders.put(order.orderId(), resting);
+    }
+
+    private void removeFromLevel(RestingOrder resting) {
+        NavigableMap<BigDecimal, Map<Long, RestingOrder>> own = levels(resting.side);
+        Map<Long, RestingOrder> level = own.get(resting.price);
+        if (level != null) {
+            level.remove(resting.orderId);
+            if (level.isEmpty()) {
+                own.remove(resting.price);
+            }
+        }
+    }
+
+    private NavigableMap<BigDecimal, Map<Long, RestingOrder>> levels(OrderSide side) {
+        return side == OrderSide.BUY ? bids : asks;
+    }
+
+    private void checkSymbol(BookOrder order) {
+        if (!symbol.equals(order.symbol())) {
+            throw new IllegalArgumentException("Order for %s routed to book %s".formatted(order.symbol(), symbol));
+        }
+    }
+
+    private static OrderStatus restingStatus(BigDecimal filled) {
+        return filled.signum() == 0 ? OrderStatus.WORKING : OrderStatus.PARTIAL;
+    }
+
+    private static boolean crosses(BookOrder incoming, BigDecimal levelPrice) {
+        if (incoming.type() == OrderType.MARKET) {
+            return true;
+        }
+        int comparison = incoming.limitPrice().compareTo(levelPrice);
+        return incoming.side() == OrderSide.BUY ? comparison >= 0 : comparison <= 0;
+    }
+
+    private static final class RestingOrder {
+
+        private final Long orderId;
+        private final OrderSide side;
+        private final BigDecimal price;
+        private BigDecimal remaining;
+        private BigDecimal filled;
+
+        private RestingOrder(Long orderId, OrderSide side, BigDecimal price, BigDecimal remaining, BigDecimal filled) {
+            this.orderId = orderId;
+            this.side = side;
+            this.price = price;
+            this.remaining = remaining;
+            this.filled = filled;
+        }
+    }
+}
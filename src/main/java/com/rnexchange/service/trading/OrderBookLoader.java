@@ -0,0 +1,68 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import com.rnexchange.repository.OrderRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds the in-memory books of the {@link MatchingEngine} from the database once the application is ready, so
+ * LIMIT orders that were resting before a restart keep trading. Orders are read in arrival order with one query and
+ * put back with their open quantity, which is their quantity less what their executions filled.
+ */
+@Component
+public class OrderBookLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderBookLoader.class);
+
+    private static final Set<OrderStatus> RESTING_STATUSES = EnumSet.of(OrderStatus.WORKING, OrderStatus.PARTIAL);
+
+    private final OrderRepository orderRepository;
+    private final MatchingEngine matchingEngine;
+
+    public OrderBookLoader(OrderRepository orderRepository, MatchingEngine matchingEngine) {
+        this.orderRepository = orderRepository;
+        this.matchingEngine = matchingEngine;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<MatchingEngine.RestingOrder> resting = new ArrayList<>();
+        for (Object[] row : orderRepository.findBookRowsByTypeAndStatusIn(OrderType.LIMIT, RESTING_STATUSES)) {
+            Long orderId = (Long) row[0];
+            BigDecimal quantity = (BigDecimal) row[4];
+            // The sum comes back as whatever numeric type the dialect picks for it.
+            BigDecimal filled = new BigDecimal(row[6].toString());
+            BigDecimal open = quantity.subtract(filled);
+            if (open.signum() <= 0) {
+                LOG.warn("Order {} is open but its executions fill all of it; leaving it off the book", orderId);
+                continue;
+            }
+            BookOrder order = new BookOrder(
+                orderId,
+                (String) row[1],
+                (OrderSide) row[2],
+                OrderType.LIMIT,
+                (BigDecimal) row[3],
+                open,
+                (Tif) row[5]
+            );
+            resting.add(new MatchingEngine.RestingOrder(order, filled));
+        }
+        matchingEngine.restore(resting);
+        LOG.info("Restored {} resting order(s) to the order books", resting.size());
+    }
+}
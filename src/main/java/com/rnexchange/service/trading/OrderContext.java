@@ -0,0 +1,18 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.Instrument;
+import com.rnexchange.domain.MarginRule;
+import com.rnexchange.domain.TradingAccount;
+import java.util.Objects;
+
+/**
+ * Reference data an order is admitted against, resolved once per submission by {@link OrderContextResolver} and
+ * handed to validation, margin and audit so none of them looks it up again.
+ */
+public record OrderContext(String traderLogin, TradingAccount tradingAccount, Instrument instrument, MarginRule marginRule) {
+    public OrderContext {
+        tradingAccount = Objects.requireNonNull(tradingAccount, "tradingAccount must not be null");
+        instrument = Objects.requireNonNull(instrument, "instrument must not be null");
+        marginRule = Objects.requireNonNull(marginRule, "marginRule must not be null");
+    }
+}
@@ -0,0 +1,93 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.Instrument;
+import com.rnexchange.domain.MarginRule;
+import com.rnexchange.domain.TradingAccount;
+import com.rnexchange.domain.enumeration.AssetClass;
+import com.rnexchange.repository.TradingAccountRepository;
+import com.rnexchange.service.ReferenceDataCache;
+import com.rnexchange.service.dto.TraderOrderRequest;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Resolves the {@link OrderContext} of a trader order: one lookup for the trading account, while the instrument and
+ * the margin rule, including the derivative-scope fallback, come from the {@link ReferenceDataCache}.
+ */
+@Component
+@Transactional(readOnly = true)
+public class OrderContextResolver {
+
+    private final TradingAccountRepository tradingAccountRepository;
+    private final ReferenceDataCache referenceDataCache;
+
+    public OrderContextResolver(TradingAccountRepository tradingAccountRepository, ReferenceDataCache referenceDataCache) {
+        this.tradingAccountRepository = tradingAccountRepository;
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    public OrderContext resolve(TraderOrderRequest request) {
+        Objects.requireNonNull(request, "Trader order request must not be null");
+        TradingAccount tradingAccount = resolveTradingAccount(request.getTraderLogin());
+        Instrument instrument = resolveInstrument(request);
+        return new OrderContext(request.getTraderLogin(), tradingAccount, instrument, resolveMarginRule(instrument));
+    }
+
+    public TradingAccount resolveTradingAccount(String traderLogin) {
+        return tradingAccountRepository
+            .findFirstByTrader_User_LoginOrderByIdAsc(traderLogin)
+            .orElseThrow(() -> new IllegalStateException("Trading account not found for trader login " + traderLogin));
+    }
+
+    private Instrument resolveInstrument(TraderOrderRequest request) {
+        if (request.getInstrumentSymbol() != null) {
+            // Avoid Optional.get() to satisfy modernizer rules while maintaining existing behaviour.
+            Optional<Instrument> bySymbol = referenceDataCache.findInstrumentBySymbol(request.getInstrumentSymbol());
+            if (bySymbol.isPresent()) {
+                return bySymbol.orElseThrow();
+            }
+        }
+        if (request.getInstrumentId() != null) {
+            return referenceDataCache
+                .findInstrumentById(request.getInstrumentId())
+                .orElseThrow(() ->
+                    new IllegalStateException(
+                        "Instrument not found for id " + request.getInstrumentId() + " (symbol=" + request.getInstrumentSymbol() + ")"
+                    )
+                );
+        }
+        throw new IllegalStateException("Instrument not found for symbol " + request.getInstrumentSymbol());
+    }
+
+    /**
+     * The rule of the instrument's own scope, or for equities the exchange's F&amp;O scope when no cash rule exists.
+     */
+    public Optional<MarginRule> findMarginRule(Instrument instrument) {
+        String exchangeCode = exchangeCode(instrument);
+        return referenceDataCache.findMarginRule(exchangeCode, marginScopes(exchangeCode, instrument.getAssetClass()));
+    }
+
+    private MarginRule resolveMarginRule(Instrument instrument) {
+        return findMarginRule(instrument).orElseThrow(() -> {
+            String exchangeCode = exchangeCode(instrument);
+            String scope = marginScopes(exchangeCode, instrument.getAssetClass()).get(0);
+            return new IllegalStateException("Margin rule not found for scope %s on exchange %s".formatted(scope, exchangeCode));
+        });
+    }
+
+    private static String exchangeCode(Instrument instrument) {
+        // The denormalized exchange code spares loading the lazy exchange association.
+        return instrument.getExchangeCode() != null ? instrument.getExchangeCode() : instrument.getExchange().getCode();
+    }
+
+    private static List<String> marginScopes(String exchangeCode, AssetClass assetClass) {
+        return switch (assetClass) {
+            case EQUITY -> List.of(exchangeCode + "_CASH", exchangeCode + "_FNO");
+            case COMMODITY -> List.of(exchangeCode + "_COMMODITY");
+            default -> List.of(exchangeCode + "_" + assetClass.name());
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.MarginRule;
+import com.rnexchange.domain.Position;
+import com.rnexchange.repository.PositionRepository;
+import com.rnexchange.service.trading.AccountExposureBook.PositionExposure;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the persisted open positions of trading accounts as the {@link AccountExposureBook} holds them. A position
+ * holds the initial margin of its instrument's rule at its average cost, or at its last price if it has none.
+ */
+@Component
+public class PositionExposureLoader {
+
+    private final PositionRepository positionRepository;
+    private final OrderContextResolver orderContextResolver;
+
+    public PositionExposureLoader(PositionRepository positionRepository, OrderContextResolver orderContextResolver) {
+        this.positionRepository = positionRepository;
+        this.orderContextResolver = orderContextResolver;
+    }
+
+    public List<PositionExposure> load(Long tradingAccountId) {
+        List<PositionExposure> exposures = new ArrayList<>();
+        for (Position position : positionRepository.findAllWithInstrumentByTradingAccountId(tradingAccountId)) {
+            if (isOpen(position)) {
+                exposures.add(toExposure(position));
+            }
+        }
+        return exposures;
+    }
+
+    /**
+     * Open positions of every account in {@code tradingAccountIds}, with one query; accounts without any are absent.
+     */
+    public Map<Long, List<PositionExposure>> loadAll(Collection<Long> tradingAccountIds) {
+        Map<Long, List<PositionExposure>> exposures = new HashMap<>();
+        for (Position position : positionRepository.findAllWithInstrumentByTradingAccountIdIn(tradingAccountIds)) {
+            if (isOpen(position) && position.getTradingAccount() != null) {
+                exposures.computeIfAbsent(position.getTradingAccount().getId(), id -> new ArrayList<>()).add(toExposure(position));
+            }
+        }
+        return exposures;
+    }
+
+    private PositionExposure toExposure(Position position) {
+        BigDecimal price = position.getAvgCost() != null ? position.getAvgCost() : defaultIfNull(position.getLastPx());
+        BigDecimal initialPct = orderContextResolver
+            .findMarginRule(position.getInstrument())
+            .map(MarginRule::getInitialPct)
+            .orElse(BigDecimal.ZERO);
+        BigDecimal margin = position.getQty().abs().multiply(price).multiply(defaultIfNull(initialPct));
+        return new PositionExposure(position.getInstrument().getSymbol(), position.getQty(), margin.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static boolean isOpen(Position position) {
+        return position.getQty() != null && position.getQty().signum() != 0 && position.getInstrument() != null;
+    }
+
+    private static BigDecimal defaultIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
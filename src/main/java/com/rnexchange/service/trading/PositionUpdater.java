@@ -0,0 +1,114 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.domain.Instrument;
+import com.rnexchange.domain.Position;
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.repository.PositionRepository;
+import com.rnexchange.repository.TradingAccountRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies fills to the persisted {@link Position} of each account and instrument, in the transaction that records
+ * them. A fill that opens or extends a position moves its average cost; one that reduces it realizes the difference
+ * between the fill price and the average cost, and one that flips it opens the new side at the fill price.
+ * <p>
+ * Fills of one account and instrument apply in turn under the position's row lock. The first fill has no row to lock,
+ * so it creates a flat position in a transaction of its own; a concurrent first fill loses on the unique
+ * {@code (trading_account_id, instrument_id)} constraint, and both then lock the committed row.
+ */
+@Component
+public class PositionUpdater {
+
+    private final PositionRepository positionRepository;
+    private final TradingAccountRepository tradingAccountRepository;
+    private final TransactionTemplate newTransaction;
+
+    public PositionUpdater(
+        PositionRepository positionRepository,
+        TradingAccountRepository tradingAccountRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.positionRepository = positionRepository;
+        this.tradingAccountRepository = tradingAccountRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public Position applyFill(Long tradingAccountId, Instrument instrument, OrderSide side, BigDecimal quantity, BigDecimal price) {
+        Objects.requireNonNull(tradingAccountId, "tradingAccountId must not be null");
+        Objects.requireNonNull(instrument, "instrument must not be null");
+        Optional<Position> existing = positionRepository.findOneByTradingAccountIdAndInstrumentId(tradingAccountId, instrument.getId());
+        if (existing.isEmpty()) {
+            createFlatPosition(tradingAccountId, instrument);
+            existing = positionRepository.findOneByTradingAccountIdAndInstrumentId(tradingAccountId, instrument.getId());
+        }
+        Position position = existing.orElseThrow(() ->
+            new IllegalStateException("No position for account " + tradingAccountId + " in " + instrument.getSymbol())
+        );
+        apply(position, side == OrderSide.SELL ? quantity.negate() : quantity, price);
+        return positionRepository.save(position);
+    }
+
+    /**
+     * Commit a flat position for the account and instrument unless another fill already did. The row outlives a
+     * rollback of the fill that created it, which leaves a flat position behind.
+     */
+    private void createFlatPosition(Long tradingAccountId, Instrument instrument) {
+        try {
+            newTransaction.executeWithoutResult(status ->
+                positionRepository.saveAndFlush(
+                    new Position()
+                        .qty(BigDecimal.ZERO)
+                        .avgCost(BigDecimal.ZERO)
+                        .realizedPnl(BigDecimal.ZERO)
+                        .tradingAccount(tradingAccountRepository.getReferenceById(tradingAccountId))
+                        .instrument(instrument)
+                )
+            );
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent first fill committed the row; lock that one instead.
+        }
+    }
+
+    /**
+     * Add a signed fill of {@code quantity} at {@code price} to the position.
+     */
+    static void apply(Position position, BigDecimal quantity, BigDecimal price) {
+        BigDecimal held = defaultIfNull(position.getQty());
+        BigDecimal avgCost = defaultIfNull(position.getAvgCost());
+        BigDecimal realized = defaultIfNull(position.getRealizedPnl());
+        BigDecimal next = held.add(quantity);
+        if (held.signum() == 0 || held.signum() == quantity.signum()) {
+            BigDecimal cost = held.abs().multiply(avgCost).add(quantity.abs().multiply(price));
+            avgCost = cost.divide(next.abs(), 2, RoundingMode.HALF_UP);
+        } else {
+            BigDecimal closed = quantity.abs().min(held.abs());
+            realized = realized.add(closed.multiply(price.subtract(avgCost)).multiply(BigDecimal.valueOf(held.signum())));
+            if (next.signum() == 0) {
+                avgCost = BigDecimal.ZERO;
+            } else if (next.signum() != held.signum()) {
+                avgCost = price;
+            }
+        }
+        position
+            .qty(next.setScale(2, RoundingMode.HALF_UP))
+            .avgCost(avgCost.setScale(2, RoundingMode.HALF_UP))
+            .lastPx(price.setScale(2, RoundingMode.HALF_UP))
+            .realizedPnl(realized.setScale(2, RoundingMode.HALF_UP))
+            .unrealizedPnl(price.subtract(avgCost).multiply(next).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal defaultIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,252 @@
+package com.rnexchange.service.trading;
+
+import com.rnexchange.config.TradingProperties;
+import com.rnexchange.config.TradingProperties.AuditOverflow;
+import com.rnexchange.service.trading.TraderAuditStructuredLogger.TraderAuditPayload;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes trader audit records off the order path. {@link #publish} only appends the record to a bounded lock-free
+ * queue; a single writer thread drains it in batches, renders each record as JSON and writes it to the
+ * {@code TraderAuditLogger} logger and, when configured, to an append-only file that is forced to disk at most
+ * {@code fsync-interval-ms} after a write.
+ * <p>
+ * When the queue is full, the configured {@link AuditOverflow} decides: the submitting thread either writes the
+ * record itself or drops it, and dropped records are counted and reported by the writer.
+ */
+@Component
+public class TraderAuditPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TraderAuditPublisher.class);
+    private static final Logger AUDIT_LOG = LoggerFactory.getLogger("com.rnexchange.service.trading.TraderAuditLogger");
+
+    private final TraderAuditStructuredLogger structuredLogger;
+    private final Queue<TraderAuditPayload> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditOverflow overflow;
+    private final long fsyncIntervalNanos;
+    // Guards the sinks and lastForced: held by the writer per batch, and by flush and write-through callers.
+    private final Object writeLock = new Object();
+    private final FileChannel file;
+    private final Thread writer;
+
+    private long lastForced;
+    private boolean unforced;
+    private long droppedReported;
+    private volatile boolean running = true;
+
+    public TraderAuditPublisher(TradingProperties properties, TraderAuditStructuredLogger structuredLogger) {
+        TradingProperties.AuditProperties audit = properties.getAudit();
+        this.structuredLogger = Objects.requireNonNull(structuredLogger, "structuredLogger must not be null");
+        this.queueCapacity = audit.getQueueCapacity();
+        this.batchSize = audit.getBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(audit.getFlushIntervalMs());
+        this.overflow = audit.getOverflow();
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(audit.getFsyncIntervalMs());
+        this.file = audit.getFile() == null ? null : open(audit.getFile());
+        this.lastForced = System.nanoTime();
+        this.writer = new Thread(this::runWriter, "trader-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        LOG.info(
+            "Trader audit publisher started (capacity={}, batch={}, overflow={}, file={})",
+            queueCapacity,
+            batchSize,
+            overflow,
+            audit.getFile()
+        );
+    }
+
+    /**
+     * Hand a record to the writer thread. Only blocks when the queue is full and overflow is
+     * {@link AuditOverflow#WRITE_THROUGH}, or after shutdown, when every record is written through.
+     *
+     * @return {@code false} if the record was dropped.
+     */
+    public boolean publish(TraderAuditPayload payload) {
+        Objects.requireNonNull(payload, "payload must not be null");
+        if (!running) {
+            writeThrough(payload);
+            return true;
+        }
+        if (queued.incrementAndGet() <= queueCapacity) {
+            queue.offer(payload);
+            return true;
+        }
+        queued.decrementAndGet();
+        if (overflow == AuditOverflow.DROP) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        writeThrough(payload);
+        return true;
+    }
+
+    /**
+     * Write every record published before this call. Blocks the caller until they are written, so it is meant for
+     * shutdown and tests rather than the order path.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            List<TraderAuditPayload> batch;
+            while (!(batch = poll()).isEmpty()) {
+                write(batch);
+            }
+            force();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException ex) {
+                LOG.warn("Failed to close trader audit file", ex);
+            }
+        }
+    }
+
+    private void runWriter() {
+        while (running) {
+            try {
+                boolean wrote;
+                synchronized (writeLock) {
+                    List<TraderAuditPayload> batch = poll();
+                    wrote = !batch.isEmpty();
+                    if (wrote) {
+                        write(batch);
+                    }
+                    if (unforced && System.nanoTime() - lastForced >= fsyncIntervalNanos) {
+                        force();
+                    }
+                }
+                reportDropped();
+                if (!wrote) {
+                    LockSupport.parkNanos(flushIntervalNanos);
+                }
+            } catch (RuntimeException ex) {
+                LOG.error("Trader audit writer failed; retrying after {} ms", TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), ex);
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * The order has already been accepted or rejected by now, so a sink failure is logged rather than thrown.
+     */
+    private void writeThrough(TraderAuditPayload payload) {
+        try {
+            synchronized (writeLock) {
+                write(List.of(payload));
+            }
+        } catch (RuntimeException ex) {
+            LOG.error("Failed to write trader audit record for {} on the submitting thread", payload.actorId(), ex);
+        }
+    }
+
+    private List<TraderAuditPayload> poll() {
+        List<TraderAuditPayload> batch = new ArrayList<>(Math.min(batchSize, Math.max(queued.get(), 1)));
+        TraderAuditPayload payload;
+        while (batch.size() < batchSize && (payload = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(payload);
+        }
+        return batch;
+    }
+
+    private void write(List<TraderAuditPayload> batch) {
+        StringBuilder lines = file == null || !file.isOpen() ? null : new StringBuilder(batch.size() * 256);
+        for (TraderAuditPayload payload : batch) {
+            String json = structuredLogger.build(payload);
+            AUDIT_LOG.info(json);
+            if (lines != null) {
+                lines.append(json).append('\n');
+            }
+        }
+        if (lines != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            try {
+                while (buffer.hasRemaining()) {
+                    file.write(buffer);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to append to trader audit file", ex);
+            }
+            unforced = true;
+        }
+    }
+
+    private void force() {
+        if (file == null || !unforced || !file.isOpen()) {
+            return;
+        }
+        try {
+            file.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to sync trader audit file", ex);
+        }
+        unforced = false;
+        lastForced = System.nanoTime();
+    }
+
+    private void reportDropped() {
+        long total = dropped.get();
+        if (total != droppedReported) {
+            LOG.warn("Trader audit queue full: dropped {} record(s), {} in total", total - droppedReported, total);
+            droppedReported = total;
+        }
+    }
+
+    private static FileChannel open(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to open trader audit file " + path, ex);
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.rnexchange.service.trading;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rnexchange.service.dto.MarginAssessment;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import org.springframework.stereotype.Component;
 
+/**
+ * Renders a trader audit record as one line of JSON. Called from the audit writer thread, so timestamp formatting
+ * and price scaling stay off the order path.
+ */
 @Component
 public class TraderAuditStructuredLogger {
 
@@ -20,37 +24,42 @@ public class TraderAuditStructuredLogger {
     }
 
     public String build(TraderAuditPayload payload) {
-        Map<String, Object> json = new LinkedHashMap<>();
-        json.put("timestamp", Instant.now().toString());
-        json.put("actorId", payload.actorId());
-        json.put("actorRole", payload.actorRole());
-        json.put("instrument", payload.instrument());
-        json.put("status", payload.status());
-        json.put("outcome", payload.outcome());
-        json.put("quantity", safeToString(payload.quantity()));
-        json.put("price", safeToString(payload.price()));
-
-        MarginAssessment assessment = payload.assessment();
-        if (assessment != null) {
-            json.put("initialRequirement", assessment.initialRequirement().toPlainString());
-            json.put("maintenanceRequirement", assessment.maintenanceRequirement().toPlainString());
-            json.put("availableBalance", assessment.availableBalance().toPlainString());
-            json.put("remainingBalance", assessment.remainingBalance().toPlainString());
-            json.put("marginSufficient", assessment.sufficient());
-        }
+        StringWriter out = new StringWriter(256);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("timestamp", Instant.ofEpochMilli(payload.timestampMillis()).toString());
+            json.writeStringField("actorId", payload.actorId());
+            json.writeStringField("actorRole", payload.actorRole());
+            json.writeStringField("instrument", payload.instrument());
+            json.writeStringField("status", payload.status());
+            json.writeStringField("outcome", payload.outcome());
+            json.writeStringField("quantity", safeToString(payload.quantity()));
+            json.writeStringField("price", safeToString(payload.price()));
 
-        try {
-            return objectMapper.writeValueAsString(json);
-        } catch (JsonProcessingException e) {
+            MarginAssessment assessment = payload.assessment();
+            if (assessment != null) {
+                json.writeStringField("initialRequirement", assessment.initialRequirement().toPlainString());
+                json.writeStringField("maintenanceRequirement", assessment.maintenanceRequirement().toPlainString());
+                json.writeStringField("availableBalance", assessment.availableBalance().toPlainString());
+                json.writeStringField("remainingBalance", assessment.remainingBalance().toPlainString());
+                json.writeBooleanField("marginSufficient", assessment.sufficient());
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
             throw new IllegalStateException("Unable to serialize trader audit payload", e);
         }
+        return out.toString();
     }
 
     private String safeToString(BigDecimal value) {
         return value != null ? value.setScale(2, RoundingMode.HALF_UP).toPlainString() : null;
     }
 
+    /**
+     * What happened to one order, captured on the order path as references only; {@link #build} does the formatting.
+     */
     public record TraderAuditPayload(
+        long timestampMillis,
         String actorId,
         String actorRole,
         String instrument,
@@ -1,12 +1,16 @@
 package com.rnexchange.web.rest;
 
 import com.rnexchange.security.AuthoritiesConstants;
+import com.rnexchange.service.dto.FeedRateDTO;
 import com.rnexchange.service.dto.FeedStatusDTO;
 import com.rnexchange.service.marketdata.MockMarketDataService;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -39,4 +43,16 @@ public class MarketDataControlResource {
     public ResponseEntity<FeedStatusDTO> getStatus() {
         return ResponseEntity.ok(mockMarketDataService.getStatus());
     }
+
+    @GetMapping("/rate")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.EXCHANGE_OPERATOR + "')")
+    public ResponseEntity<FeedRateDTO> getRate() {
+        return ResponseEntity.ok(mockMarketDataService.getRate());
+    }
+
+    @PutMapping("/rate")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.EXCHANGE_OPERATOR + "')")
+    public ResponseEntity<FeedRateDTO> updateRate(@Valid @RequestBody FeedRateDTO rate) {
+        return ResponseEntity.ok(mockMarketDataService.retune(rate.intervalMs(), rate.batchSize()));
+    }
 }
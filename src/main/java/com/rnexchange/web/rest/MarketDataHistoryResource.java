@@ -0,0 +1,75 @@
+package com.rnexchange.web.rest;
+
+import com.rnexchange.security.SecurityUtils;
+import com.rnexchange.service.dto.BarDTO;
+import com.rnexchange.service.marketdata.BarHistoryStore;
+import com.rnexchange.service.marketdata.BarTimeframe;
+import com.rnexchange.service.marketdata.WatchlistAuthorizationService;
+import com.rnexchange.web.rest.errors.BadRequestAlertException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller serving closed bars from the {@link BarHistoryStore}, so charts can backfill mid-session.
+ */
+@RestController
+@RequestMapping("/api/marketdata/bars")
+public class MarketDataHistoryResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketDataHistoryResource.class);
+
+    private static final String ENTITY_NAME = "bar";
+    static final int MAX_BARS = 5000;
+
+    private final BarHistoryStore barHistoryStore;
+    private final WatchlistAuthorizationService authorizationService;
+
+    public MarketDataHistoryResource(BarHistoryStore barHistoryStore, WatchlistAuthorizationService authorizationService) {
+        this.barHistoryStore = barHistoryStore;
+        this.authorizationService = authorizationService;
+    }
+
+    /**
+     * {@code GET /api/marketdata/bars/:symbol} : bars of one timeframe whose interval starts in {@code [from, to)}.
+     *
+     * @param symbol the instrument symbol.
+     * @param tf the timeframe label (1s, 1m, 5m, 15m or 1h), 1m by default.
+     * @param from inclusive lower bound on the bar start; when absent the latest {@code limit} bars before {@code to} are returned.
+     * @param to exclusive upper bound on the bar start, unbounded when absent.
+     * @param limit maximum number of bars returned, oldest first.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the bars in the body.
+     */
+    @GetMapping("/{symbol}")
+    public ResponseEntity<List<BarDTO>> getBars(
+        @PathVariable("symbol") String symbol,
+        @RequestParam(name = "tf", defaultValue = "1m") String tf,
+        @RequestParam(name = "from", required = false) Instant from,
+        @RequestParam(name = "to", required = false) Instant to,
+        @RequestParam(name = "limit", defaultValue = "" + MAX_BARS) int limit
+    ) {
+        LOG.debug("REST request to get {} bars for {} from {} to {}", tf, symbol, from, to);
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        if (!authorizationService.isSymbolAuthorized(login, symbol)) {
+            throw new AccessDeniedException("User not authorized for symbol " + symbol);
+        }
+        BarTimeframe timeframe = Arrays.stream(BarTimeframe.values())
+            .filter(candidate -> candidate.getLabel().equals(tf))
+            .findFirst()
+            .orElseThrow(() -> new BadRequestAlertException("Unknown bar timeframe " + tf, ENTITY_NAME, "invalidtimeframe"));
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestAlertException("from must be before to", ENTITY_NAME, "invalidrange");
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_BARS));
+        return ResponseEntity.ok(barHistoryStore.find(symbol, timeframe, from, to, boundedLimit));
+    }
+}
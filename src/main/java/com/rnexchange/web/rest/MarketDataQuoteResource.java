@@ -0,0 +1,67 @@
+package com.rnexchange.web.rest;
+
+import com.rnexchange.security.SecurityUtils;
+import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.LastQuoteCache;
+import com.rnexchange.service.marketdata.WatchlistAuthorizationService;
+import com.rnexchange.web.rest.errors.BadRequestAlertException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller serving the latest quotes from the {@link LastQuoteCache}, so a page can show prices before its
+ * first streamed update.
+ */
+@RestController
+@RequestMapping("/api/marketdata/quotes")
+public class MarketDataQuoteResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketDataQuoteResource.class);
+
+    private static final String ENTITY_NAME = "quote";
+    static final int MAX_SYMBOLS = 200;
+
+    private final LastQuoteCache lastQuoteCache;
+    private final WatchlistAuthorizationService authorizationService;
+
+    public MarketDataQuoteResource(LastQuoteCache lastQuoteCache, WatchlistAuthorizationService authorizationService) {
+        this.lastQuoteCache = lastQuoteCache;
+        this.authorizationService = authorizationService;
+    }
+
+    /**
+     * {@code GET /api/marketdata/quotes?symbols=A,B} : the latest quote of each authorized symbol that has one.
+     * <p>
+     * The response carries an ETag that changes whenever one of the returned quotes does; a request whose
+     * {@code If-None-Match} still matches is answered {@code 304 (Not Modified)} without a body.
+     *
+     * @param symbols the instrument symbols, comma separated; symbols the user may not see are left out.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the quotes in the body, in request order.
+     */
+    @GetMapping
+    public ResponseEntity<List<QuoteDTO>> getQuotes(@RequestParam("symbols") List<String> symbols) {
+        Set<String> requested = new LinkedHashSet<>();
+        symbols.stream().map(String::trim).filter(StringUtils::hasText).forEach(requested::add);
+        if (requested.isEmpty()) {
+            throw new BadRequestAlertException("At least one symbol is required", ENTITY_NAME, "symbolsrequired");
+        }
+        if (requested.size() > MAX_SYMBOLS) {
+            throw new BadRequestAlertException("At most " + MAX_SYMBOLS + " symbols may be requested", ENTITY_NAME, "toomanysymbols");
+        }
+        LOG.debug("REST request to get quotes for {} symbol(s)", requested.size());
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        requested.removeIf(symbol -> !authorizationService.isSymbolAuthorized(login, symbol));
+        LastQuoteCache.Snapshot snapshot = lastQuoteCache.snapshot(requested);
+        return ResponseEntity.ok().eTag(snapshot.version()).cacheControl(CacheControl.noCache()).body(snapshot.quotes());
+    }
+}
@@ -10,6 +10,7 @@ import com.rnexchange.service.criteria.OrderCriteria;
 import com.rnexchange.service.dto.OrderDTO;
 import com.rnexchange.service.dto.TraderOrderRequest;
 import com.rnexchange.service.dto.TraderOrderResult;
+import com.rnexchange.web.rest.dto.ReplaceOrderRequest;
 import com.rnexchange.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -26,6 +27,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
@@ -113,6 +115,68 @@ public class OrderResource {
             .body(orderDTO);
     }
 
+    /**
+     * {@code POST  /orders/:id/cancel} : Cancel a resting order of the current trader.
+     *
+     * @param id the id of the order to cancel.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the cancelled orderDTO,
+     * or with status {@code 400 (Bad Request)} if the trader has no such order or it can no longer be cancelled.
+     */
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.TRADER + "')")
+    public ResponseEntity<OrderDTO> cancelOrder(@PathVariable("id") Long id) {
+        LOG.debug("REST request to cancel Order : {}", id);
+        String traderLogin = currentTraderLogin();
+        try {
+            OrderDTO orderDTO = orderService
+                .cancelTraderOrder(id, traderLogin)
+                .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+                .body(orderDTO);
+        } catch (IllegalStateException ex) {
+            throw new BadRequestAlertException(ex.getMessage(), ENTITY_NAME, "ordernotopen");
+        }
+    }
+
+    /**
+     * {@code POST  /orders/:id/replace} : Replace the price and open quantity of a resting order of the current trader.
+     *
+     * @param id the id of the order to replace.
+     * @param replaceRequest the new price and open quantity.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the replaced orderDTO,
+     * or with status {@code 400 (Bad Request)} if the trader has no such order, it is no longer resting, or the
+     * replacement is invalid or not covered by margin.
+     */
+    @PostMapping("/{id}/replace")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.TRADER + "')")
+    public ResponseEntity<OrderDTO> replaceOrder(@PathVariable("id") Long id, @Valid @RequestBody ReplaceOrderRequest replaceRequest) {
+        LOG.debug("REST request to replace Order : {}", id);
+        String traderLogin = currentTraderLogin();
+        try {
+            TraderOrderResult result = orderService
+                .replaceTraderOrder(id, traderLogin, replaceRequest.getQuantity(), replaceRequest.getPrice())
+                .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+            HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString());
+            if (result.marginAssessment() != null) {
+                headers.add("X-RNExchange-Margin-Initial", result.marginAssessment().initialRequirement().toPlainString());
+                headers.add("X-RNExchange-Margin-Remaining", result.marginAssessment().remainingBalance().toPlainString());
+            }
+            return ResponseEntity.ok().headers(headers).body(result.order());
+        } catch (InsufficientMarginException ex) {
+            throw new BadRequestAlertException(ex.getMessage(), ENTITY_NAME, "insufficientmargin");
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestAlertException(ex.getMessage(), ENTITY_NAME, "invalidreplace");
+        } catch (IllegalStateException ex) {
+            throw new BadRequestAlertException(ex.getMessage(), ENTITY_NAME, "ordernotopen");
+        }
+    }
+
+    private String currentTraderLogin() {
+        return SecurityUtils.getCurrentUserLogin()
+            .orElseThrow(() -> new BadRequestAlertException("Unable to determine current trader", ENTITY_NAME, "nologin"));
+    }
+
     /**
      * {@code PUT  /orders/:id} : Updates an existing order.
      *
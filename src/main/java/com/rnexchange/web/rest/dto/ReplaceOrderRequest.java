@@ -0,0 +1,37 @@
+package com.rnexchange.web.rest.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Request payload for replacing a resting order. {@code quantity} is the new open quantity; what has already been
+ * filled is kept on top of it.
+ */
+public class ReplaceOrderRequest implements Serializable {
+
+    @NotNull
+    @DecimalMin(value = "0", inclusive = false)
+    private BigDecimal quantity;
+
+    @NotNull
+    @DecimalMin(value = "0", inclusive = false)
+    private BigDecimal price;
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
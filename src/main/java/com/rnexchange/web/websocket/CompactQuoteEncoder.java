@@ -0,0 +1,70 @@
+package com.rnexchange.web.websocket;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.FixedPointPrice;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Encodes a batch of quotes as one columnar JSON frame:
+ *
+ * <pre>
+ * {"scale":2,"s":["INFY","TCS"],"l":[150125,382050],"o":[149000,380000],"c":[1125,2050],"cp":[75,54],
+ *  "v":[9100,4200],"t":[1731575700100,1731575700100]}
+ * </pre>
+ *
+ * {@code s} is the symbol, {@code l}/{@code o}/{@code c} are last, open and change as longs scaled by
+ * 10<sup>scale</sup>, {@code cp} is the percentage change in hundredths of a percent, {@code v} the cumulative volume
+ * and {@code t} the quote time in epoch milliseconds. Column {@code i} of every array describes the same quote.
+ */
+final class CompactQuoteEncoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private CompactQuoteEncoder() {}
+
+    static byte[] encode(Collection<QuoteDTO> quotes) {
+        List<QuoteDTO> rows = List.copyOf(quotes);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + rows.size() * 64);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("scale", FixedPointPrice.SCALE);
+            generator.writeArrayFieldStart("s");
+            for (QuoteDTO quote : rows) {
+                generator.writeString(quote.symbol());
+            }
+            generator.writeEndArray();
+            writeColumn(generator, "l", rows, quote -> scaled(quote.lastPrice()));
+            writeColumn(generator, "o", rows, quote -> scaled(quote.open()));
+            writeColumn(generator, "c", rows, quote -> scaled(quote.change()));
+            writeColumn(generator, "cp", rows, quote -> scaled(quote.changePercent()));
+            writeColumn(generator, "v", rows, QuoteDTO::volume);
+            writeColumn(generator, "t", rows, quote -> quote.timestamp().toEpochMilli());
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to encode compact quote frame", ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeColumn(JsonGenerator generator, String name, List<QuoteDTO> rows, ToLongFunction<QuoteDTO> column)
+        throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (QuoteDTO quote : rows) {
+            generator.writeNumber(column.applyAsLong(quote));
+        }
+        generator.writeEndArray();
+    }
+
+    private static long scaled(BigDecimal value) {
+        return value == null ? 0L : FixedPointPrice.toScaled(value);
+    }
+}
@@ -0,0 +1,150 @@
+package com.rnexchange.web.websocket;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Tracks connected market data STOMP sessions: who owns them, which quote format they negotiated at CONNECT and
+ * which destinations they subscribed to. Populated by {@link MarketDataStompInterceptor} and read on every quote
+ * flush, so lookups stay in memory.
+ */
+@Component
+public class MarketDataSessionRegistry {
+
+    private final Map<String, MarketDataSession> sessions = new ConcurrentHashMap<>();
+    // Live subscription count per destination, so publishers can skip destinations nobody listens to.
+    private final Map<String, AtomicInteger> subscriberCounts = new ConcurrentHashMap<>();
+
+    void register(String sessionId, String username, QuoteFormat format) {
+        if (!StringUtils.hasText(sessionId)) {
+            return;
+        }
+        sessions.put(sessionId, new MarketDataSession(sessionId, username, format));
+    }
+
+    void subscribe(String sessionId, String subscriptionId, String destination) {
+        if (!StringUtils.hasText(sessionId) || !StringUtils.hasText(subscriptionId)) {
+            return;
+        }
+        MarketDataSession session = sessions.computeIfAbsent(sessionId, key -> new MarketDataSession(key, null, QuoteFormat.JSON));
+        String previous = session.subscriptions.put(subscriptionId, destination);
+        if (previous != null) {
+            release(previous);
+        }
+        subscriberCounts.computeIfAbsent(destination, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Record the symbols a session receives on {@link MarketDataWebSocketHandler#USER_QUOTES_DESTINATION}; an empty
+     * set means every symbol.
+     */
+    void subscribeBatched(String sessionId, String subscriptionId, Set<String> symbols) {
+        subscribe(sessionId, subscriptionId, MarketDataWebSocketHandler.USER_QUOTES_DESTINATION);
+        MarketDataSession session = sessionId == null ? null : sessions.get(sessionId);
+        if (session != null) {
+            session.batchedSymbols = Set.copyOf(symbols);
+        }
+    }
+
+    void unsubscribe(String sessionId, String subscriptionId) {
+        if (!StringUtils.hasText(sessionId) || !StringUtils.hasText(subscriptionId)) {
+            return;
+        }
+        MarketDataSession session = sessions.get(sessionId);
+        if (session != null) {
+            String destination = session.subscriptions.remove(subscriptionId);
+            if (destination != null) {
+                release(destination);
+            }
+        }
+    }
+
+    void remove(String sessionId) {
+        if (!StringUtils.hasText(sessionId)) {
+            return;
+        }
+        MarketDataSession session = sessions.remove(sessionId);
+        if (session != null) {
+            session.subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void release(String destination) {
+        subscriberCounts.computeIfPresent(destination, (key, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        remove(event.getSessionId());
+    }
+
+    public QuoteFormat formatOf(String sessionId) {
+        MarketDataSession session = sessionId == null ? null : sessions.get(sessionId);
+        return session == null ? QuoteFormat.JSON : session.format;
+    }
+
+    public Optional<MarketDataSession> find(String sessionId) {
+        return sessionId == null ? Optional.empty() : Optional.ofNullable(sessions.get(sessionId));
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return subscriberCounts.containsKey(destination);
+    }
+
+    public Collection<MarketDataSession> sessions() {
+        return sessions.values();
+    }
+
+    public static final class MarketDataSession {
+
+        private final String sessionId;
+        private final String username;
+        private final QuoteFormat format;
+        private final String userQuotesDestination;
+        private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+        private volatile Set<String> batchedSymbols = Set.of();
+
+        private MarketDataSession(String sessionId, String username, QuoteFormat format) {
+            this.sessionId = Objects.requireNonNull(sessionId, "sessionId must not be null");
+            this.username = username;
+            this.format = format == null ? QuoteFormat.JSON : format;
+            this.userQuotesDestination = "/user/" + sessionId + MarketDataWebSocketHandler.USER_QUOTES_QUEUE;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public QuoteFormat getFormat() {
+            return format;
+        }
+
+        /**
+         * {@link MarketDataWebSocketHandler#USER_QUOTES_DESTINATION} addressed to this session alone.
+         */
+        public String getUserQuotesDestination() {
+            return userQuotesDestination;
+        }
+
+        public Set<String> getBatchedSymbols() {
+            return batchedSymbols;
+        }
+
+        public boolean isSubscribedTo(String destination) {
+            return subscriptions.containsValue(destination);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.rnexchange.web.websocket;
 
 import com.rnexchange.service.marketdata.WatchlistAuthorizationService;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
@@ -35,14 +39,21 @@ public class MarketDataStompInterceptor implements ChannelInterceptor, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(MarketDataStompInterceptor.class);
     private static final int MAX_SUBSCRIPTIONS_PER_SESSION = 50;
+    static final String SYMBOLS_HEADER = "symbols";
 
     private final JwtDecoder jwtDecoder;
     private final WatchlistAuthorizationService authorizationService;
+    private final MarketDataSessionRegistry sessionRegistry;
     private final ConcurrentMap<String, AtomicInteger> subscriptionCounts = new ConcurrentHashMap<>();
 
-    public MarketDataStompInterceptor(JwtDecoder jwtDecoder, WatchlistAuthorizationService authorizationService) {
+    public MarketDataStompInterceptor(
+        JwtDecoder jwtDecoder,
+        WatchlistAuthorizationService authorizationService,
+        MarketDataSessionRegistry sessionRegistry
+    ) {
         this.jwtDecoder = Objects.requireNonNull(jwtDecoder, "jwtDecoder must not be null");
         this.authorizationService = Objects.requireNonNull(authorizationService, "authorizationService must not be null");
+        this.sessionRegistry = Objects.requireNonNull(sessionRegistry, "sessionRegistry must not be null");
     }
 
     @Override
@@ -54,13 +65,21 @@ public class MarketDataStompInterceptor implements ChannelInterceptor, Ordered {
         StompCommand command = accessor.getCommand();
         if (command == StompCommand.CONNECT) {
             handleConnect(accessor);
+            registerSession(accessor);
         } else if (command == StompCommand.SUBSCRIBE) {
-            handleSubscribe(accessor);
+            Set<String> batchedSymbols = handleSubscribe(accessor);
             enforceSubscriptionLimit(accessor);
+            if (batchedSymbols != null) {
+                sessionRegistry.subscribeBatched(accessor.getSessionId(), accessor.getSubscriptionId(), batchedSymbols);
+            } else {
+                sessionRegistry.subscribe(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination());
+            }
         } else if (command == StompCommand.UNSUBSCRIBE) {
             decrementSubscriptionCount(accessor);
+            sessionRegistry.unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
         } else if (command == StompCommand.DISCONNECT) {
             clearSessionSubscriptions(accessor);
+            sessionRegistry.remove(accessor.getSessionId());
         }
         return message;
     }
@@ -113,7 +132,17 @@ public class MarketDataStompInterceptor implements ChannelInterceptor, Ordered {
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
-    private void handleSubscribe(StompHeaderAccessor accessor) {
+    private void registerSession(StompHeaderAccessor accessor) {
+        QuoteFormat format = QuoteFormat.fromHeader(accessor.getFirstNativeHeader(QuoteFormat.HEADER));
+        String username = accessor.getUser() != null ? accessor.getUser().getName() : null;
+        sessionRegistry.register(accessor.getSessionId(), username, format);
+    }
+
+    /**
+     * Authorize a SUBSCRIBE frame. Returns the symbol set for a {@link MarketDataWebSocketHandler#USER_QUOTES_DESTINATION}
+     * subscription, or {@code null} for any other destination.
+     */
+    private Set<String> handleSubscribe(StompHeaderAccessor accessor) {
         Authentication authentication = (Authentication) accessor.getUser();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new AccessDeniedException("WebSocket SUBSCRIBE requires authenticated user");
@@ -122,6 +151,20 @@ public class MarketDataStompInterceptor implements ChannelInterceptor, Ordered {
         if (!StringUtils.hasText(destination)) {
             throw new AccessDeniedException("Destination must be provided");
         }
+        if (MarketDataWebSocketHandler.COMPACT_QUOTES_DESTINATION.equals(destination)) {
+            if (sessionRegistry.formatOf(accessor.getSessionId()) != QuoteFormat.COMPACT) {
+                throw new AccessDeniedException("Compact quote stream requires the " + QuoteFormat.HEADER + ": compact CONNECT header");
+            }
+            // The compact frame carries every symbol, so only users without a symbol restriction may receive it.
+            if (!authorizationService.getGrantedSymbols(authentication.getName()).isEmpty()) {
+                log.warn("Rejecting compact quote subscription for symbol-restricted user {}", authentication.getName());
+                throw new AccessDeniedException("Compact quote stream requires unrestricted symbol access");
+            }
+            return null;
+        }
+        if (MarketDataWebSocketHandler.USER_QUOTES_DESTINATION.equals(destination)) {
+            return resolveBatchedSymbols(authentication.getName(), accessor.getFirstNativeHeader(SYMBOLS_HEADER));
+        }
         if (destination.startsWith("/topic/quotes/") || destination.startsWith("/topic/bars/")) {
             String symbol = destination.substring(destination.lastIndexOf('/') + 1);
             if (log.isDebugEnabled()) {
@@ -132,6 +175,35 @@ public class MarketDataStompInterceptor implements ChannelInterceptor, Ordered {
                 throw new AccessDeniedException("User not authorized for symbol " + symbol);
             }
         }
+        return null;
+    }
+
+    private Set<String> resolveBatchedSymbols(String username, String symbolsHeader) {
+        if (!StringUtils.hasText(symbolsHeader)) {
+            // No explicit list: stream whatever the user is entitled to (everything when unrestricted).
+            return authorizationService.getGrantedSymbols(username);
+        }
+        Set<String> requested = Arrays.stream(symbolsHeader.split(","))
+            .map(String::trim)
+            .filter(StringUtils::hasText)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (requested.size() > MAX_SUBSCRIPTIONS_PER_SESSION) {
+            throw new IllegalStateException(
+                "Batched quote subscription may list at most %d symbols".formatted(MAX_SUBSCRIPTIONS_PER_SESSION)
+            );
+        }
+        Set<String> authorized = requested
+            .stream()
+            .filter(symbol -> authorizationService.isSymbolAuthorized(username, symbol))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (authorized.isEmpty()) {
+            log.warn("Rejecting batched quote subscription for user {}: no authorized symbols in {}", username, requested);
+            throw new AccessDeniedException("User not authorized for any requested symbol");
+        }
+        if (authorized.size() < requested.size() && log.isDebugEnabled()) {
+            log.debug("Dropping unauthorized symbols from batched subscription for user {}", username);
+        }
+        return authorized;
     }
 
     private Collection<SimpleGrantedAuthority> extractAuthorities(Jwt jwt) {
@@ -2,28 +2,218 @@ package com.rnexchange.web.websocket;
 
 import com.rnexchange.service.dto.BarDTO;
 import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.BarTimeframe;
+import com.rnexchange.web.websocket.MarketDataSessionRegistry.MarketDataSession;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
 
 @Service
 public class MarketDataWebSocketHandler {
 
     private static final Logger log = LoggerFactory.getLogger(MarketDataWebSocketHandler.class);
 
+    public static final String COMPACT_QUOTES_DESTINATION = "/topic/quotes/compact";
+    public static final String USER_QUOTES_DESTINATION = "/user/queue/quotes";
+    static final String USER_QUOTES_QUEUE = "/queue/quotes";
+    private static final String QUOTES_TOPIC_PREFIX = "/topic/quotes/";
+    private static final String BARS_TOPIC_PREFIX = "/topic/bars/";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final MarketDataSessionRegistry sessionRegistry;
+    private final MessageConverter messageConverter;
+    // Destinations per symbol, built once rather than concatenated on every send.
+    private final Map<String, String> quoteDestinations = new ConcurrentHashMap<>();
+    private final Map<String, String> barDestinations = new ConcurrentHashMap<>();
+    private final Map<BarTimeframe, Map<String, String>> timeframeBarDestinations = new EnumMap<>(BarTimeframe.class);
 
-    public MarketDataWebSocketHandler(SimpMessagingTemplate messagingTemplate) {
+    public MarketDataWebSocketHandler(SimpMessagingTemplate messagingTemplate, MarketDataSessionRegistry sessionRegistry) {
         this.messagingTemplate = messagingTemplate;
+        this.sessionRegistry = sessionRegistry;
+        this.messageConverter = messagingTemplate.getMessageConverter();
+        for (BarTimeframe timeframe : BarTimeframe.values()) {
+            timeframeBarDestinations.put(timeframe, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Broadcast one flush worth of quotes: each quote on its symbol topic; when any session negotiated the compact
+     * format, the whole batch as a single columnar frame that is encoded once for all its subscribers; and one
+     * multi-symbol frame per session subscribed to {@link #USER_QUOTES_DESTINATION}.
+     */
+    public void broadcastQuotes(Collection<QuoteDTO> quotes) {
+        if (quotes.isEmpty()) {
+            return;
+        }
+        quotes.forEach(this::broadcastQuote);
+        if (sessionRegistry.hasSubscribers(COMPACT_QUOTES_DESTINATION)) {
+            sendSafely(
+                () -> messagingTemplate.send(COMPACT_QUOTES_DESTINATION, compactFrame(CompactQuoteEncoder.encode(quotes))),
+                "compact quote",
+                quotes.size() + " symbols"
+            );
+        }
+        sendSessionBatches(quotes);
+    }
+
+    /**
+     * Sessions that take every symbol share one serialized batch per format; only sessions with their own symbol
+     * list pay for a serialization of their own.
+     */
+    private void sendSessionBatches(Collection<QuoteDTO> quotes) {
+        Map<String, QuoteDTO> bySymbol = null;
+        Message<?> allJson = null;
+        Message<?> allCompact = null;
+        for (MarketDataSession session : sessionRegistry.sessions()) {
+            if (!session.isSubscribedTo(USER_QUOTES_DESTINATION)) {
+                continue;
+            }
+            boolean compact = session.getFormat() == QuoteFormat.COMPACT;
+            Message<?> frame;
+            if (session.getBatchedSymbols().isEmpty()) {
+                if (compact) {
+                    allCompact = allCompact != null ? allCompact : compactFrame(CompactQuoteEncoder.encode(quotes));
+                    frame = allCompact;
+                } else {
+                    allJson = allJson != null ? allJson : serialize(List.copyOf(quotes));
+                    frame = allJson;
+                }
+            } else {
+                if (bySymbol == null) {
+                    bySymbol = new HashMap<>();
+                    for (QuoteDTO quote : quotes) {
+                        bySymbol.put(quote.symbol(), quote);
+                    }
+                }
+                List<QuoteDTO> batch = selectBatch(session.getBatchedSymbols(), bySymbol);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                frame = compact ? compactFrame(CompactQuoteEncoder.encode(batch)) : serialize(batch);
+            }
+            Message<?> sessionFrame = readdress(frame, session.getSessionId());
+            sendSafely(
+                () -> messagingTemplate.send(session.getUserQuotesDestination(), sessionFrame),
+                "batched quote",
+                "session " + session.getSessionId()
+            );
+        }
+    }
+
+    private static List<QuoteDTO> selectBatch(Set<String> symbols, Map<String, QuoteDTO> bySymbol) {
+        List<QuoteDTO> batch = new ArrayList<>(Math.min(symbols.size(), bySymbol.size()));
+        for (String symbol : symbols) {
+            QuoteDTO quote = bySymbol.get(symbol);
+            if (quote != null) {
+                batch.add(quote);
+            }
+        }
+        return batch;
     }
 
     public void broadcastQuote(QuoteDTO quote) {
-        sendSafely(() -> messagingTemplate.convertAndSend("/topic/quotes/" + quote.symbol(), quote), "quote", quote.symbol());
+        String destination = quoteDestinations.computeIfAbsent(quote.symbol(), symbol -> QUOTES_TOPIC_PREFIX + symbol);
+        sendSafely(() -> messagingTemplate.send(destination, serialize(quote)), "quote", quote.symbol());
     }
 
     public void broadcastBar(BarDTO bar) {
-        sendSafely(() -> messagingTemplate.convertAndSend("/topic/bars/" + bar.symbol(), bar), "bar", bar.symbol());
+        sendSafely(() -> messagingTemplate.send(barDestination(bar), serialize(bar)), "bar", bar.symbol());
+    }
+
+    /**
+     * Publish a closed bar on {@code /topic/bars/{timeframe}/{symbol}}, skipping timeframes nobody subscribed to.
+     */
+    public void broadcastBar(BarTimeframe timeframe, BarDTO bar) {
+        broadcastClosedBar(timeframe, bar, false);
+    }
+
+    /**
+     * Publish a closed bar on its timeframe topic and, for the primary timeframe, on {@code /topic/bars/{symbol}}
+     * as well, serializing it once for both.
+     */
+    public void broadcastClosedBar(BarTimeframe timeframe, BarDTO bar, boolean primary) {
+        String destination = timeframeBarDestinations
+            .get(timeframe)
+            .computeIfAbsent(bar.symbol(), symbol -> BARS_TOPIC_PREFIX + timeframe.getLabel() + "/" + symbol);
+        boolean subscribed = sessionRegistry.hasSubscribers(destination);
+        if (!primary && !subscribed) {
+            return;
+        }
+        sendSafely(
+            () -> {
+                Message<?> frame = serialize(bar);
+                if (primary) {
+                    messagingTemplate.send(barDestination(bar), subscribed ? readdress(frame, null) : frame);
+                }
+                if (subscribed) {
+                    messagingTemplate.send(destination, frame);
+                }
+            },
+            timeframe.getLabel() + " bar",
+            bar.symbol()
+        );
+    }
+
+    private String barDestination(BarDTO bar) {
+        return barDestinations.computeIfAbsent(bar.symbol(), symbol -> BARS_TOPIC_PREFIX + symbol);
+    }
+
+    /**
+     * Serialize {@code payload} once with the template's converter, so the broker path only routes bytes.
+     */
+    private Message<?> serialize(Object payload) {
+        Message<?> frame = messageConverter.toMessage(payload, mutableHeaders(null, null));
+        if (frame == null) {
+            throw new MessageConversionException("No converter for " + payload.getClass().getSimpleName());
+        }
+        return frame;
+    }
+
+    /**
+     * The compact frame is already JSON bytes, so it bypasses the converter, which would base64-encode them.
+     */
+    private static Message<byte[]> compactFrame(byte[] json) {
+        return MessageBuilder.createMessage(json, mutableHeaders(null, MimeTypeUtils.APPLICATION_JSON));
+    }
+
+    /**
+     * A new frame around the already serialized payload of {@code frame}; each send needs its own headers because the
+     * template stamps the destination on them. A session id makes a user destination resolve to exactly that session,
+     * so each frame reaches only the session it was built for even when a user has several connections.
+     */
+    private static Message<?> readdress(Message<?> frame, String sessionId) {
+        MimeType contentType = frame.getHeaders().get(MessageHeaders.CONTENT_TYPE, MimeType.class);
+        return MessageBuilder.createMessage(frame.getPayload(), mutableHeaders(sessionId, contentType));
+    }
+
+    private static MessageHeaders mutableHeaders(String sessionId, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        if (sessionId != null) {
+            accessor.setSessionId(sessionId);
+        }
+        if (contentType != null) {
+            accessor.setContentType(contentType);
+        }
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
     }
 
     private void sendSafely(Runnable operation, String payloadType, String symbol) {
@@ -0,0 +1,32 @@
+package com.rnexchange.web.websocket;
+
+import java.util.Locale;
+import org.springframework.util.StringUtils;
+
+/**
+ * Quote encoding a STOMP session negotiates with the {@value #HEADER} CONNECT header.
+ */
+public enum QuoteFormat {
+    /**
+     * One Jackson-serialized {@link com.rnexchange.service.dto.QuoteDTO} per symbol topic (the default).
+     */
+    JSON,
+    /**
+     * Columnar frames of scaled longs on {@link MarketDataWebSocketHandler#COMPACT_QUOTES_DESTINATION}; see
+     * {@link CompactQuoteEncoder}.
+     */
+    COMPACT;
+
+    public static final String HEADER = "quote-format";
+
+    static QuoteFormat fromHeader(String value) {
+        if (!StringUtils.hasText(value)) {
+            return JSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return JSON;
+        }
+    }
+}
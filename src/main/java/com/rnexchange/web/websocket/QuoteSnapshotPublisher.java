@@ -0,0 +1,117 @@
+package com.rnexchange.web.websocket;
+
+import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.LastQuoteCache;
+import com.rnexchange.web.websocket.MarketDataSessionRegistry.MarketDataSession;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+/**
+ * Sends the cached last quotes to a session as soon as it subscribes to a quote destination, so a page shows prices
+ * at once instead of after the next flush. The frame is addressed to the new subscription only, the way the broker
+ * addresses its own frames, so other subscribers of the same topic receive nothing extra. The frame carries the quote
+ * timestamps, and a streamed update may overtake it, so clients keep the later of the two.
+ */
+@Component
+public class QuoteSnapshotPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteSnapshotPublisher.class);
+
+    private static final String SYMBOL_QUOTES_PREFIX = "/topic/quotes/";
+
+    private final LastQuoteCache lastQuoteCache;
+    private final MarketDataSessionRegistry sessionRegistry;
+    private final MessageChannel clientOutboundChannel;
+    private final MessageConverter messageConverter;
+
+    public QuoteSnapshotPublisher(
+        LastQuoteCache lastQuoteCache,
+        MarketDataSessionRegistry sessionRegistry,
+        @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+        SimpMessagingTemplate messagingTemplate
+    ) {
+        this.lastQuoteCache = Objects.requireNonNull(lastQuoteCache, "lastQuoteCache must not be null");
+        this.sessionRegistry = Objects.requireNonNull(sessionRegistry, "sessionRegistry must not be null");
+        this.clientOutboundChannel = Objects.requireNonNull(clientOutboundChannel, "clientOutboundChannel must not be null");
+        this.messageConverter = messagingTemplate.getMessageConverter();
+    }
+
+    /**
+     * Runs once {@link MarketDataStompInterceptor} has authorized the subscription; a rejected SUBSCRIBE never
+     * publishes the event.
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        String destination = accessor.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        try {
+            Message<?> frame = snapshotFrame(sessionId, subscriptionId, destination);
+            if (frame != null) {
+                clientOutboundChannel.send(frame);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to send quote snapshot to session {} for {}: {}", sessionId, destination, ex.getMessage());
+        }
+    }
+
+    private Message<?> snapshotFrame(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(destination);
+        headers.setLeaveMutable(true);
+        if (MarketDataWebSocketHandler.COMPACT_QUOTES_DESTINATION.equals(destination)) {
+            return compactFrame(lastQuoteCache.all(), headers);
+        }
+        if (MarketDataWebSocketHandler.USER_QUOTES_DESTINATION.equals(destination)) {
+            MarketDataSession session = sessionRegistry.find(sessionId).orElse(null);
+            if (session == null) {
+                return null;
+            }
+            Set<String> symbols = session.getBatchedSymbols();
+            List<QuoteDTO> quotes = symbols.isEmpty() ? lastQuoteCache.all() : lastQuoteCache.snapshot(symbols).quotes();
+            if (session.getFormat() == QuoteFormat.COMPACT) {
+                return compactFrame(quotes, headers);
+            }
+            return quotes.isEmpty() ? null : messageConverter.toMessage(quotes, headers.getMessageHeaders());
+        }
+        if (destination.startsWith(SYMBOL_QUOTES_PREFIX)) {
+            return lastQuoteCache
+                .get(destination.substring(SYMBOL_QUOTES_PREFIX.length()))
+                .map(quote -> messageConverter.toMessage(quote, headers.getMessageHeaders()))
+                .orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * The compact frame is already JSON bytes, so it bypasses the converter, which would base64-encode them.
+     */
+    private static Message<?> compactFrame(List<QuoteDTO> quotes, SimpMessageHeaderAccessor headers) {
+        if (quotes.isEmpty()) {
+            return null;
+        }
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(CompactQuoteEncoder.encode(quotes), headers.getMessageHeaders());
+    }
+}
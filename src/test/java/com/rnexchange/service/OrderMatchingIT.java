@@ -0,0 +1,202 @@
+package com.rnexchange.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.IntegrationTest;
+import com.rnexchange.domain.Execution;
+import com.rnexchange.domain.Position;
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import com.rnexchange.repository.ExecutionRepository;
+import com.rnexchange.repository.OrderRepository;
+import com.rnexchange.repository.PositionRepository;
+import com.rnexchange.service.dto.OrderDTO;
+import com.rnexchange.service.dto.TraderOrderRequest;
+import com.rnexchange.service.seed.BaselineSeedService;
+import com.rnexchange.service.seed.dto.BaselineSeedRequest;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@IntegrationTest
+class OrderMatchingIT extends com.rnexchange.service.seed.AbstractBaselineSeedIT {
+
+    @Autowired
+    private BaselineSeedService baselineSeedService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ExecutionRepository executionRepository;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        BaselineSeedRequest request = BaselineSeedRequest.builder().force(true).invocationId(UUID.randomUUID()).build();
+        baselineSeedService.runBaselineSeedBlocking(request);
+    }
+
+    @Test
+    void crossingOrdersAreRecordedAsExecutionsOfBothSides() {
+        OrderDTO ask = submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "10", "2200.00");
+        assertThat(ask.getStatus()).isEqualTo(OrderStatus.WORKING);
+
+        OrderDTO bid = submit("trader-one", OrderSide.BUY, OrderType.LIMIT, "6", "2210.00");
+
+        assertThat(bid.getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(orderRepository.findById(bid.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(orderRepository.findById(ask.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PARTIAL);
+
+        List<Execution> takerExecutions = executionsOf(bid.getId());
+        List<Execution> makerExecutions = executionsOf(ask.getId());
+        assertThat(takerExecutions).singleElement().satisfies(execution -> {
+            assertThat(execution.getLiquidity()).isEqualTo("TAKER");
+            assertThat(execution.getPx()).isEqualByComparingTo("2200.00");
+            assertThat(execution.getQty()).isEqualByComparingTo("6");
+        });
+        assertThat(makerExecutions).singleElement().satisfies(execution -> {
+            assertThat(execution.getLiquidity()).isEqualTo("MAKER");
+            assertThat(execution.getPx()).isEqualByComparingTo("2200.00");
+            assertThat(execution.getQty()).isEqualByComparingTo("6");
+        });
+    }
+
+    @Test
+    void fillsMoveThePositionsOfBothSides() {
+        submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "10", "2200.00");
+        submit("trader-one", OrderSide.BUY, OrderType.LIMIT, "6", "2200.00");
+        submit("trader-two", OrderSide.BUY, OrderType.LIMIT, "4", "2190.00");
+        submit("trader-one", OrderSide.SELL, OrderType.MARKET, "2", "2190.00");
+
+        List<Position> positions = positionRepository.findAllWithToOneRelationships();
+        assertThat(positions).hasSize(2);
+        Position buyer = positions.stream().filter(position -> position.getQty().signum() > 0).findFirst().orElseThrow();
+        Position seller = positions.stream().filter(position -> position.getQty().signum() < 0).findFirst().orElseThrow();
+        assertThat(buyer.getInstrument().getSymbol()).isEqualTo("RELIANCE");
+        assertThat(buyer.getQty()).isEqualByComparingTo("4");
+        assertThat(buyer.getAvgCost()).isEqualByComparingTo("2200.00");
+        assertThat(buyer.getLastPx()).isEqualByComparingTo("2190.00");
+        assertThat(buyer.getRealizedPnl()).isEqualByComparingTo("-20.00");
+        assertThat(seller.getQty()).isEqualByComparingTo("-4");
+        assertThat(seller.getAvgCost()).isEqualByComparingTo("2200.00");
+        assertThat(seller.getRealizedPnl()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void marketOrderTakesTheRemainderAndDoesNotRest() {
+        OrderDTO ask = submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "4", "2200.00");
+
+        OrderDTO bid = submit("trader-one", OrderSide.BUY, OrderType.MARKET, "10", "2200.00");
+
+        assertThat(bid.getStatus()).isEqualTo(OrderStatus.CANCELED);
+        assertThat(orderRepository.findById(ask.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(executionsOf(bid.getId())).extracting(Execution::getQty).usingElementComparator(BigDecimal::compareTo).containsExactly(
+            new BigDecimal("4")
+        );
+
+        OrderDTO laterAsk = submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "5", "2200.00");
+        assertThat(laterAsk.getStatus()).isEqualTo(OrderStatus.WORKING);
+        assertThat(executionsOf(laterAsk.getId())).isEmpty();
+    }
+
+    @Test
+    void makerCancelledWhileItsFillIsRecordedStaysCancelled() throws Exception {
+        // Open trader-one's position first, so the recording below has a row to wait on.
+        submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "1", "2100.00");
+        submit("trader-one", OrderSide.BUY, OrderType.LIMIT, "1", "2100.00");
+        OrderDTO ask = submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "10", "2100.00");
+        Long buyerAccountId = tradingAccountRepository.findFirstByTrader_User_LoginOrderByIdAsc("trader-one").orElseThrow().getId();
+        Long instrumentId = instrumentRepository.findOneBySymbol("RELIANCE").orElseThrow().getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch positionLocked = new CountDownLatch(1);
+        CountDownLatch releasePosition = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> lock = executor.submit(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    positionRepository.findOneByTradingAccountIdAndInstrumentId(buyerAccountId, instrumentId).orElseThrow();
+                    positionLocked.countDown();
+                    awaitLatch(releasePosition);
+                })
+            );
+            assertThat(positionLocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // The bid trades 4 of the ask on the book, then waits to record the fill behind the position lock.
+            Future<OrderDTO> bid = executor.submit(() -> submit("trader-one", OrderSide.BUY, OrderType.LIMIT, "4", "2100.00"));
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> waitingOnLocks() > 0);
+
+            // The rest of the ask is cancelled and committed before the fill.
+            assertThat(orderService.cancelTraderOrder(ask.getId(), "trader-two")).isPresent();
+            releasePosition.countDown();
+            lock.get(10, TimeUnit.SECONDS);
+
+            assertThat(bid.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(OrderStatus.FILLED);
+        } finally {
+            releasePosition.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(orderRepository.findById(ask.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELED);
+        assertThat(executionsOf(ask.getId())).singleElement().satisfies(execution ->
+            assertThat(execution.getQty()).isEqualByComparingTo("4")
+        );
+    }
+
+    private int waitingOnLocks() {
+        Integer waiting = jdbcTemplate.queryForObject(
+            "select count(*) from pg_stat_activity where wait_event_type = 'Lock' and datname = current_database()",
+            Integer.class
+        );
+        return waiting != null ? waiting : 0;
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Position lock was never released");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private OrderDTO submit(String trader, OrderSide side, OrderType type, String quantity, String price) {
+        TraderOrderRequest request = TraderOrderRequest.builder()
+            .traderLogin(trader)
+            .instrumentSymbol("RELIANCE")
+            .side(side)
+            .type(type)
+            .tif(Tif.DAY)
+            .quantity(new BigDecimal(quantity))
+            .price(new BigDecimal(price))
+            .build();
+        return orderService.submitTraderOrder(request).order();
+    }
+
+    private List<Execution> executionsOf(Long orderId) {
+        return executionRepository.findAll().stream().filter(execution -> orderId.equals(execution.getOrder().getId())).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.rnexchange.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rnexchange.domain.Instrument;
+import com.rnexchange.domain.MarginRule;
+import com.rnexchange.repository.InstrumentRepository;
+import com.rnexchange.repository.MarginRuleRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ReferenceDataCacheTest {
+
+    private final InstrumentRepository instrumentRepository = mock(InstrumentRepository.class);
+    private final MarginRuleRepository marginRuleRepository = mock(MarginRuleRepository.class);
+
+    @Test
+    @DisplayName("should cache instruments by symbol and by id and reload them once evicted")
+    void shouldIndexInstrumentsBySymbolAndId() {
+        ReferenceDataCache cache = new ReferenceDataCache(instrumentRepository, marginRuleRepository);
+        Instrument infy = new Instrument().id(7L).symbol("INFY");
+        when(instrumentRepository.findOneBySymbol("INFY")).thenReturn(Optional.of(infy));
+        when(instrumentRepository.findOneWithEagerRelationships(7L)).thenReturn(Optional.of(infy));
+
+        assertThat(cache.findInstrumentBySymbol("INFY")).containsSame(infy);
+        assertThat(cache.findInstrumentBySymbol("INFY")).containsSame(infy);
+        assertThat(cache.findInstrumentById(7L)).containsSame(infy);
+        assertThat(cache.findInstrumentById(7L)).containsSame(infy);
+        verify(instrumentRepository, times(1)).findOneBySymbol("INFY");
+        verify(instrumentRepository, times(1)).findOneWithEagerRelationships(7L);
+
+        cache.evictInstrument(7L, "INFY");
+
+        assertThat(cache.findInstrumentBySymbol("INFY")).containsSame(infy);
+        assertThat(cache.findInstrumentById(7L)).containsSame(infy);
+        verify(instrumentRepository, times(2)).findOneBySymbol("INFY");
+        verify(instrumentRepository, times(2)).findOneWithEagerRelationships(7L);
+    }
+
+    @Test
+    @DisplayName("should not cache an instrument loaded while it was being evicted")
+    void shouldDropLoadsRacingAnEviction() {
+        ReferenceDataCache cache = new ReferenceDataCache(instrumentRepository, marginRuleRepository);
+        Instrument stale = new Instrument().id(7L).symbol("INFY");
+        when(instrumentRepository.findOneBySymbol("INFY")).thenAnswer(invocation -> {
+            cache.evictInstrument(7L, "INFY");
+            return Optional.of(stale);
+        });
+
+        assertThat(cache.findInstrumentBySymbol("INFY")).containsSame(stale);
+        assertThat(cache.findInstrumentBySymbol("INFY")).containsSame(stale);
+
+        verify(instrumentRepository, times(2)).findOneBySymbol("INFY");
+    }
+
+    @Test
+    @DisplayName("should drop the least recently used instrument beyond capacity and not cache unknown symbols")
+    void shouldBoundInstrumentIndexes() {
+        ReferenceDataCache cache = new ReferenceDataCache(instrumentRepository, marginRuleRepository, 2, 2);
+        when(instrumentRepository.findOneBySymbol("A")).thenReturn(Optional.of(new Instrument().id(1L).symbol("A")));
+        when(instrumentRepository.findOneBySymbol("B")).thenReturn(Optional.of(new Instrument().id(2L).symbol("B")));
+        when(instrumentRepository.findOneBySymbol("C")).thenReturn(Optional.of(new Instrument().id(3L).symbol("C")));
+        when(instrumentRepository.findOneBySymbol("MISSING")).thenReturn(Optional.empty());
+
+        cache.findInstrumentBySymbol("A");
+        cache.findInstrumentBySymbol("B");
+        cache.findInstrumentBySymbol("A");
+        cache.findInstrumentBySymbol("C");
+        cache.findInstrumentBySymbol("A");
+        cache.findInstrumentBySymbol("B");
+        cache.findInstrumentBySymbol("MISSING");
+        cache.findInstrumentBySymbol("MISSING");
+
+        verify(instrumentRepository, times(1)).findOneBySymbol("A");
+        verify(instrumentRepository, times(2)).findOneBySymbol("B");
+        verify(instrumentRepository, times(2)).findOneBySymbol("MISSING");
+    }
+
+    @Test
+    @DisplayName("should remember absent margin scopes and reload rules after eviction")
+    void shouldCacheMarginRulesIncludingAbsentScopes() {
+        ReferenceDataCache cache = new ReferenceDataCache(instrumentRepository, marginRuleRepository);
+        MarginRule fno = new MarginRule().scope("NSE_FNO");
+        when(marginRuleRepository.findAllByExchange_CodeAndScopeIn("NSE", List.of("NSE_CASH", "NSE_FNO"))).thenReturn(List.of(fno));
+
+        assertThat(cache.findMarginRule("NSE", List.of("NSE_CASH", "NSE_FNO"))).containsSame(fno);
+        assertThat(cache.findMarginRule("NSE", List.of("NSE_CASH", "NSE_FNO"))).containsSame(fno);
+        assertThat(cache.findMarginRule("NSE", List.of("NSE_CASH"))).isEmpty();
+        verify(marginRuleRepository, times(1)).findAllByExchange_CodeAndScopeIn(anyString(), any());
+
+        cache.evictMarginRules();
+
+        assertThat(cache.findMarginRule("NSE", List.of("NSE_CASH", "NSE_FNO"))).containsSame(fno);
+        verify(marginRuleRepository, times(2)).findAllByExchange_CodeAndScopeIn(anyString(), any());
+    }
+}
@@ -15,6 +15,7 @@ import com.rnexchange.domain.enumeration.Tif;
 import com.rnexchange.service.dto.TraderOrderRequest;
 import com.rnexchange.service.seed.BaselineSeedService;
 import com.rnexchange.service.seed.dto.BaselineSeedRequest;
+import com.rnexchange.service.trading.TraderAuditPublisher;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +37,9 @@ class TraderAuditLogIT extends com.rnexchange.service.seed.AbstractBaselineSeedI
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private TraderAuditPublisher traderAuditPublisher;
+
     private ListAppender<ILoggingEvent> listAppender;
 
     @BeforeEach
@@ -104,6 +108,7 @@ class TraderAuditLogIT extends com.rnexchange.service.seed.AbstractBaselineSeedI
     }
 
     private Optional<JsonNode> extractLatestAuditPayload() {
+        traderAuditPublisher.flush();
         List<ILoggingEvent> events = listAppender.list;
         if (events.isEmpty()) {
             return Optional.empty();
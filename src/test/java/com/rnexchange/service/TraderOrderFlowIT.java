@@ -0,0 +1,177 @@
+package com.rnexchange.service;
+
+import static com.rnexchange.web.rest.TestUtil.sameNumber;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rnexchange.IntegrationTest;
+import com.rnexchange.domain.Order;
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import com.rnexchange.repository.OrderRepository;
+import com.rnexchange.security.AuthoritiesConstants;
+import com.rnexchange.service.dto.OrderDTO;
+import com.rnexchange.service.dto.TraderOrderRequest;
+import com.rnexchange.service.seed.BaselineSeedService;
+import com.rnexchange.service.seed.dto.BaselineSeedRequest;
+import com.rnexchange.service.trading.AccountExposureBook;
+import com.rnexchange.service.trading.MatchingEngine;
+import com.rnexchange.web.rest.dto.ReplaceOrderRequest;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Trader cancel and replace through {@code /api/orders}, against the seeded baseline and the live books.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "trader-one", authorities = AuthoritiesConstants.TRADER)
+class TraderOrderFlowIT extends com.rnexchange.service.seed.AbstractBaselineSeedIT {
+
+    private static final String ENTITY_API_URL_ID = "/api/orders/{id}";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private BaselineSeedService baselineSeedService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private AccountExposureBook accountExposureBook;
+
+    @Autowired
+    private MockMvc restOrderMockMvc;
+
+    @BeforeEach
+    void setUp() {
+        BaselineSeedRequest request = BaselineSeedRequest.builder().force(true).invocationId(UUID.randomUUID()).build();
+        baselineSeedService.runBaselineSeedBlocking(request);
+    }
+
+    @AfterEach
+    void clearBooks() {
+        matchingEngine.clear();
+        accountExposureBook.clear();
+    }
+
+    @Test
+    void cancelOwnTraderOrder() throws Exception {
+        OrderDTO resting = submit("trader-one", OrderSide.BUY, OrderType.LIMIT, "10", "2100.00");
+
+        restOrderMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/cancel", resting.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(resting.getId().intValue()))
+            .andExpect(jsonPath("$.status").value(OrderStatus.CANCELED.toString()));
+
+        assertThat(orderRepository.findById(resting.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELED);
+        OrderDTO crossing = submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "10", "2100.00");
+        assertThat(crossing.getStatus()).isEqualTo(OrderStatus.WORKING);
+    }
+
+    @Test
+    void cancelTraderOrderTheEngineDoesNotHold() throws Exception {
+        OrderDTO stop = submit("trader-one", OrderSide.BUY, OrderType.STOP, "10", "2100.00");
+        assertThat(stop.getStatus()).isEqualTo(OrderStatus.ACCEPTED);
+
+        restOrderMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/cancel", stop.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(OrderStatus.CANCELED.toString()));
+
+        assertThat(orderRepository.findById(stop.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELED);
+    }
+
+    @Test
+    void cancelAnotherTradersOrderIsRejected() throws Exception {
+        OrderDTO othersOrder = submit("trader-two", OrderSide.BUY, OrderType.LIMIT, "10", "2100.00");
+
+        restOrderMockMvc.perform(post(ENTITY_API_URL_ID + "/cancel", othersOrder.getId())).andExpect(status().isBadRequest());
+
+        assertThat(orderRepository.findById(othersOrder.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.WORKING);
+    }
+
+    @Test
+    void replaceReducingQuantityKeepsTimePriority() throws Exception {
+        OrderDTO first = submit("trader-one", OrderSide.BUY, OrderType.LIMIT, "10", "2100.00");
+        OrderDTO second = submit("trader-two", OrderSide.BUY, OrderType.LIMIT, "5", "2100.00");
+
+        restOrderMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/replace", first.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(replaceRequest("4", "2100.00")))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-RNExchange-Margin-Initial", "1680.00"))
+            .andExpect(jsonPath("$.qty").value(sameNumber(new BigDecimal("4"))))
+            .andExpect(jsonPath("$.status").value(OrderStatus.WORKING.toString()));
+
+        submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "4", "2100.00");
+
+        assertThat(orderRepository.findById(first.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(orderRepository.findById(second.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.WORKING);
+    }
+
+    @Test
+    void replaceIntoInsufficientMarginIsRejected() throws Exception {
+        OrderDTO resting = submit("trader-one", OrderSide.BUY, OrderType.LIMIT, "10", "2100.00");
+
+        restOrderMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/replace", resting.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(replaceRequest("100000", "2100.00")))
+            )
+            .andExpect(status().isBadRequest());
+
+        Order persisted = orderRepository.findById(resting.getId()).orElseThrow();
+        assertThat(persisted.getStatus()).isEqualTo(OrderStatus.WORKING);
+        assertThat(persisted.getQty()).isEqualByComparingTo("10");
+        OrderDTO crossing = submit("trader-two", OrderSide.SELL, OrderType.LIMIT, "10", "2100.00");
+        assertThat(crossing.getStatus()).isEqualTo(OrderStatus.FILLED);
+    }
+
+    private OrderDTO submit(String trader, OrderSide side, OrderType type, String quantity, String price) {
+        TraderOrderRequest request = TraderOrderRequest.builder()
+            .traderLogin(trader)
+            .instrumentSymbol("RELIANCE")
+            .side(side)
+            .type(type)
+            .tif(Tif.DAY)
+            .quantity(new BigDecimal(quantity))
+            .price(new BigDecimal(price))
+            .build();
+        return orderService.submitTraderOrder(request).order();
+    }
+
+    private static ReplaceOrderRequest replaceRequest(String quantity, String price) {
+        ReplaceOrderRequest request = new ReplaceOrderRequest();
+        request.setQuantity(new BigDecimal(quantity));
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+}
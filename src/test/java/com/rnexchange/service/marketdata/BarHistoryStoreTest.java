@@ -0,0 +1,140 @@
+package com.rnexchange.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rnexchange.config.MockMarketDataProperties;
+import com.rnexchange.service.dto.BarDTO;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BarHistoryStoreTest {
+
+    private static final Instant START = Instant.parse("2025-11-14T09:30:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should serve appended bars by time range across segments")
+    void shouldServeRangesAcrossSegments() {
+        BarHistoryStore store = newStore();
+        for (int i = 0; i < 3000; i++) {
+            store.append(BarTimeframe.S1, bar("INFY", START.plusSeconds(i), 10_000L + i));
+        }
+
+        List<BarDTO> bars = store.find("INFY", BarTimeframe.S1, START.plusSeconds(1020), START.plusSeconds(1030), 100);
+
+        assertThat(bars).hasSize(10);
+        assertThat(bars.get(0).timestamp()).isEqualTo(START.plusSeconds(1020));
+        assertThat(bars.get(0).close()).isEqualByComparingTo("110.20");
+        assertThat(bars.get(9).timestamp()).isEqualTo(START.plusSeconds(1029));
+        assertThat(store.find("INFY", BarTimeframe.S1, null, null, 5)).hasSize(5);
+        assertThat(store.find("INFY", BarTimeframe.M1, null, null, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should serve the latest bars before the upper bound when no lower bound is given")
+    void shouldServeLatestBarsWithoutLowerBound() {
+        BarHistoryStore store = newStore();
+        for (int i = 0; i < 3000; i++) {
+            store.append(BarTimeframe.S1, bar("INFY", START.plusSeconds(i), 10_000L + i));
+        }
+
+        assertThat(store.find("INFY", BarTimeframe.S1, null, null, 3)).extracting(BarDTO::timestamp).containsExactly(
+            START.plusSeconds(2997),
+            START.plusSeconds(2998),
+            START.plusSeconds(2999)
+        );
+
+        List<BarDTO> spanning = store.find("INFY", BarTimeframe.S1, null, START.plusSeconds(1026), 4);
+        assertThat(spanning).extracting(BarDTO::timestamp).containsExactly(
+            START.plusSeconds(1022),
+            START.plusSeconds(1023),
+            START.plusSeconds(1024),
+            START.plusSeconds(1025)
+        );
+        assertThat(store.find("INFY", BarTimeframe.S1, null, START.plusSeconds(2), 10)).hasSize(2);
+        assertThat(store.find("INFY", BarTimeframe.S1, null, START, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should keep symbols that resolve outside the history root away from the file system")
+    void shouldRejectSymbolsOutsideRoot() {
+        BarHistoryStore store = newStore();
+
+        assertThat(store.find("..", BarTimeframe.M1, null, null, 10)).isEmpty();
+        assertThat(store.find(".", BarTimeframe.M1, null, null, 10)).isEmpty();
+        assertThatThrownBy(() -> store.append(BarTimeframe.M1, bar("..", START, 10_000L))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.append(BarTimeframe.M1, bar(".", START, 10_000L))).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(store.openSeriesCount()).isZero();
+        assertThat(Files.exists(directory.resolve(BarTimeframe.M1.getLabel()))).isFalse();
+        assertThat(Files.exists(directory.getParent().resolve(BarTimeframe.M1.getLabel()))).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reload history written by a previous instance")
+    void shouldReloadExistingSegments() {
+        BarHistoryStore writer = newStore();
+        writer.append(BarTimeframe.M1, bar("M&M", START, 25_000L));
+        writer.append(BarTimeframe.M1, bar("M&M", START.plusSeconds(60), 25_100L));
+        writer.append(BarTimeframe.M1, bar("M&M", START, 24_000L));
+        writer.flush();
+
+        List<BarDTO> bars = newStore().find("M&M", BarTimeframe.M1, START, null, 10);
+
+        assertThat(bars).extracting(BarDTO::close).usingElementComparator(BigDecimal::compareTo).containsExactly(
+            new BigDecimal("250.00"),
+            new BigDecimal("251.00")
+        );
+        assertThat(bars.get(1).volume()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("should answer queries for unknown symbols without creating a series")
+    void shouldNotCreateSeriesOnLookup() {
+        BarHistoryStore store = newStore();
+
+        assertThat(store.find("UNKNOWN", BarTimeframe.M1, null, null, 10)).isEmpty();
+
+        assertThat(store.openSeriesCount()).isZero();
+        assertThat(Files.exists(directory.resolve("UNKNOWN"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("should close idle series and map them again on the next access")
+    void shouldCloseIdleSeries() {
+        BarHistoryStore store = newStore();
+        store.append(BarTimeframe.M1, bar("INFY", START, 10_000L));
+
+        assertThat(store.closeIdle(System.nanoTime() - TimeUnit.MINUTES.toNanos(1))).isZero();
+        assertThat(store.closeIdle(System.nanoTime() + TimeUnit.HOURS.toNanos(1))).isEqualTo(1);
+        assertThat(store.openSeriesCount()).isZero();
+
+        store.append(BarTimeframe.M1, bar("INFY", START.plusSeconds(60), 10_100L));
+        assertThat(store.find("INFY", BarTimeframe.M1, null, null, 10)).extracting(BarDTO::timestamp).containsExactly(
+            START,
+            START.plusSeconds(60)
+        );
+    }
+
+    private BarHistoryStore newStore() {
+        MockMarketDataProperties properties = new MockMarketDataProperties();
+        properties.getHistory().setDirectory(directory.toString());
+        properties.getHistory().setSegmentRecords(1024);
+        return new BarHistoryStore(properties);
+    }
+
+    private static BarDTO bar(String symbol, Instant start, long closeScaled) {
+        BigDecimal close = FixedPointPrice.toDecimal(closeScaled);
+        return new BarDTO(symbol, close, close, close, close, 42L, start);
+    }
+}
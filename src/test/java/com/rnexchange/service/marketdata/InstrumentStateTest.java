@@ -2,6 +2,8 @@ package com.rnexchange.service.marketdata;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.rnexchange.service.dto.BarDTO;
+import com.rnexchange.service.dto.QuoteDTO;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
@@ -28,6 +30,23 @@ class InstrumentStateTest {
         assertThat(state.getLastUpdated()).isEqualTo(clock.instant());
     }
 
+    @Test
+    @DisplayName("should retune volatility and continue the session of the state it replaces")
+    void shouldContinueSessionWhenRetuned() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-11-14T09:15:00Z"));
+        InstrumentState state = new InstrumentState("INFY", "NSE", new BigDecimal("100.00"), 0.02d, clock);
+        state.updateWithTick(new BigDecimal("101.00"), 100L);
+
+        InstrumentState retuned = state.withVolatility(0.05d);
+        state.updateWithTick(new BigDecimal("102.00"), 50L);
+        retuned.continueSession(state);
+
+        assertThat(retuned.getVolatility()).isEqualTo(0.05d);
+        assertThat(retuned.getSessionOpen()).isEqualByComparingTo("100.00");
+        assertThat(retuned.getLastPrice()).isEqualByComparingTo("102.00");
+        assertThat(retuned.getCumulativeVolume()).isEqualTo(150L);
+    }
+
     @Test
     @DisplayName("should update quotes, highs, lows, volume, and derived metrics")
     void shouldUpdateStateWithTick() {
@@ -57,6 +76,64 @@ class InstrumentStateTest {
         assertThat(state.getChangePercent()).isEqualByComparingTo("-0.75");
     }
 
+    @Test
+    @DisplayName("should build quotes from scaled prices")
+    void shouldBuildQuoteFromScaledPrices() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-11-14T09:15:00Z"));
+        InstrumentState state = new InstrumentState("TCS", "NSE", new BigDecimal("3000.00"), 0.02d, clock);
+
+        clock.advanceSeconds(1);
+        state.updateWithTick(296_525L, 75L);
+
+        QuoteDTO quote = state.toQuote();
+
+        assertThat(quote.symbol()).isEqualTo("TCS");
+        assertThat(quote.lastPrice()).isEqualByComparingTo("2965.25");
+        assertThat(quote.open()).isEqualByComparingTo("3000.00");
+        assertThat(quote.change()).isEqualByComparingTo("-34.75");
+        assertThat(quote.changePercent()).isEqualByComparingTo("-1.16");
+        assertThat(quote.volume()).isEqualTo(75L);
+        assertThat(quote.timestamp()).isEqualTo(clock.instant());
+        assertThat(state.getLastPriceScaled()).isEqualTo(296_525L);
+    }
+
+    @Test
+    @DisplayName("should reopen the session at a new price and reset the running totals")
+    void shouldOpenSessionAtNewPrice() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-11-14T09:15:00Z"));
+        InstrumentState state = new InstrumentState("TCS", "NSE", new BigDecimal("100.00"), 0.02d, clock);
+        state.updateWithTick(10_500L, 40L);
+
+        state.openSession(296_525L);
+
+        assertThat(state.getSessionOpenScaled()).isEqualTo(296_525L);
+        assertThat(state.getSessionHigh()).isEqualByComparingTo("2965.25");
+        assertThat(state.getSessionLow()).isEqualByComparingTo("2965.25");
+        assertThat(state.getCumulativeVolume()).isZero();
+        assertThat(state.getChange()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    @DisplayName("should publish an immutable snapshot per tick that later ticks do not change")
+    void shouldPublishImmutableSnapshots() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-11-14T09:15:00Z"));
+        InstrumentState state = new InstrumentState("TCS", "NSE", new BigDecimal("100.00"), 0.02d, clock);
+
+        InstrumentState.Snapshot first = state.updateWithTick(10_150L, 100L);
+        clock.advanceSeconds(61);
+        InstrumentState.Snapshot second = state.updateWithTick(9_900L, 50L);
+
+        assertThat(first).isEqualTo(new InstrumentState.Snapshot(10_000L, 10_150L, 10_000L, 10_150L, 100L, first.lastUpdated()));
+        assertThat(second).isSameAs(state.snapshot());
+        assertThat(second.sessionLow()).isEqualTo(9_900L);
+        assertThat(second.cumulativeVolume()).isEqualTo(150L);
+
+        BarDTO bar = state.toBar();
+        assertThat(bar.high()).isEqualByComparingTo("101.50");
+        assertThat(bar.close()).isEqualByComparingTo("99.00");
+        assertThat(bar.timestamp()).isEqualTo(Instant.parse("2025-11-14T09:16:00Z"));
+    }
+
     private static final class MutableClock extends Clock {
 
         private Instant current;
@@ -0,0 +1,73 @@
+package com.rnexchange.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.service.dto.BarDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IntervalBarsTest {
+
+    private static final long MINUTE_START = Instant.parse("2025-11-14T09:30:00Z").getEpochSecond();
+
+    private final List<BarTimeframe> timeframes = new ArrayList<>();
+    private final List<BarDTO> closed = new ArrayList<>();
+    private final IntervalBars bars = new IntervalBars("INFY");
+    private final IntervalBars.Listener listener = (timeframe, bar) -> {
+        timeframes.add(timeframe);
+        closed.add(bar);
+    };
+
+    @Test
+    @DisplayName("should close one-second bars with per-interval OHLCV")
+    void shouldCloseSecondBars() {
+        bars.onTick(MINUTE_START, 10_000L, 10, listener);
+        bars.onTick(MINUTE_START, 10_050L, 5, listener);
+        bars.onTick(MINUTE_START, 9_980L, 7, listener);
+        assertThat(closed).isEmpty();
+
+        bars.onTick(MINUTE_START + 1, 10_010L, 3, listener);
+
+        assertThat(timeframes).containsExactly(BarTimeframe.S1);
+        BarDTO bar = closed.get(0);
+        assertThat(bar.open()).isEqualByComparingTo("100.00");
+        assertThat(bar.high()).isEqualByComparingTo("100.50");
+        assertThat(bar.low()).isEqualByComparingTo("99.80");
+        assertThat(bar.close()).isEqualByComparingTo("99.80");
+        assertThat(bar.volume()).isEqualTo(22L);
+        assertThat(bar.timestamp()).isEqualTo(Instant.ofEpochSecond(MINUTE_START));
+    }
+
+    @Test
+    @DisplayName("should roll closed second bars up into the minute bar")
+    void shouldRollUpMinuteBars() {
+        bars.onTick(MINUTE_START, 10_000L, 10, listener);
+        bars.onTick(MINUTE_START + 20, 10_200L, 10, listener);
+        bars.onTick(MINUTE_START + 59, 9_900L, 10, listener);
+
+        bars.closeElapsed(MINUTE_START + 60, listener);
+
+        assertThat(timeframes).containsExactly(BarTimeframe.S1, BarTimeframe.S1, BarTimeframe.S1, BarTimeframe.M1);
+        BarDTO minute = closed.get(3);
+        assertThat(minute.open()).isEqualByComparingTo("100.00");
+        assertThat(minute.high()).isEqualByComparingTo("102.00");
+        assertThat(minute.low()).isEqualByComparingTo("99.00");
+        assertThat(minute.close()).isEqualByComparingTo("99.00");
+        assertThat(minute.volume()).isEqualTo(30L);
+        assertThat(minute.timestamp()).isEqualTo(Instant.ofEpochSecond(MINUTE_START));
+    }
+
+    @Test
+    @DisplayName("should cascade closes through every elapsed timeframe")
+    void shouldCascadeCloses() {
+        bars.onTick(MINUTE_START, 10_000L, 1, listener);
+
+        bars.closeElapsed(MINUTE_START + 3600, listener);
+
+        assertThat(timeframes).containsExactly(BarTimeframe.S1, BarTimeframe.M1, BarTimeframe.M5, BarTimeframe.M15, BarTimeframe.H1);
+        assertThat(closed).extracting(BarDTO::volume).containsOnly(1L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.rnexchange.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.service.dto.QuoteDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LastQuoteCacheTest {
+
+    private final LastQuoteCache cache = new LastQuoteCache();
+
+    @Test
+    @DisplayName("should serve the latest quote per symbol in request order")
+    void shouldServeLatestQuotes() {
+        cache.putAll(List.of(quote("INFY", "100.00"), quote("TCS", "200.00")));
+        cache.put(quote("INFY", "101.00"));
+
+        LastQuoteCache.Snapshot snapshot = cache.snapshot(List.of("TCS", "WIPRO", "INFY"));
+
+        assertThat(snapshot.quotes()).extracting(QuoteDTO::symbol).containsExactly("TCS", "INFY");
+        assertThat(snapshot.quotes().get(1).lastPrice()).isEqualByComparingTo("101.00");
+        assertThat(cache.get("WIPRO")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should change the version only when a requested quote changes or is removed")
+    void shouldVersionSnapshots() {
+        cache.putAll(List.of(quote("INFY", "100.00"), quote("TCS", "200.00")));
+        String initial = cache.snapshot(List.of("INFY")).version();
+
+        assertThat(cache.snapshot(List.of("INFY")).version()).isEqualTo(initial);
+
+        cache.put(quote("INFY", "100.50"));
+        String updated = cache.snapshot(List.of("INFY")).version();
+        assertThat(updated).isNotEqualTo(initial);
+
+        cache.remove("TCS");
+        cache.put(quote("TCS", "200.00"));
+        assertThat(cache.snapshot(List.of("INFY", "TCS")).version()).isNotEqualTo(updated);
+
+        String both = cache.snapshot(List.of("INFY", "TCS")).version();
+        cache.remove("TCS");
+        assertThat(cache.snapshot(List.of("INFY", "TCS")).version()).isNotEqualTo(both);
+    }
+
+    @Test
+    @DisplayName("should drop quotes of symbols no longer listed and version the change")
+    void shouldRetainListedSymbols() {
+        cache.putAll(List.of(quote("INFY", "100.00"), quote("TCS", "200.00")));
+        String before = cache.snapshot(List.of("INFY", "TCS")).version();
+
+        cache.retainAll(Set.of("INFY"));
+
+        assertThat(cache.all()).extracting(QuoteDTO::symbol).containsExactly("INFY");
+        assertThat(cache.snapshot(List.of("INFY", "TCS")).version()).isNotEqualTo(before);
+    }
+
+    private static QuoteDTO quote(String symbol, String price) {
+        BigDecimal last = new BigDecimal(price);
+        return new QuoteDTO(symbol, last, last, BigDecimal.ZERO, BigDecimal.ZERO, 10L, Instant.parse("2025-11-14T09:15:00Z"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.rnexchange.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rnexchange.config.MockMarketDataProperties;
+import com.rnexchange.config.MockMarketDataProperties.SessionProperties;
+import com.rnexchange.domain.Exchange;
+import com.rnexchange.domain.MarketHoliday;
+import com.rnexchange.repository.ExchangeRepository;
+import com.rnexchange.repository.MarketHolidayRepository;
+import com.rnexchange.service.marketdata.events.MarketHolidayChangedEvent;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MarketCalendarTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2025-11-14");
+
+    private final MarketHolidayRepository repository = mock(MarketHolidayRepository.class);
+    private final ExchangeRepository exchangeRepository = mock(ExchangeRepository.class);
+    private final MockMarketDataProperties properties = new MockMarketDataProperties();
+    private final MarketCalendar calendar = new MarketCalendar(
+        repository,
+        exchangeRepository,
+        properties,
+        Clock.fixed(Instant.parse("2025-11-14T04:00:00Z"), ZoneOffset.UTC)
+    );
+
+    @Test
+    @DisplayName("should answer closures from memory once loaded")
+    void shouldAnswerFromMemory() {
+        when(repository.findAllHolidaysFrom(any())).thenReturn(List.of(holiday("NSE", TODAY), holiday("BSE", TODAY.plusDays(1))));
+
+        calendar.refresh();
+
+        assertThat(calendar.isClosed("NSE", TODAY)).isTrue();
+        assertThat(calendar.isClosed("BSE", TODAY)).isFalse();
+        assertThat(calendar.closedExchanges(TODAY.plusDays(1))).containsExactly("BSE");
+        assertThat(calendar.closedExchanges(TODAY.plusDays(2))).isEmpty();
+        verify(repository, times(1)).findAllHolidaysFrom(TODAY.minusDays(1));
+    }
+
+    @Test
+    @DisplayName("should reload when a holiday changes")
+    void shouldReloadOnHolidayChange() {
+        when(repository.findAllHolidaysFrom(any())).thenReturn(List.of());
+        calendar.refresh();
+        assertThat(calendar.isClosed("MCX", TODAY)).isFalse();
+
+        when(repository.findAllHolidaysFrom(any())).thenReturn(List.of(holiday("MCX", TODAY)));
+        calendar.onMarketHolidayChanged(new MarketHolidayChangedEvent(1L, Instant.now()));
+
+        assertThat(calendar.isClosed("MCX", TODAY)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should open and close exchanges on their local session hours and holiday dates")
+    void shouldFollowLocalSessions() {
+        properties.getSessions().put("NSE", new SessionProperties());
+        MarketCalendar sessionCalendar = new MarketCalendar(
+            repository,
+            exchangeRepository,
+            properties,
+            Clock.fixed(Instant.parse("2025-11-14T04:00:00Z"), ZoneOffset.UTC)
+        );
+        when(exchangeRepository.findAll()).thenReturn(
+            List.of(new Exchange().code("NSE").timezone("Asia/Kolkata"), new Exchange().code("MCX").timezone("Asia/Kolkata"))
+        );
+        // Monday 2025-11-17 is an NSE holiday.
+        when(repository.findAllHolidaysFrom(any())).thenReturn(List.of(holiday("NSE", LocalDate.parse("2025-11-17"))));
+        sessionCalendar.refresh();
+
+        // Friday 09:30 IST.
+        assertThat(sessionCalendar.isOpen("NSE", Instant.parse("2025-11-14T04:00:00Z"))).isTrue();
+        // Friday 15:30 IST, the close itself.
+        assertThat(sessionCalendar.isOpen("NSE", Instant.parse("2025-11-14T10:00:00Z"))).isFalse();
+        // Saturday 10:00 IST.
+        assertThat(sessionCalendar.isOpen("NSE", Instant.parse("2025-11-15T04:30:00Z"))).isFalse();
+        // Already Monday in Kolkata while still Sunday in UTC.
+        assertThat(sessionCalendar.isHoliday("NSE", Instant.parse("2025-11-16T23:00:00Z"))).isTrue();
+        // Monday 10:00 IST.
+        assertThat(sessionCalendar.isOpen("NSE", Instant.parse("2025-11-17T04:30:00Z"))).isFalse();
+        // Without a configured session the exchange trades around the clock.
+        assertThat(sessionCalendar.isOpen("MCX", Instant.parse("2025-11-15T20:00:00Z"))).isTrue();
+
+        assertThat(sessionCalendar.nextTransition("NSE", Instant.parse("2025-11-14T02:00:00Z"))).isEqualTo(
+            Instant.parse("2025-11-14T03:45:00Z")
+        );
+        assertThat(sessionCalendar.nextTransition("NSE", Instant.parse("2025-11-14T04:00:00Z"))).isEqualTo(
+            Instant.parse("2025-11-14T10:00:00Z")
+        );
+        assertThat(sessionCalendar.nextTransition("NSE", Instant.parse("2025-11-14T12:00:00Z"))).isEqualTo(
+            Instant.parse("2025-11-14T18:30:00Z")
+        );
+
+        assertThat(sessionCalendar.lastSessionClose("NSE", Instant.parse("2025-11-14T04:00:00Z"))).isEqualTo(
+            Instant.parse("2025-11-13T10:00:00Z")
+        );
+        assertThat(sessionCalendar.lastSessionClose("NSE", Instant.parse("2025-11-14T10:00:00Z"))).isEqualTo(
+            Instant.parse("2025-11-14T10:00:00Z")
+        );
+        assertThat(sessionCalendar.lastSessionClose("MCX", Instant.parse("2025-11-15T20:00:00Z"))).isEqualTo(
+            Instant.parse("2025-11-15T18:30:00Z")
+        );
+    }
+
+    private static MarketHoliday holiday(String exchangeCode, LocalDate date) {
+        return new MarketHoliday().exchange(new Exchange().code(exchangeCode)).tradeDate(date).isHoliday(true);
+    }
+}
@@ -0,0 +1,130 @@
+package com.rnexchange.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.IntegrationTest;
+import com.rnexchange.domain.enumeration.AssetClass;
+import com.rnexchange.domain.enumeration.Currency;
+import com.rnexchange.domain.enumeration.ExchangeStatus;
+import com.rnexchange.repository.ExchangeRepository;
+import com.rnexchange.repository.ExchangeVolatilityOverrideRepository;
+import com.rnexchange.repository.InstrumentRepository;
+import com.rnexchange.repository.MarketHolidayRepository;
+import com.rnexchange.service.dto.FeedState;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * The random walk is clamped to the volatility band, so the guard is only reachable through replayed ticks.
+ */
+@IntegrationTest
+class MockMarketDataReplayIT extends com.rnexchange.service.seed.AbstractBaselineSeedIT {
+
+    private static final String CSV = String.join(
+        "\n",
+        "timestamp,symbol,price,volume",
+        "2025-11-14T09:15:00Z,ITC,100.00,10",
+        "2025-11-14T09:15:00.100Z,ITC,106.00,10",
+        "2025-11-14T09:15:00.200Z,HDFC,200.00,10",
+        "2025-11-14T09:15:00.300Z,HDFC,201.00,10"
+    );
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private ExchangeRepository exchangeRepository;
+
+    @Autowired
+    private MarketHolidayRepository marketHolidayRepository;
+
+    @Autowired
+    private ExchangeVolatilityOverrideRepository exchangeVolatilityOverrideRepository;
+
+    @Autowired
+    private RollingMinuteVolatilityGuard volatilityGuard;
+
+    @Autowired
+    private MockMarketDataService mockMarketDataService;
+
+    @DynamicPropertySource
+    static void replayProperties(DynamicPropertyRegistry registry) throws IOException {
+        Path file = Files.createTempFile("guard-replay", ".csv");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, CSV);
+        registry.add("marketdata.mock.replay.enabled", () -> true);
+        registry.add("marketdata.mock.replay.file", file::toString);
+        registry.add("marketdata.mock.replay.speed", () -> "MAX");
+    }
+
+    @BeforeEach
+    void resetUniverse() {
+        mockMarketDataService.stop();
+        exchangeVolatilityOverrideRepository.deleteAll();
+        instrumentRepository.deleteAll();
+        exchangeRepository.deleteAll();
+        marketHolidayRepository.deleteAll();
+    }
+
+    @AfterEach
+    void stopFeed() {
+        mockMarketDataService.stop();
+        volatilityGuard.remove("ITC");
+        volatilityGuard.remove("HDFC");
+    }
+
+    @Test
+    void replayedTickBeyondBandTriggersGuard() {
+        seedInstrument("ITC");
+        seedInstrument("HDFC");
+
+        mockMarketDataService.start();
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> mockMarketDataService.getStatus().globalState() == FeedState.STOPPED);
+
+        RollingMinuteVolatilityGuard.GuardSnapshot breached = volatilityGuard.snapshot("ITC").orElseThrow();
+        assertThat(breached.upSuppressed()).isTrue();
+        assertThat(breached.downSuppressed()).isFalse();
+        assertThat(breached.anchorPrice()).isEqualByComparingTo("100.00");
+
+        RollingMinuteVolatilityGuard.GuardSnapshot quiet = volatilityGuard.snapshot("HDFC").orElseThrow();
+        assertThat(quiet.upSuppressed()).isFalse();
+        assertThat(quiet.downSuppressed()).isFalse();
+    }
+
+    private void seedInstrument(String symbol) {
+        com.rnexchange.domain.Exchange exchange = exchangeRepository
+            .findOneByCode("NSE")
+            .orElseGet(() ->
+                exchangeRepository.save(
+                    new com.rnexchange.domain.Exchange()
+                        .code("NSE")
+                        .name("NSE Exchange")
+                        .timezone("Asia/Kolkata")
+                        .status(ExchangeStatus.ACTIVE)
+                )
+            );
+        instrumentRepository.save(
+            new com.rnexchange.domain.Instrument()
+                .symbol(symbol)
+                .name(symbol + " Ltd")
+                .assetClass(AssetClass.EQUITY)
+                .exchangeCode("NSE")
+                .tickSize(BigDecimal.valueOf(0.05))
+                .lotSize(1L)
+                .currency(Currency.INR)
+                .status("ACTIVE")
+                .exchange(exchange)
+        );
+    }
+}
@@ -3,19 +3,29 @@ package com.rnexchange.service.marketdata;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.rnexchange.IntegrationTest;
+import com.rnexchange.domain.ExchangeVolatilityOverride;
 import com.rnexchange.domain.enumeration.AssetClass;
 import com.rnexchange.domain.enumeration.Currency;
 import com.rnexchange.domain.enumeration.ExchangeStatus;
 import com.rnexchange.repository.ExchangeRepository;
+import com.rnexchange.repository.ExchangeVolatilityOverrideRepository;
 import com.rnexchange.repository.InstrumentRepository;
 import com.rnexchange.repository.MarketHolidayRepository;
+import com.rnexchange.service.InstrumentService;
+import com.rnexchange.service.MarketHolidayService;
 import com.rnexchange.service.dto.ExchangeStatusDTO;
 import com.rnexchange.service.dto.FeedState;
 import com.rnexchange.service.dto.FeedStatusDTO;
+import com.rnexchange.service.dto.InstrumentDTO;
+import com.rnexchange.service.mapper.InstrumentMapper;
+import com.rnexchange.service.mapper.MarketHolidayMapper;
+import com.rnexchange.service.marketdata.events.DefaultPriceAppliedEvent;
 import com.rnexchange.service.marketdata.events.FeedStartedEvent;
 import com.rnexchange.service.marketdata.events.FeedStoppedEvent;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.concurrent.TimeUnit;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +48,27 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
     @Autowired
     private MarketHolidayRepository marketHolidayRepository;
 
+    @Autowired
+    private ExchangeVolatilityOverrideRepository exchangeVolatilityOverrideRepository;
+
+    @Autowired
+    private InstrumentService instrumentService;
+
+    @Autowired
+    private MarketHolidayService marketHolidayService;
+
+    @Autowired
+    private MarketHolidayMapper marketHolidayMapper;
+
+    @Autowired
+    private MarketCalendar marketCalendar;
+
+    @Autowired
+    private InstrumentMapper instrumentMapper;
+
+    @Autowired
+    private RollingMinuteVolatilityGuard volatilityGuard;
+
     @Autowired(required = false)
     private MockMarketDataService mockMarketDataService;
 
@@ -48,6 +79,7 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
     void assertServicePresent() {
         assertThat(mockMarketDataService).as("MockMarketDataService bean must be provided before running integration tests").isNotNull();
         mockMarketDataService.stop();
+        exchangeVolatilityOverrideRepository.deleteAll();
         instrumentRepository.deleteAll();
         exchangeRepository.deleteAll();
         marketHolidayRepository.deleteAll();
@@ -99,7 +131,7 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
     @Test
     void refusesToStartWhenAllExchangesClosed() {
         seedInstrument("HDFCBANK", "BSE");
-        insertHoliday("BSE", LocalDate.now());
+        insertHoliday("BSE", LocalDate.now(ZoneId.of("Asia/Kolkata")));
 
         mockMarketDataService.start();
 
@@ -107,6 +139,65 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
         assertThat(status.globalState()).isEqualTo(FeedState.STOPPED);
     }
 
+    @Test
+    void startAuditsDefaultPriceForInstrumentWithoutPriorClose() {
+        seedInstrument("WIPRO", "NSE");
+
+        mockMarketDataService.start();
+
+        assertThat(applicationEvents.stream(DefaultPriceAppliedEvent.class))
+            .anySatisfy(event -> {
+                assertThat(event.symbol()).isEqualTo("WIPRO");
+                assertThat(event.exchange()).isEqualTo("NSE");
+                assertThat(event.appliedDefault()).isEqualByComparingTo("100.00");
+            });
+    }
+
+    @Test
+    void instrumentChangesAdjustRunningFeedWithoutRestart() {
+        seedInstrument("RELIANCE", "NSE");
+        mockMarketDataService.start();
+        Instant startedAt = mockMarketDataService.getStatus().startedAt();
+
+        InstrumentDTO added = instrumentService.save(instrumentMapper.toDto(newInstrument("ITC", "NSE")));
+
+        assertThat(nseInstrumentCount()).isEqualTo(2);
+        Awaitility.await().atMost(3, TimeUnit.SECONDS).until(() -> volatilityGuard.snapshot("ITC").isPresent());
+
+        added.setStatus("INACTIVE");
+        instrumentService.update(added);
+
+        assertThat(nseInstrumentCount()).isEqualTo(1);
+        Awaitility.await().atMost(3, TimeUnit.SECONDS).until(() -> volatilityGuard.snapshot("ITC").isEmpty());
+        assertThat(mockMarketDataService.getStatus().startedAt()).isEqualTo(startedAt);
+        assertThat(mockMarketDataService.getStatus().globalState()).isEqualTo(FeedState.RUNNING);
+    }
+
+    @Test
+    void assetClassChangeRetunesVolatilityAndKeepsSession() {
+        InstrumentDTO gold = instrumentMapper.toDto(seedInstrument("GOLDBEES", "NSE"));
+        exchangeVolatilityOverrideRepository.save(
+            new ExchangeVolatilityOverride()
+                .exchangeCode("NSE")
+                .assetClass(AssetClass.COMMODITY.name())
+                .volatilityPct(new BigDecimal("0.02"))
+                .lastModified(Instant.now())
+        );
+        mockMarketDataService.start();
+        Awaitility.await()
+            .atMost(3, TimeUnit.SECONDS)
+            .until(() -> mockMarketDataService.findInstrumentState("GOLDBEES").orElseThrow().getCumulativeVolume() > 0);
+        BigDecimal sessionOpen = mockMarketDataService.findInstrumentState("GOLDBEES").orElseThrow().getSessionOpen();
+
+        gold.setAssetClass(AssetClass.COMMODITY);
+        instrumentService.update(gold);
+
+        InstrumentState retuned = mockMarketDataService.findInstrumentState("GOLDBEES").orElseThrow();
+        assertThat(retuned.getVolatility()).isEqualTo(0.02d);
+        assertThat(retuned.getSessionOpen()).isEqualByComparingTo(sessionOpen);
+        assertThat(retuned.getCumulativeVolume()).isPositive();
+    }
+
     @Test
     void ticksPerSecondMetricsReflectLoad() {
         seedInstrument("TCS", "NSE");
@@ -137,7 +228,7 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
     void holidayExchangeRemainsInactiveWhileOthersTick() {
         seedInstrument("NSESTAR", "NSE");
         seedInstrument("BSESTAR", "BSE");
-        insertHoliday("NSE", LocalDate.now());
+        insertHoliday("NSE", LocalDate.now(ZoneId.of("Asia/Kolkata")));
 
         mockMarketDataService.start();
 
@@ -188,7 +279,7 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
             );
         mockMarketDataService.stop();
 
-        insertHoliday("NSE", LocalDate.now());
+        insertHoliday("NSE", LocalDate.now(ZoneId.of("Asia/Kolkata")));
         mockMarketDataService.start();
 
         Awaitility.await()
@@ -212,7 +303,66 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
         assertThat(nseStatus.ticksPerSecond()).isEqualTo(0);
     }
 
-    private void seedInstrument(String symbol, String exchangeCode) {
+    @Test
+    void holidayChangeParksRunningExchangeWithoutRestart() {
+        seedInstrument("NIFTYBEES", "NSE");
+        seedInstrument("SENSEXBEES", "BSE");
+        mockMarketDataService.start();
+        Instant startedAt = mockMarketDataService.getStatus().startedAt();
+        assertThat(exchangeStatus("NSE").state()).isEqualTo(FeedState.RUNNING);
+
+        marketHolidayService.save(
+            marketHolidayMapper.toDto(
+                new com.rnexchange.domain.MarketHoliday()
+                    .exchange(exchangeRepository.findOneByCode("NSE").orElseThrow())
+                    .tradeDate(LocalDate.now(ZoneId.of("Asia/Kolkata")))
+                    .reason("Test Holiday")
+                    .isHoliday(true)
+            )
+        );
+
+        assertThat(exchangeStatus("NSE").state()).isEqualTo(FeedState.HOLIDAY);
+        assertThat(exchangeStatus("BSE").state()).isEqualTo(FeedState.RUNNING);
+        assertThat(mockMarketDataService.getStatus().startedAt()).isEqualTo(startedAt);
+    }
+
+    @Test
+    void configuredSessionGatesExchange() {
+        seedInstrument("GOLDM", "MCX");
+        seedInstrument("INFY", "NSE");
+
+        mockMarketDataService.start();
+
+        boolean mcxInSession = marketCalendar.isOpen("MCX", Instant.now());
+        assertThat(exchangeStatus("MCX").state()).isEqualTo(mcxInSession ? FeedState.RUNNING : FeedState.STOPPED);
+        assertThat(exchangeStatus("NSE").state()).isEqualTo(FeedState.RUNNING);
+    }
+
+    private ExchangeStatusDTO exchangeStatus(String exchangeCode) {
+        return mockMarketDataService
+            .getStatus()
+            .exchanges()
+            .stream()
+            .filter(status -> exchangeCode.equals(status.exchangeCode()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private int nseInstrumentCount() {
+        return mockMarketDataService
+            .getStatus()
+            .exchanges()
+            .stream()
+            .filter(status -> status.exchangeCode().equals("NSE"))
+            .mapToInt(ExchangeStatusDTO::activeInstruments)
+            .sum();
+    }
+
+    private com.rnexchange.domain.Instrument seedInstrument(String symbol, String exchangeCode) {
+        return instrumentRepository.save(newInstrument(symbol, exchangeCode));
+    }
+
+    private com.rnexchange.domain.Instrument newInstrument(String symbol, String exchangeCode) {
         com.rnexchange.domain.Exchange exchange = exchangeRepository
             .findOneByCode(exchangeCode)
             .orElseGet(() ->
@@ -225,7 +375,7 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
                 )
             );
 
-        com.rnexchange.domain.Instrument instrument = new com.rnexchange.domain.Instrument()
+        return new com.rnexchange.domain.Instrument()
             .symbol(symbol)
             .name(symbol + " Ltd")
             .assetClass(AssetClass.EQUITY)
@@ -235,8 +385,6 @@ class MockMarketDataServiceIT extends com.rnexchange.service.seed.AbstractBaseli
             .currency(Currency.INR)
             .status("ACTIVE")
             .exchange(exchange);
-
-        instrumentRepository.save(instrument);
     }
 
     private void insertHoliday(String exchangeCode, LocalDate date) {
@@ -7,6 +7,7 @@ import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayDeque;
 import java.util.Queue;
+import java.util.SplittableRandom;
 import java.util.function.DoubleSupplier;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -66,6 +67,86 @@ class PriceGeneratorTest {
         assertThat(ceilingResult).isEqualByComparingTo("105.00");
     }
 
+    @Test
+    @DisplayName("should walk scaled prices and clamp them to the configured rails")
+    void shouldWalkScaledPrices() {
+        // Steps beyond the rails are redrawn like steps beyond the guard band before they are clamped.
+        StubGaussian gaussian = new StubGaussian(0.5d, 0.5d, 100.0d, 100.0d, 100.0d, 100.0d, -100.0d, -100.0d, -100.0d, -100.0d);
+        PriceGenerator generator = new PriceGenerator(
+            gaussian,
+            new BigDecimal("95.00"),
+            new BigDecimal("105.00"),
+            2,
+            MathContext.DECIMAL64
+        );
+
+        long next = generator.nextPriceScaled(10_000L, 0.01d);
+        assertThat(next).isEqualTo(Math.round(10_000d * Math.exp(0.01d * 0.5d) * Math.exp(0.01d * 0.5d)));
+
+        long clamped = generator.nextPriceScaled(next, 0.05d);
+        assertThat(FixedPointPrice.toDecimal(clamped)).isEqualByComparingTo("95.00");
+        assertThat(gaussian.calls).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("should redraw steps that leave the guard band and keep the rest of the walk")
+    void shouldRedrawStepsOutsideGuardBand() {
+        StubGaussian gaussian = new StubGaussian(100.0d, -100.0d, 0.5d);
+        PriceGenerator generator = new PriceGenerator(
+            gaussian,
+            new BigDecimal("1.00"),
+            new BigDecimal("1000.00"),
+            1,
+            MathContext.DECIMAL64
+        );
+
+        long next = generator.nextPriceScaled(10_000L, 0.01d, 9_500L, 10_500L);
+
+        assertThat(next).isEqualTo(Math.round(10_000d * Math.exp(0.01d * 0.5d)));
+        assertThat(gaussian.calls).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should clamp to the guard band once redraws are exhausted")
+    void shouldClampToGuardBand() {
+        StubGaussian gaussian = new StubGaussian(100.0d, 100.0d, 100.0d, 100.0d, -100.0d, -100.0d, -100.0d, -100.0d);
+        PriceGenerator generator = new PriceGenerator(
+            gaussian,
+            new BigDecimal("1.00"),
+            new BigDecimal("1000.00"),
+            1,
+            MathContext.DECIMAL64
+        );
+
+        assertThat(generator.nextPriceScaled(10_000L, 0.01d, 9_500L, 10_500L)).isEqualTo(10_500L);
+        assertThat(generator.nextPriceScaled(10_000L, 0.01d, 9_500L, 10_500L)).isEqualTo(9_500L);
+        assertThat(gaussian.calls).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("should repeat a walk for the same feed seed and symbol and diverge across symbols")
+    void shouldRepeatSeededWalks() {
+        long[] first = walk(SeededRandoms.forSymbol(42L, "INFY"));
+        long[] replay = walk(SeededRandoms.forSymbol(42L, "INFY"));
+        long[] otherSymbol = walk(SeededRandoms.forSymbol(42L, "TCS"));
+        long[] otherSeed = walk(SeededRandoms.forSymbol(43L, "INFY"));
+
+        assertThat(replay).containsExactly(first);
+        assertThat(otherSymbol).isNotEqualTo(first);
+        assertThat(otherSeed).isNotEqualTo(first);
+    }
+
+    private static long[] walk(SplittableRandom random) {
+        PriceGenerator generator = new PriceGenerator(random, new BigDecimal("1.00"), new BigDecimal("1000.00"), 1);
+        long[] prices = new long[32];
+        long last = 10_000L;
+        for (int i = 0; i < prices.length; i++) {
+            last = generator.nextPriceScaled(last, 0.01d);
+            prices[i] = last;
+        }
+        return prices;
+    }
+
     private static final class StubGaussian implements DoubleSupplier {
 
         private final Queue<Double> values = new ArrayDeque<>();
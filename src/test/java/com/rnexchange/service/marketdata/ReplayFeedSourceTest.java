@@ -0,0 +1,82 @@
+package com.rnexchange.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.config.MockMarketDataProperties.ReplaySpeed;
+import com.rnexchange.service.marketdata.ReplayFeedSource.ReplayTick;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayFeedSourceTest {
+
+    private static final String CSV = String.join(
+        "\n",
+        "timestamp,symbol,price,volume",
+        "2025-11-14T09:15:00Z,INFY,1500.25,10",
+        "# opening auction done",
+        "2025-11-14T09:15:00.500Z,TCS,3000,5",
+        "not-a-time,INFY,1501.00,10",
+        "",
+        "1763111701000,INFY,1502.5,20",
+        "2025-11-14T09:15:10Z,TCS,2999.95,7",
+        "2025-11-14T09:15:05Z,INFY,1499.00,3"
+    );
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should pace recorded ticks by their offsets scaled by the replay speed")
+    void shouldPaceTicksBySpeed() throws IOException {
+        try (ReplayFeedSource source = ReplayFeedSource.open(write("ticks.csv"), ReplaySpeed.X10)) {
+            List<ReplayTick> ticks = new ArrayList<>();
+
+            assertThat(source.drainDue(0, 100, ticks::add)).isEqualTo(1);
+            assertThat(source.drainDue(99, 100, ticks::add)).isEqualTo(1);
+            assertThat(source.drainDue(100, 100, ticks::add)).isEqualTo(1);
+            assertThat(source.isExhausted()).isFalse();
+            assertThat(source.drainDue(1_000, 100, ticks::add)).isEqualTo(2);
+
+            assertThat(ticks).extracting(ReplayTick::symbol).containsExactly("INFY", "TCS", "INFY", "TCS", "INFY");
+            assertThat(ticks.get(1).priceScaled()).isEqualTo(300_000L);
+            assertThat(ticks.get(2).timestamp()).isEqualTo(Instant.parse("2025-11-14T09:15:01Z"));
+            assertThat(ticks.get(4).timestamp()).isEqualTo(Instant.parse("2025-11-14T09:15:10Z"));
+            assertThat(source.isExhausted()).isTrue();
+            assertThat(source.getTicksEmitted()).isEqualTo(5);
+            assertThat(source.getRowsSkipped()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("should stream gzip files at max speed in bounded chunks")
+    void shouldStreamGzipAtMaxSpeed() throws IOException {
+        Path file = directory.resolve("ticks.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (ReplayFeedSource source = ReplayFeedSource.open(file, ReplaySpeed.MAX)) {
+            List<ReplayTick> ticks = new ArrayList<>();
+
+            assertThat(source.drainDue(0, 3, ticks::add)).isEqualTo(3);
+            assertThat(source.drainDue(0, 3, ticks::add)).isEqualTo(2);
+
+            assertThat(ticks).extracting(ReplayTick::volume).containsExactly(10L, 5L, 20L, 7L, 3L);
+            assertThat(source.isExhausted()).isTrue();
+        }
+    }
+
+    private Path write(String name) throws IOException {
+        return Files.writeString(directory.resolve(name), CSV, StandardCharsets.UTF_8);
+    }
+}
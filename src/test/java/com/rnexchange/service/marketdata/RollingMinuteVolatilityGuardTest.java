@@ -21,13 +21,13 @@ class RollingMinuteVolatilityGuardTest {
         BigDecimal anchor = new BigDecimal("100.00");
 
         guard.register(symbol, anchor, new BigDecimal("104.90"));
-        assertThat(guard.canMoveUp(symbol)).isTrue();
-        assertThat(guard.canMoveDown(symbol)).isTrue();
+        assertThat(upSuppressed(guard, symbol)).isFalse();
+        assertThat(downSuppressed(guard, symbol)).isFalse();
 
         clock.advanceSeconds(1);
         guard.register(symbol, anchor, new BigDecimal("105.60"));
-        assertThat(guard.canMoveUp(symbol)).isFalse();
-        assertThat(guard.canMoveDown(symbol)).isTrue();
+        assertThat(upSuppressed(guard, symbol)).isTrue();
+        assertThat(downSuppressed(guard, symbol)).isFalse();
 
         Optional<RollingMinuteVolatilityGuard.GuardSnapshot> snapshot = guard.snapshot(symbol);
         assertThat(snapshot).isPresent();
@@ -38,8 +38,8 @@ class RollingMinuteVolatilityGuardTest {
         clock.advanceSeconds(61);
         guard.register(symbol, anchor, new BigDecimal("104.20"));
 
-        assertThat(guard.canMoveUp(symbol)).isTrue();
-        assertThat(guard.canMoveDown(symbol)).isTrue();
+        assertThat(upSuppressed(guard, symbol)).isFalse();
+        assertThat(downSuppressed(guard, symbol)).isFalse();
     }
 
     @Test
@@ -52,8 +52,8 @@ class RollingMinuteVolatilityGuardTest {
         BigDecimal anchor = new BigDecimal("100.00");
 
         guard.register(symbol, anchor, new BigDecimal("94.50"));
-        assertThat(guard.canMoveDown(symbol)).isFalse();
-        assertThat(guard.canMoveUp(symbol)).isTrue();
+        assertThat(downSuppressed(guard, symbol)).isTrue();
+        assertThat(upSuppressed(guard, symbol)).isFalse();
 
         Optional<RollingMinuteVolatilityGuard.GuardSnapshot> snapshot = guard.snapshot(symbol);
         assertThat(snapshot).isPresent();
@@ -63,6 +63,86 @@ class RollingMinuteVolatilityGuardTest {
         assertThat(value.anchorPrice()).isEqualByComparingTo(anchor);
     }
 
+    @Test
+    @DisplayName("should keep extremes for the full window and drop them once their bucket expires")
+    void shouldExpireExtremesByBucket() {
+        ControllableClock clock = new ControllableClock(Instant.parse("2025-11-14T09:30:00Z"));
+        RollingMinuteVolatilityGuard guard = new RollingMinuteVolatilityGuard(Duration.ofSeconds(60), new BigDecimal("0.05"), clock);
+
+        String symbol = "WIPRO";
+        long anchor = 10_000L;
+
+        guard.register(symbol, anchor, 10_600L);
+        for (int i = 0; i < 500; i++) {
+            guard.register(symbol, anchor, 10_000L);
+        }
+        assertThat(upSuppressed(guard, symbol)).isTrue();
+
+        clock.advanceSeconds(60);
+        guard.register(symbol, anchor, 10_000L);
+        assertThat(upSuppressed(guard, symbol)).isTrue();
+
+        clock.advanceSeconds(1);
+        guard.register(symbol, anchor, 10_000L);
+        assertThat(upSuppressed(guard, symbol)).isFalse();
+        assertThat(downSuppressed(guard, symbol)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should report trigger and release transitions only on edges")
+    void shouldReportTransitionsOnEdges() {
+        ControllableClock clock = new ControllableClock(Instant.parse("2025-11-14T09:40:00Z"));
+        RollingMinuteVolatilityGuard guard = new RollingMinuteVolatilityGuard(Duration.ofSeconds(60), new BigDecimal("0.05"), clock);
+
+        String symbol = "SBIN";
+        long anchor = 10_000L;
+
+        assertThat(guard.register(symbol, anchor, 10_100L).changed()).isFalse();
+
+        RollingMinuteVolatilityGuard.GuardTransition triggered = guard.register(symbol, anchor, 10_600L);
+        assertThat(triggered.upTriggered()).isTrue();
+        assertThat(triggered.downTriggered()).isFalse();
+        assertThat(guard.register(symbol, anchor, 10_700L).changed()).isFalse();
+
+        clock.advanceSeconds(61);
+        RollingMinuteVolatilityGuard.GuardTransition released = guard.register(symbol, anchor, 10_000L);
+        assertThat(released.released()).isTrue();
+        assertThat(guard.register(symbol, anchor, 10_000L)).isSameAs(RollingMinuteVolatilityGuard.GuardTransition.NONE);
+    }
+
+    @Test
+    @DisplayName("should expose the band bounds around the anchor and none without an anchor")
+    void shouldExposeBandBounds() {
+        RollingMinuteVolatilityGuard guard = new RollingMinuteVolatilityGuard(Duration.ofSeconds(60), new BigDecimal("0.05"));
+
+        assertThat(guard.upperBound("INFY", 10_000L)).isEqualTo(10_500L);
+        assertThat(guard.lowerBound("INFY", 10_000L)).isEqualTo(9_500L);
+        assertThat(guard.upperBound("INFY", 20_000L)).isEqualTo(21_000L);
+        assertThat(guard.upperBound("TCS", 0L)).isEqualTo(Long.MAX_VALUE);
+        assertThat(guard.lowerBound("TCS", 0L)).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    @DisplayName("should forget a removed symbol")
+    void shouldForgetRemovedSymbol() {
+        RollingMinuteVolatilityGuard guard = new RollingMinuteVolatilityGuard(Duration.ofSeconds(60), new BigDecimal("0.05"));
+        guard.register("INFY", 10_000L, 10_600L);
+        assertThat(upSuppressed(guard, "INFY")).isTrue();
+
+        guard.remove("INFY");
+
+        assertThat(guard.snapshot("INFY")).isEmpty();
+        assertThat(upSuppressed(guard, "INFY")).isFalse();
+    }
+
+    private static boolean upSuppressed(RollingMinuteVolatilityGuard guard, String symbol) {
+        return guard.snapshot(symbol).map(RollingMinuteVolatilityGuard.GuardSnapshot::upSuppressed).orElse(false);
+    }
+
+    private static boolean downSuppressed(RollingMinuteVolatilityGuard guard, String symbol) {
+        return guard.snapshot(symbol).map(RollingMinuteVolatilityGuard.GuardSnapshot::downSuppressed).orElse(false);
+    }
+
     private static final class ControllableClock extends java.time.Clock {
 
         private Instant current;
@@ -7,6 +7,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
@@ -69,6 +70,20 @@ class FeedLifecycleAuditListenerTest {
         assertThat(payload.get("reason").asText()).isEqualTo("HOLIDAY_GUARD");
     }
 
+    @Test
+    void logsDefaultPriceFallbackWithSymbolExchangeAndDefault() throws Exception {
+        listener.onDefaultPriceApplied(
+            new DefaultPriceAppliedEvent("GOLD", "MCX", new BigDecimal("100.00"), Instant.parse("2025-11-14T09:00:00Z"))
+        );
+
+        JsonNode payload = latestPayload();
+        assertThat(payload.get("action").asText()).isEqualTo("DEFAULT_PRICE_APPLIED");
+        assertThat(payload.get("symbol").asText()).isEqualTo("GOLD");
+        assertThat(payload.get("exchanges").get(0).asText()).isEqualTo("MCX");
+        assertThat(payload.get("appliedDefault").asText()).isEqualTo("100.00");
+        assertThat(payload.get("actorRole").asText()).isEqualTo("SYSTEM");
+    }
+
     private JsonNode latestPayload() throws Exception {
         List<ILoggingEvent> events = listAppender.list;
         assertThat(events).isNotEmpty();
@@ -0,0 +1,154 @@
+package com.rnexchange.service.trading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.service.trading.AccountExposureBook.ExposureSnapshot;
+import com.rnexchange.service.trading.AccountExposureBook.PositionExposure;
+import com.rnexchange.service.trading.AccountExposureBook.Reservation;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AccountExposureBookTest {
+
+    private final AccountExposureBook book = new AccountExposureBook();
+
+    @Test
+    @DisplayName("should admit concurrent orders of one account only while their margin fits the balance")
+    void shouldReserveAtomicallyPerAccount() throws InterruptedException {
+        book.track(1L, new BigDecimal("10000.00"), List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (book.reserve(1L, new BigDecimal("100.00")).accepted()) {
+                        accepted.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(book.available(1L)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    @DisplayName("should move filled margin to the position, free it when the position closes and release the rest")
+    void shouldTrackFillsAndReleases() {
+        book.track(1L, new BigDecimal("1000.00"), List.of());
+
+        Reservation buy = book.reserve(1L, new BigDecimal("400.00"));
+        book.bind(buy, 10L, "INFY", OrderSide.BUY, new BigDecimal("10"));
+        book.applyFill(10L, new BigDecimal("4"));
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "240.00", "160.00", "600.00"));
+
+        book.release(10L);
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "0.00", "160.00", "840.00"));
+
+        Reservation sell = book.reserve(1L, new BigDecimal("200.00"));
+        book.bind(sell, 11L, "INFY", OrderSide.SELL, new BigDecimal("4"));
+        book.applyFill(11L, new BigDecimal("4"));
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "0.00", "0.00", "1000.00"));
+
+        Reservation unbound = book.reserve(1L, new BigDecimal("300.00"));
+        book.release(unbound);
+        book.release(unbound);
+        assertThat(book.available(1L)).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    @DisplayName("should seed positions and reconcile balance and closed orders from the database")
+    void shouldSeedAndReconcile() {
+        List<PositionExposure> positions = List.of(new PositionExposure("TCS", new BigDecimal("-5"), new BigDecimal("250.00")));
+        book.track(1L, new BigDecimal("1000.00"), positions);
+        Reservation reservation = book.reserve(1L, new BigDecimal("100.00"));
+        book.bind(reservation, 20L, "TCS", OrderSide.BUY, new BigDecimal("5"));
+        assertThat(book.available(1L)).isEqualByComparingTo("650.00");
+
+        book.reconcile(1L, new BigDecimal("2000.00"), positions, Set.of(20L), System.nanoTime());
+        assertThat(book.available(1L)).isEqualByComparingTo("1650.00");
+
+        book.reconcile(1L, new BigDecimal("2000.00"), positions, Set.of(), System.nanoTime() - TimeUnit.HOURS.toNanos(1));
+        assertThat(book.available(1L)).isEqualByComparingTo("1650.00");
+
+        book.reconcile(1L, new BigDecimal("2000.00"), positions, Set.of(), System.nanoTime());
+        assertThat(book.available(1L)).isEqualByComparingTo("1750.00");
+
+        book.forget(1L);
+        assertThat(book.isTracked(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should rebuild position margin from the database unless the account took a fill since the cut-off")
+    void shouldRebuildPositionsOnReconcile() {
+        book.track(1L, new BigDecimal("1000.00"), List.of(new PositionExposure("TCS", new BigDecimal("-5"), new BigDecimal("250.00"))));
+        List<PositionExposure> persisted = List.of(new PositionExposure("INFY", new BigDecimal("4"), new BigDecimal("100.00")));
+
+        book.reconcile(1L, new BigDecimal("1000.00"), persisted, Set.of(), System.nanoTime());
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "0.00", "100.00", "900.00"));
+
+        Reservation sell = book.reserve(1L, new BigDecimal("60.00"));
+        book.bind(sell, 30L, "INFY", OrderSide.SELL, new BigDecimal("2"));
+        long beforeFill = System.nanoTime();
+        book.applyFill(30L, new BigDecimal("2"));
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "0.00", "50.00", "950.00"));
+
+        book.reconcile(1L, new BigDecimal("1000.00"), persisted, Set.of(), beforeFill);
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "0.00", "50.00", "950.00"));
+
+        book.reconcile(1L, new BigDecimal("1000.00"), List.of(), Set.of(), System.nanoTime());
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "0.00", "0.00", "1000.00"));
+    }
+
+    @Test
+    @DisplayName("should reserve only what a replacement adds and release what a smaller one no longer needs")
+    void shouldReserveReplacementDelta() {
+        book.track(1L, new BigDecimal("1000.00"), List.of());
+        Reservation original = book.reserve(1L, new BigDecimal("600.00"));
+        book.bind(original, 40L, "INFY", OrderSide.BUY, new BigDecimal("10"));
+
+        Reservation smaller = book.reserveReplacement(1L, 40L, new BigDecimal("240.00"));
+        assertThat(smaller.accepted()).isTrue();
+        assertThat(smaller.availableBefore()).isEqualByComparingTo("1000.00");
+        assertThat(book.available(1L)).isEqualByComparingTo("400.00");
+        book.rebind(smaller, 40L, "INFY", OrderSide.BUY, new BigDecimal("240.00"), new BigDecimal("4"));
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "240.00", "0.00", "760.00"));
+
+        assertThat(book.reserveReplacement(1L, 40L, new BigDecimal("1001.00")).accepted()).isFalse();
+        Reservation larger = book.reserveReplacement(1L, 40L, new BigDecimal("900.00"));
+        assertThat(larger.accepted()).isTrue();
+        assertThat(book.available(1L)).isEqualByComparingTo("100.00");
+        book.rebind(larger, 40L, "INFY", OrderSide.BUY, new BigDecimal("900.00"), new BigDecimal("15"));
+        book.applyFill(40L, new BigDecimal("5"));
+        assertThat(book.snapshot(1L)).get().satisfies(snapshot -> assertSnapshot(snapshot, "600.00", "300.00", "100.00"));
+
+        book.release(40L);
+        assertThat(book.available(1L)).isEqualByComparingTo("700.00");
+    }
+
+    private static void assertSnapshot(ExposureSnapshot snapshot, String blocked, String positionMargin, String available) {
+        assertThat(snapshot.blockedMargin()).isEqualByComparingTo(blocked);
+        assertThat(snapshot.positionMargin()).isEqualByComparingTo(positionMargin);
+        assertThat(snapshot.available()).isEqualByComparingTo(available);
+    }
+}
@@ -0,0 +1,73 @@
+package com.rnexchange.service.trading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rnexchange.config.TradingProperties;
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import com.rnexchange.repository.OrderRepository;
+import com.rnexchange.service.marketdata.MarketCalendar;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DayOrderExpirySweeperTest {
+
+    private static final Instant NOW = Instant.parse("2025-11-14T10:05:00Z");
+    private static final Instant CLOSE = Instant.parse("2025-11-14T10:00:00Z");
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final MarketCalendar marketCalendar = mock(MarketCalendar.class);
+    private final MatchingEngine matchingEngine = new MatchingEngine(new TradingProperties());
+    private final AccountExposureBook accountExposureBook = new AccountExposureBook();
+    private final DayOrderExpirySweeper sweeper = new DayOrderExpirySweeper(
+        orderRepository,
+        matchingEngine,
+        accountExposureBook,
+        marketCalendar
+    );
+
+    @AfterEach
+    void tearDown() {
+        matchingEngine.shutdown();
+    }
+
+    @Test
+    @DisplayName("should take DAY orders entered before the last close off the book and cancel them in one update")
+    void shouldExpireDayOrdersAfterClose() {
+        accountExposureBook.track(1L, new BigDecimal("10000.00"), List.of());
+        AccountExposureBook.Reservation reservation = accountExposureBook.reserve(1L, new BigDecimal("500.00"));
+        accountExposureBook.bind(reservation, 10L, "INFY", OrderSide.BUY, new BigDecimal("5"));
+        matchingEngine.submit(dayOrder(10L, "INFY", OrderSide.BUY, "100.00"));
+        matchingEngine.submit(dayOrder(11L, "TCS", OrderSide.SELL, "200.00"));
+
+        when(orderRepository.findDistinctVenueByTifAndStatusIn(eq(Tif.DAY), anyCollection())).thenReturn(List.of("NSE"));
+        when(marketCalendar.lastSessionClose("NSE", NOW)).thenReturn(CLOSE);
+        when(
+            orderRepository.findIdsAndSymbolsByVenueAndTifAndStatusInAndCreatedAtBefore(eq("NSE"), eq(Tif.DAY), anyCollection(), eq(CLOSE))
+        ).thenReturn(List.of(new Object[] { 10L, "INFY" }, new Object[] { 11L, "TCS" }));
+        when(orderRepository.updateStatusByIdInAndStatusIn(any(), anyCollection(), eq(OrderStatus.CANCELED), eq(NOW))).thenReturn(2);
+
+        assertThat(sweeper.sweep(NOW)).isEqualTo(2);
+
+        verify(orderRepository).updateStatusByIdInAndStatusIn(eq(List.of(10L, 11L)), anyCollection(), eq(OrderStatus.CANCELED), eq(NOW));
+        assertThat(matchingEngine.cancel("INFY", 10L)).isEmpty();
+        assertThat(matchingEngine.cancel("TCS", 11L)).isEmpty();
+        assertThat(accountExposureBook.available(1L)).isEqualByComparingTo("10000.00");
+    }
+
+    private static BookOrder dayOrder(Long id, String symbol, OrderSide side, String price) {
+        return new BookOrder(id, symbol, side, OrderType.LIMIT, new BigDecimal(price), BigDecimal.TEN, Tif.DAY);
+    }
+}
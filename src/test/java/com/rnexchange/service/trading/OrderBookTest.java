@@ -0,0 +1,189 @@
+package com.rnexchange.service.trading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderStatus;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OrderBookTest {
+
+    private final OrderBook book = new OrderBook("INFY");
+
+    @Test
+    @DisplayName("should rest non-crossing limit orders as WORKING")
+    void shouldRestNonCrossingLimitOrders() {
+        MatchResult bid = book.match(limit(1L, OrderSide.BUY, "99.00", "10"));
+        MatchResult ask = book.match(limit(2L, OrderSide.SELL, "101.00", "10"));
+
+        assertThat(bid.status()).isEqualTo(OrderStatus.WORKING);
+        assertThat(ask.status()).isEqualTo(OrderStatus.WORKING);
+        assertThat(bid.fills()).isEmpty();
+        assertThat(book.bestBid()).contains(new BigDecimal("99.00"));
+        assertThat(book.bestAsk()).contains(new BigDecimal("101.00"));
+        assertThat(book.restingOrderCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should match by price then time priority at the maker's price")
+    void shouldMatchByPriceTimePriority() {
+        book.match(limit(1L, OrderSide.SELL, "101.00", "5"));
+        book.match(limit(2L, OrderSide.SELL, "100.00", "5"));
+        book.match(limit(3L, OrderSide.SELL, "100.00", "5"));
+
+        MatchResult result = book.match(limit(4L, OrderSide.BUY, "101.00", "12"));
+
+        assertThat(result.status()).isEqualTo(OrderStatus.FILLED);
+        assertThat(result.fills()).extracting(Fill::makerOrderId).containsExactly(2L, 3L, 1L);
+        assertThat(result.fills()).extracting(Fill::price).usingElementComparator(BigDecimal::compareTo).containsExactly(
+            new BigDecimal("100.00"),
+            new BigDecimal("100.00"),
+            new BigDecimal("101.00")
+        );
+        Fill last = result.fills().get(2);
+        assertThat(last.quantity()).isEqualByComparingTo("2");
+        assertThat(last.makerFilled()).isFalse();
+        assertThat(book.restingOrderCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should rest the remainder of a partially filled limit order")
+    void shouldRestPartialRemainder() {
+        book.match(limit(1L, OrderSide.BUY, "100.00", "4"));
+
+        MatchResult result = book.match(limit(2L, OrderSide.SELL, "99.50", "10"));
+
+        assertThat(result.status()).isEqualTo(OrderStatus.PARTIAL);
+        assertThat(result.filledQuantity()).isEqualByComparingTo("4");
+        assertThat(result.remainingQuantity()).isEqualByComparingTo("6");
+        assertThat(result.fills().get(0).makerFilled()).isTrue();
+        assertThat(book.bestBid()).isEmpty();
+        assertThat(book.bestAsk()).contains(new BigDecimal("99.50"));
+    }
+
+    @Test
+    @DisplayName("should let MARKET orders sweep any price and cancel their remainder instead of resting it")
+    void shouldSweepWithMarketOrders() {
+        book.match(limit(1L, OrderSide.SELL, "100.00", "3"));
+        book.match(limit(2L, OrderSide.SELL, "150.00", "3"));
+
+        MatchResult result = book.match(market(3L, OrderSide.BUY, "90.00", "10"));
+
+        assertThat(result.status()).isEqualTo(OrderStatus.CANCELED);
+        assertThat(result.filledQuantity()).isEqualByComparingTo("6");
+        assertThat(result.remainingQuantity()).isEqualByComparingTo("4");
+        assertThat(book.restingOrderCount()).isZero();
+        assertThat(book.bestBid()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should restore persisted orders in arrival order without matching them")
+    void shouldRestoreRestingOrders() {
+        book.restore(limit(1L, OrderSide.SELL, "100.00", "6"), new BigDecimal("4"));
+        book.restore(limit(2L, OrderSide.SELL, "100.00", "5"), BigDecimal.ZERO);
+        book.restore(limit(1L, OrderSide.SELL, "100.00", "6"), new BigDecimal("4"));
+
+        assertThat(book.restingOrderCount()).isEqualTo(2);
+        MatchResult result = book.match(limit(3L, OrderSide.BUY, "100.00", "7"));
+        assertThat(result.fills()).extracting(Fill::makerOrderId).containsExactly(1L, 2L);
+        assertThat(result.fills().get(0).makerFilled()).isTrue();
+        assertThat(book.replace(limit(2L, OrderSide.SELL, "100.00", "2")).orElseThrow().filledQuantity()).isEqualByComparingTo("1");
+    }
+
+    @Test
+    @DisplayName("should cancel the unfilled remainder of an IOC order instead of resting it")
+    void shouldCancelIocRemainder() {
+        book.match(limit(1L, OrderSide.SELL, "100.00", "4"));
+
+        MatchResult result = book.match(limit(2L, OrderSide.BUY, "100.00", "10", Tif.IOC));
+
+        assertThat(result.status()).isEqualTo(OrderStatus.CANCELED);
+        assertThat(result.filledQuantity()).isEqualByComparingTo("4");
+        assertThat(result.remainingQuantity()).isEqualByComparingTo("6");
+        assertThat(book.restingOrderCount()).isZero();
+        assertThat(book.bestBid()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should cancel resting orders by id and drop emptied price levels")
+    void shouldCancelRestingOrders() {
+        book.match(limit(1L, OrderSide.BUY, "99.00", "5"));
+        book.match(limit(2L, OrderSide.BUY, "98.00", "5"));
+
+        assertThat(book.cancel(1L)).hasValueSatisfying(remaining -> assertThat(remaining).isEqualByComparingTo("5"));
+        assertThat(book.cancel(1L)).isEmpty();
+        assertThat(book.bestBid()).contains(new BigDecimal("98.00"));
+        assertThat(book.restingOrderCount()).isEqualTo(1);
+
+        MatchResult result = book.match(limit(3L, OrderSide.SELL, "98.00", "5"));
+        assertThat(result.fills()).extracting(Fill::makerOrderId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("should keep time priority when a replace only reduces quantity and lose it otherwise")
+    void shouldReplaceRestingOrders() {
+        book.match(limit(1L, OrderSide.SELL, "100.00", "10"));
+        book.match(limit(2L, OrderSide.SELL, "100.00", "5"));
+        book.match(limit(3L, OrderSide.BUY, "100.00", "4"));
+
+        MatchResult reduced = book.replace(limit(1L, OrderSide.SELL, "100.00", "3")).orElseThrow();
+        assertThat(reduced.status()).isEqualTo(OrderStatus.PARTIAL);
+        assertThat(reduced.filledQuantity()).isEqualByComparingTo("4");
+        assertThat(reduced.remainingQuantity()).isEqualByComparingTo("3");
+        assertThat(book.match(limit(4L, OrderSide.BUY, "100.00", "1")).fills()).extracting(Fill::makerOrderId).containsExactly(1L);
+
+        MatchResult increased = book.replace(limit(1L, OrderSide.SELL, "100.00", "6")).orElseThrow();
+        assertThat(increased.status()).isEqualTo(OrderStatus.PARTIAL);
+        assertThat(increased.filledQuantity()).isEqualByComparingTo("5");
+        assertThat(book.match(limit(5L, OrderSide.BUY, "100.00", "1")).fills()).extracting(Fill::makerOrderId).containsExactly(2L);
+
+        MatchResult repriced = book.replace(limit(2L, OrderSide.SELL, "98.00", "4")).orElseThrow();
+        assertThat(repriced.status()).isEqualTo(OrderStatus.PARTIAL);
+        assertThat(repriced.remainingQuantity()).isEqualByComparingTo("4");
+        assertThat(book.bestAsk()).contains(new BigDecimal("98.00"));
+        assertThat(book.replace(limit(9L, OrderSide.SELL, "98.00", "4"))).isEmpty();
+        assertThatThrownBy(() -> book.replace(market(2L, OrderSide.SELL, "98.00", "4"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should give makers back the quantity of an unrecorded match")
+    void shouldReinstateMakers() {
+        book.match(limit(1L, OrderSide.SELL, "100.00", "4"));
+        book.match(limit(2L, OrderSide.SELL, "100.00", "10"));
+        book.match(limit(3L, OrderSide.SELL, "100.00", "5"));
+        MatchResult unrecorded = book.match(limit(4L, OrderSide.BUY, "100.00", "7"));
+        assertThat(unrecorded.fills()).extracting(Fill::makerOrderId).containsExactly(1L, 2L);
+
+        book.reinstate(limit(2L, OrderSide.SELL, "100.00", "3"), BigDecimal.ZERO);
+        book.reinstate(limit(1L, OrderSide.SELL, "100.00", "4"), BigDecimal.ZERO);
+
+        // Order 2 never left the book and keeps its place; order 1 rests again behind order 3.
+        assertThat(book.restingOrderCount()).isEqualTo(3);
+        MatchResult sweep = book.match(limit(5L, OrderSide.BUY, "100.00", "19"));
+        assertThat(sweep.status()).isEqualTo(OrderStatus.FILLED);
+        assertThat(sweep.fills()).extracting(Fill::makerOrderId).containsExactly(2L, 3L, 1L);
+        assertThat(sweep.fills()).extracting(Fill::quantity).usingElementComparator(BigDecimal::compareTo).containsExactly(
+            new BigDecimal("10"),
+            new BigDecimal("5"),
+            new BigDecimal("4")
+        );
+        assertThat(book.restingOrderCount()).isZero();
+    }
+
+    private static BookOrder market(Long id, OrderSide side, String referencePrice, String quantity) {
+        return new BookOrder(id, "INFY", side, OrderType.MARKET, new BigDecimal(referencePrice), new BigDecimal(quantity), Tif.DAY);
+    }
+
+    private static BookOrder limit(Long id, OrderSide side, String price, String quantity) {
+        return limit(id, side, price, quantity, Tif.DAY);
+    }
+
+    private static BookOrder limit(Long id, OrderSide side, String price, String quantity, Tif tif) {
+        return new BookOrder(id, "INFY", side, OrderType.LIMIT, new BigDecimal(price), new BigDecimal(quantity), tif);
+    }
+}
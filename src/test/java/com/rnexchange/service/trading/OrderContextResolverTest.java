@@ -0,0 +1,113 @@
+package com.rnexchange.service.trading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rnexchange.domain.Instrument;
+import com.rnexchange.domain.MarginRule;
+import com.rnexchange.domain.TradingAccount;
+import com.rnexchange.domain.enumeration.AssetClass;
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.domain.enumeration.OrderType;
+import com.rnexchange.domain.enumeration.Tif;
+import com.rnexchange.repository.InstrumentRepository;
+import com.rnexchange.repository.MarginRuleRepository;
+import com.rnexchange.repository.TradingAccountRepository;
+import com.rnexchange.service.ReferenceDataCache;
+import com.rnexchange.service.dto.TraderOrderRequest;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OrderContextResolverTest {
+
+    private final TradingAccountRepository tradingAccountRepository = mock(TradingAccountRepository.class);
+    private final InstrumentRepository instrumentRepository = mock(InstrumentRepository.class);
+    private final MarginRuleRepository marginRuleRepository = mock(MarginRuleRepository.class);
+    private final OrderContextResolver resolver = new OrderContextResolver(
+        tradingAccountRepository,
+        new ReferenceDataCache(instrumentRepository, marginRuleRepository)
+    );
+
+    @Test
+    @DisplayName("should resolve account, instrument and margin rule once, preferring the cash scope")
+    void shouldResolveContextOnce() {
+        TradingAccount account = new TradingAccount().id(1L).balance(new BigDecimal("100000.00"));
+        Instrument instrument = new Instrument().symbol("RELIANCE").exchangeCode("NSE").assetClass(AssetClass.EQUITY);
+        when(tradingAccountRepository.findFirstByTrader_User_LoginOrderByIdAsc("trader-one")).thenReturn(Optional.of(account));
+        when(instrumentRepository.findOneBySymbol("RELIANCE")).thenReturn(Optional.of(instrument));
+        when(marginRuleRepository.findAllByExchange_CodeAndScopeIn("NSE", List.of("NSE_CASH", "NSE_FNO"))).thenReturn(
+            List.of(new MarginRule().scope("NSE_FNO"), new MarginRule().scope("NSE_CASH"))
+        );
+
+        OrderContext context = resolver.resolve(request("RELIANCE"));
+
+        assertThat(context.traderLogin()).isEqualTo("trader-one");
+        assertThat(context.tradingAccount()).isSameAs(account);
+        assertThat(context.instrument()).isSameAs(instrument);
+        assertThat(context.marginRule().getScope()).isEqualTo("NSE_CASH");
+        verify(marginRuleRepository, times(1)).findAllByExchange_CodeAndScopeIn(anyString(), any());
+        verify(marginRuleRepository, never()).findOneByExchange_CodeAndScope(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("should serve the instrument and margin rule of repeat orders from the reference data cache")
+    void shouldReuseCachedReferenceData() {
+        when(tradingAccountRepository.findFirstByTrader_User_LoginOrderByIdAsc("trader-one")).thenReturn(Optional.of(new TradingAccount()));
+        when(instrumentRepository.findOneBySymbol("TCS")).thenReturn(
+            Optional.of(new Instrument().symbol("TCS").exchangeCode("NSE").assetClass(AssetClass.EQUITY))
+        );
+        when(marginRuleRepository.findAllByExchange_CodeAndScopeIn("NSE", List.of("NSE_CASH", "NSE_FNO"))).thenReturn(
+            List.of(new MarginRule().scope("NSE_FNO"))
+        );
+
+        OrderContext first = resolver.resolve(request("TCS"));
+        OrderContext second = resolver.resolve(request("TCS"));
+
+        assertThat(second.instrument()).isSameAs(first.instrument());
+        assertThat(second.marginRule().getScope()).isEqualTo("NSE_FNO");
+        verify(instrumentRepository, times(1)).findOneBySymbol("TCS");
+        verify(marginRuleRepository, times(1)).findAllByExchange_CodeAndScopeIn(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("should fall back to the F&O rule for equities and fail when no rule applies")
+    void shouldFallBackToDerivativeScope() {
+        when(tradingAccountRepository.findFirstByTrader_User_LoginOrderByIdAsc("trader-one")).thenReturn(Optional.of(new TradingAccount()));
+        when(instrumentRepository.findOneBySymbol("INFY")).thenReturn(
+            Optional.of(new Instrument().symbol("INFY").exchangeCode("NSE").assetClass(AssetClass.EQUITY))
+        );
+        when(instrumentRepository.findOneBySymbol("GOLD")).thenReturn(
+            Optional.of(new Instrument().symbol("GOLD").exchangeCode("MCX").assetClass(AssetClass.COMMODITY))
+        );
+        when(marginRuleRepository.findAllByExchange_CodeAndScopeIn("NSE", List.of("NSE_CASH", "NSE_FNO"))).thenReturn(
+            List.of(new MarginRule().scope("NSE_FNO"))
+        );
+
+        assertThat(resolver.resolve(request("INFY")).marginRule().getScope()).isEqualTo("NSE_FNO");
+        assertThatThrownBy(() -> resolver.resolve(request("GOLD")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("MCX_COMMODITY");
+    }
+
+    private static TraderOrderRequest request(String symbol) {
+        return TraderOrderRequest.builder()
+            .traderLogin("trader-one")
+            .instrumentSymbol(symbol)
+            .side(OrderSide.BUY)
+            .type(OrderType.LIMIT)
+            .tif(Tif.DAY)
+            .quantity(BigDecimal.ONE)
+            .price(BigDecimal.TEN)
+            .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.rnexchange.service.trading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.IntegrationTest;
+import com.rnexchange.domain.Instrument;
+import com.rnexchange.domain.Position;
+import com.rnexchange.domain.enumeration.OrderSide;
+import com.rnexchange.repository.InstrumentRepository;
+import com.rnexchange.repository.PositionRepository;
+import com.rnexchange.repository.TradingAccountRepository;
+import com.rnexchange.service.seed.BaselineSeedService;
+import com.rnexchange.service.seed.dto.BaselineSeedRequest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@IntegrationTest
+class PositionUpdaterIT extends com.rnexchange.service.seed.AbstractBaselineSeedIT {
+
+    private static final int FILLS = 4;
+
+    @Autowired
+    private BaselineSeedService baselineSeedService;
+
+    @Autowired
+    private PositionUpdater positionUpdater;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Autowired
+    private TradingAccountRepository tradingAccountRepository;
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        BaselineSeedRequest request = BaselineSeedRequest.builder().force(true).invocationId(UUID.randomUUID()).build();
+        baselineSeedService.runBaselineSeedBlocking(request);
+    }
+
+    @Test
+    void concurrentFirstFillsShareOnePosition() throws Exception {
+        Long accountId = tradingAccountRepository.findFirstByTrader_User_LoginOrderByIdAsc("trader-one").orElseThrow().getId();
+        Instrument instrument = instrumentRepository.findOneBySymbol("RELIANCE").orElseThrow();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Every fill opens its transaction before any of them looks for the position, so all of them find none.
+        CyclicBarrier barrier = new CyclicBarrier(FILLS);
+        ExecutorService executor = Executors.newFixedThreadPool(FILLS);
+        try {
+            List<Future<?>> fills = new ArrayList<>();
+            for (int i = 0; i < FILLS; i++) {
+                fills.add(
+                    executor.submit(() ->
+                        transactionTemplate.executeWithoutResult(status -> {
+                            await(barrier);
+                            positionUpdater.applyFill(accountId, instrument, OrderSide.BUY, BigDecimal.ONE, new BigDecimal("2100.00"));
+                        })
+                    )
+                );
+            }
+            for (Future<?> fill : fills) {
+                fill.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Position> positions = positionRepository
+            .findAllWithInstrumentByTradingAccountId(accountId)
+            .stream()
+            .filter(position -> position.getInstrument().getId().equals(instrument.getId()))
+            .toList();
+        assertThat(positions).singleElement().satisfies(position -> {
+            assertThat(position.getQty()).isEqualByComparingTo(BigDecimal.valueOf(FILLS));
+            assertThat(position.getAvgCost()).isEqualByComparingTo("2100.00");
+        });
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Fills did not start together", ex);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.rnexchange.service.trading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rnexchange.domain.Position;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PositionUpdaterTest {
+
+    @Test
+    @DisplayName("should average the cost of fills that open or extend a position")
+    void shouldAverageOpeningFills() {
+        Position position = new Position().qty(BigDecimal.ZERO).avgCost(BigDecimal.ZERO);
+
+        PositionUpdater.apply(position, new BigDecimal("10"), new BigDecimal("100.00"));
+        PositionUpdater.apply(position, new BigDecimal("5"), new BigDecimal("106.00"));
+
+        assertThat(position.getQty()).isEqualByComparingTo("15");
+        assertThat(position.getAvgCost()).isEqualByComparingTo("102.00");
+        assertThat(position.getLastPx()).isEqualByComparingTo("106.00");
+        assertThat(position.getRealizedPnl()).isEqualByComparingTo("0.00");
+        assertThat(position.getUnrealizedPnl()).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    @DisplayName("should realize the difference to the average cost on fills that reduce a position")
+    void shouldRealizeReducingFills() {
+        Position position = new Position().qty(new BigDecimal("-10")).avgCost(new BigDecimal("200.00")).realizedPnl(BigDecimal.ZERO);
+
+        PositionUpdater.apply(position, new BigDecimal("4"), new BigDecimal("190.00"));
+
+        assertThat(position.getQty()).isEqualByComparingTo("-6");
+        assertThat(position.getAvgCost()).isEqualByComparingTo("200.00");
+        assertThat(position.getRealizedPnl()).isEqualByComparingTo("40.00");
+
+        PositionUpdater.apply(position, new BigDecimal("6"), new BigDecimal("210.00"));
+
+        assertThat(position.getQty()).isEqualByComparingTo("0");
+        assertThat(position.getAvgCost()).isEqualByComparingTo("0.00");
+        assertThat(position.getRealizedPnl()).isEqualByComparingTo("-20.00");
+    }
+
+    @Test
+    @DisplayName("should open the other side at the fill price when a fill flips the position")
+    void shouldFlipPosition() {
+        Position position = new Position().qty(new BigDecimal("3")).avgCost(new BigDecimal("50.00")).realizedPnl(BigDecimal.ZERO);
+
+        PositionUpdater.apply(position, new BigDecimal("-5"), new BigDecimal("55.00"));
+
+        assertThat(position.getQty()).isEqualByComparingTo("-2");
+        assertThat(position.getAvgCost()).isEqualByComparingTo("55.00");
+        assertThat(position.getRealizedPnl()).isEqualByComparingTo("15.00");
+        assertThat(position.getUnrealizedPnl()).isEqualByComparingTo("0.00");
+    }
+}
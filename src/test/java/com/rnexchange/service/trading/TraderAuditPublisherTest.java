@@ -0,0 +1,159 @@
+package com.rnexchange.service.trading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rnexchange.config.TradingProperties;
+import com.rnexchange.config.TradingProperties.AuditOverflow;
+import com.rnexchange.service.trading.TraderAuditStructuredLogger.TraderAuditPayload;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraderAuditPublisherTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private TraderAuditPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("should append every published record to the audit file as one JSON line")
+    void shouldAppendRecordsToFile() throws IOException {
+        Path file = tempDir.resolve("audit/trader-audit.log");
+        publisher = new TraderAuditPublisher(
+            properties(file, 1024, AuditOverflow.WRITE_THROUGH),
+            new TraderAuditStructuredLogger(OBJECT_MAPPER)
+        );
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(publisher.publish(payload("trader-" + i))).isTrue();
+        }
+        publisher.flush();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(10);
+        JsonNode first = OBJECT_MAPPER.readTree(lines.get(0));
+        assertThat(first.get("actorId").asText()).isEqualTo("trader-0");
+        assertThat(first.get("timestamp").asText()).isEqualTo("2024-01-02T03:04:05Z");
+        assertThat(first.get("quantity").asText()).isEqualTo("10.00");
+        assertThat(first.get("price").asText()).isEqualTo("2200.50");
+        assertThat(publisher.getQueuedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should drop and count records once the queue is full when overflow is DROP")
+    void shouldDropWhenQueueIsFull() throws Exception {
+        Path file = tempDir.resolve("trader-audit.log");
+        BlockingLogger logger = new BlockingLogger();
+        publisher = new TraderAuditPublisher(properties(file, 16, AuditOverflow.DROP), logger);
+
+        publisher.publish(payload("blocked"));
+        assertThat(logger.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 16; i++) {
+            assertThat(publisher.publish(payload("queued-" + i))).isTrue();
+        }
+        assertThat(publisher.publish(payload("overflow"))).isFalse();
+        assertThat(publisher.getDroppedCount()).isEqualTo(1);
+
+        logger.release.countDown();
+        publisher.flush();
+
+        assertThat(Files.readAllLines(file)).hasSize(17).noneMatch(line -> line.contains("overflow"));
+    }
+
+    @Test
+    @DisplayName("should write the record on the submitting thread once the queue is full when overflow is WRITE_THROUGH")
+    void shouldWriteThroughWhenQueueIsFull() throws Exception {
+        Path file = tempDir.resolve("trader-audit.log");
+        BlockingLogger logger = new BlockingLogger();
+        publisher = new TraderAuditPublisher(properties(file, 16, AuditOverflow.WRITE_THROUGH), logger);
+
+        publisher.publish(payload("blocked"));
+        assertThat(logger.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 16; i++) {
+            publisher.publish(payload("queued-" + i));
+        }
+        Thread submitter = new Thread(() -> publisher.publish(payload("overflow")));
+        submitter.start();
+        // The writer still holds the sink, so a write-through submitter waits for it instead of enqueueing.
+        while (submitter.getState() != Thread.State.BLOCKED && submitter.getState() != Thread.State.TERMINATED) {
+            Thread.onSpinWait();
+        }
+        assertThat(submitter.getState()).isEqualTo(Thread.State.BLOCKED);
+        logger.release.countDown();
+        submitter.join(TimeUnit.SECONDS.toMillis(5));
+        publisher.flush();
+
+        assertThat(publisher.getDroppedCount()).isZero();
+        assertThat(Files.readAllLines(file)).hasSize(18).anyMatch(line -> line.contains("overflow"));
+    }
+
+    private static TradingProperties properties(Path file, int queueCapacity, AuditOverflow overflow) {
+        TradingProperties properties = new TradingProperties();
+        TradingProperties.AuditProperties audit = properties.getAudit();
+        audit.setFile(file);
+        audit.setQueueCapacity(queueCapacity);
+        audit.setOverflow(overflow);
+        audit.setFlushIntervalMs(5);
+        return properties;
+    }
+
+    private static TraderAuditPayload payload(String actorId) {
+        return new TraderAuditPayload(
+            1_704_164_645_000L,
+            actorId,
+            "TRADER",
+            "RELIANCE",
+            "ACCEPTED",
+            "ACCEPTED",
+            null,
+            new BigDecimal("10"),
+            new BigDecimal("2200.5")
+        );
+    }
+
+    /**
+     * Holds the writer inside its first record until released, so the queue can be filled behind it.
+     */
+    private static final class BlockingLogger extends TraderAuditStructuredLogger {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private BlockingLogger() {
+            super(OBJECT_MAPPER);
+        }
+
+        @Override
+        public String build(TraderAuditPayload payload) {
+            if ("blocked".equals(payload.actorId())) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.build(payload);
+        }
+    }
+}
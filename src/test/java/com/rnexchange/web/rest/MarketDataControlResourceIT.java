@@ -2,6 +2,7 @@ package com.rnexchange.web.rest;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,6 +30,7 @@ class MarketDataControlResourceIT {
     private static final String START_URL = "/api/marketdata/mock/start";
     private static final String STOP_URL = "/api/marketdata/mock/stop";
     private static final String STATUS_URL = "/api/marketdata/mock/status";
+    private static final String RATE_URL = "/api/marketdata/mock/rate";
 
     @Autowired
     private MockMvc mockMvc;
@@ -94,4 +96,34 @@ class MarketDataControlResourceIT {
     void traderCannotStartFeed() throws Exception {
         mockMvc.perform(post(START_URL).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isForbidden());
     }
+
+    @Test
+    @WithMockUser(username = "exchange-operator", authorities = "EXCHANGE_OPERATOR")
+    void retuneRateWhileRunning() throws Exception {
+        mockMvc.perform(post(START_URL).contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+
+        try {
+            mockMvc
+                .perform(put(RATE_URL).contentType(MediaType.APPLICATION_JSON).content("{\"intervalMs\":200,\"batchSize\":8}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intervalMs").value(200))
+                .andExpect(jsonPath("$.batchSize").value(8));
+
+            mockMvc
+                .perform(get(STATUS_URL).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.globalState").value(FeedState.RUNNING.name()));
+        } finally {
+            mockMvc.perform(put(RATE_URL).contentType(MediaType.APPLICATION_JSON).content("{\"intervalMs\":750,\"batchSize\":4}"));
+            mockMvc.perform(post(STOP_URL).contentType(MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "exchange-operator", authorities = "EXCHANGE_OPERATOR")
+    void retuneRejectsOutOfRangeInterval() throws Exception {
+        mockMvc
+            .perform(put(RATE_URL).contentType(MediaType.APPLICATION_JSON).content("{\"intervalMs\":10,\"batchSize\":4}"))
+            .andExpect(status().isBadRequest());
+    }
 }
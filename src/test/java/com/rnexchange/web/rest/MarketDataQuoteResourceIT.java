@@ -0,0 +1,125 @@
+package com.rnexchange.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.rnexchange.IntegrationTest;
+import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.LastQuoteCache;
+import com.rnexchange.service.marketdata.WatchlistAuthorizationService;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@IntegrationTest
+@AutoConfigureMockMvc
+class MarketDataQuoteResourceIT {
+
+    private static final String QUOTES_URL = "/api/marketdata/quotes";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LastQuoteCache lastQuoteCache;
+
+    @Autowired
+    private WatchlistAuthorizationService authorizationService;
+
+    @BeforeEach
+    void setUp() {
+        lastQuoteCache.putAll(List.of(quote("QTEST_A", "100.00"), quote("QTEST_B", "200.00")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        lastQuoteCache.remove("QTEST_A");
+        lastQuoteCache.remove("QTEST_B");
+        authorizationService.reset();
+    }
+
+    @Test
+    @WithMockUser(username = "trader-one", authorities = "TRADER")
+    void returnsCachedQuotesInRequestOrderWithEtag() throws Exception {
+        mockMvc
+            .perform(get(QUOTES_URL).param("symbols", "QTEST_B,QTEST_UNKNOWN,QTEST_A"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].symbol").value("QTEST_B"))
+            .andExpect(jsonPath("$[1].symbol").value("QTEST_A"));
+    }
+
+    @Test
+    @WithMockUser(username = "trader-one", authorities = "TRADER")
+    void answersNotModifiedUntilARequestedQuoteChanges() throws Exception {
+        String etag = mockMvc
+            .perform(get(QUOTES_URL).param("symbols", "QTEST_A"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc
+            .perform(get(QUOTES_URL).param("symbols", "QTEST_A").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        lastQuoteCache.put(quote("QTEST_A", "101.00"));
+
+        mockMvc
+            .perform(get(QUOTES_URL).param("symbols", "QTEST_A").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].lastPrice").value(101.0));
+    }
+
+    @Test
+    @WithMockUser(username = "trader-one", authorities = "TRADER")
+    void rejectsMoreThanTheSymbolLimit() throws Exception {
+        String symbols = IntStream.rangeClosed(1, 201).mapToObj(i -> "SYM" + i).collect(Collectors.joining(","));
+
+        mockMvc.perform(get(QUOTES_URL).param("symbols", symbols)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "trader-one", authorities = "TRADER")
+    void rejectsBlankSymbols() throws Exception {
+        mockMvc.perform(get(QUOTES_URL).param("symbols", " , ")).andExpect(status().isBadRequest());
+        mockMvc.perform(get(QUOTES_URL).param("symbols", "")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "trader-one", authorities = "TRADER")
+    void leavesOutSymbolsTheUserMayNotSee() throws Exception {
+        authorizationService.grantSymbols("trader-one", List.of("QTEST_A"));
+
+        mockMvc
+            .perform(get(QUOTES_URL).param("symbols", "QTEST_A,QTEST_B"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].symbol").value("QTEST_A"));
+    }
+
+    @Test
+    void requiresAuthentication() throws Exception {
+        mockMvc.perform(get(QUOTES_URL).param("symbols", "QTEST_A")).andExpect(status().isUnauthorized());
+    }
+
+    private static QuoteDTO quote(String symbol, String price) {
+        BigDecimal last = new BigDecimal(price);
+        return new QuoteDTO(symbol, last, last, BigDecimal.ZERO, BigDecimal.ZERO, 10L, Instant.parse("2025-11-14T09:15:00Z"));
+    }
+}
@@ -1,21 +1,34 @@
 package com.rnexchange.web.websocket;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.rnexchange.service.dto.BarDTO;
 import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.BarTimeframe;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,26 +37,39 @@ class MarketDataWebSocketHandlerTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    private MarketDataSessionRegistry sessionRegistry;
+
     private MarketDataWebSocketHandler handler;
 
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     @BeforeEach
     void setUp() {
-        handler = new MarketDataWebSocketHandler(messagingTemplate);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        when(messagingTemplate.getMessageConverter()).thenReturn(converter);
+        sessionRegistry = new MarketDataSessionRegistry();
+        handler = new MarketDataWebSocketHandler(messagingTemplate, sessionRegistry);
     }
 
     @Test
-    void broadcastsQuotesToDestination() {
+    void broadcastsPreSerializedQuotesToDestination() throws Exception {
         QuoteDTO quote = new QuoteDTO("INFY", BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, 1000L, Instant.now());
 
         handler.broadcastQuote(quote);
 
-        verify(messagingTemplate).convertAndSend("/topic/quotes/INFY", quote);
+        ArgumentCaptor<Message<?>> frame = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/quotes/INFY"), frame.capture());
+        JsonNode json = objectMapper.readTree((byte[]) frame.getValue().getPayload());
+        assertThat(json.get("symbol").asText()).isEqualTo("INFY");
+        assertThat(json.get("volume").asLong()).isEqualTo(1000L);
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
     }
 
     @Test
     void continuesWhenMessagingFails() {
         QuoteDTO quote = new QuoteDTO("INFY", BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, 1000L, Instant.now());
-        doThrow(new IllegalStateException("broker down")).when(messagingTemplate).convertAndSend("/topic/quotes/" + quote.symbol(), quote);
+        doThrow(new IllegalStateException("broker down")).when(messagingTemplate).send(eq("/topic/quotes/INFY"), any(Message.class));
 
         assertThatCode(() -> handler.broadcastQuote(quote)).doesNotThrowAnyException();
     }
@@ -54,6 +80,87 @@ class MarketDataWebSocketHandlerTest {
 
         handler.broadcastBar(bar);
 
-        verify(messagingTemplate).convertAndSend(eq("/topic/bars/INFY"), eq(bar));
+        verify(messagingTemplate).send(eq("/topic/bars/INFY"), any(Message.class));
+    }
+
+    @Test
+    void serializesClosedBarOnceForPrimaryAndTimeframeTopics() {
+        BarDTO bar = new BarDTO("INFY", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN, 5L, Instant.now());
+        sessionRegistry.subscribe("session-1", "sub-0", "/topic/bars/1m/INFY");
+
+        handler.broadcastClosedBar(BarTimeframe.M1, bar, true);
+
+        ArgumentCaptor<Message<?>> primary = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<Message<?>> timeframe = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/bars/INFY"), primary.capture());
+        verify(messagingTemplate).send(eq("/topic/bars/1m/INFY"), timeframe.capture());
+        assertThat(primary.getValue()).isNotSameAs(timeframe.getValue());
+        assertThat(primary.getValue().getPayload()).isSameAs(timeframe.getValue().getPayload());
+    }
+
+    @Test
+    void sendsOneCompactFrameForNegotiatedSessions() throws Exception {
+        Instant timestamp = Instant.parse("2025-11-14T09:15:00Z");
+        QuoteDTO infy = new QuoteDTO(
+            "INFY",
+            new BigDecimal("101.25"),
+            new BigDecimal("100.00"),
+            new BigDecimal("1.25"),
+            new BigDecimal("1.25"),
+            1000L,
+            timestamp
+        );
+        QuoteDTO tcs = new QuoteDTO(
+            "TCS",
+            new BigDecimal("99.50"),
+            new BigDecimal("100.00"),
+            new BigDecimal("-0.50"),
+            new BigDecimal("-0.50"),
+            500L,
+            timestamp
+        );
+        sessionRegistry.register("session-1", "trader-one", QuoteFormat.COMPACT);
+        sessionRegistry.subscribe("session-1", "sub-0", MarketDataWebSocketHandler.COMPACT_QUOTES_DESTINATION);
+
+        handler.broadcastQuotes(List.of(infy, tcs));
+
+        verify(messagingTemplate).send(eq("/topic/quotes/INFY"), any(Message.class));
+        verify(messagingTemplate).send(eq("/topic/quotes/TCS"), any(Message.class));
+        ArgumentCaptor<Message<?>> frame = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(MarketDataWebSocketHandler.COMPACT_QUOTES_DESTINATION), frame.capture());
+        JsonNode json = new ObjectMapper().readTree((byte[]) frame.getValue().getPayload());
+        assertThat(json.get("s")).extracting(JsonNode::asText).containsExactly("INFY", "TCS");
+        assertThat(json.get("l")).extracting(JsonNode::asLong).containsExactly(10125L, 9950L);
+        assertThat(json.get("c")).extracting(JsonNode::asLong).containsExactly(125L, -50L);
+        assertThat(json.get("t").get(0).asLong()).isEqualTo(timestamp.toEpochMilli());
+    }
+
+    @Test
+    void skipsCompactFrameWithoutSubscribers() {
+        QuoteDTO quote = new QuoteDTO("INFY", BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, 1000L, Instant.now());
+
+        handler.broadcastQuotes(List.of(quote));
+
+        verify(messagingTemplate, never()).send(eq(MarketDataWebSocketHandler.COMPACT_QUOTES_DESTINATION), any(Message.class));
+    }
+
+    @Test
+    void sendsOneBatchedFramePerSubscribedSession() throws Exception {
+        QuoteDTO infy = new QuoteDTO("INFY", BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, 1000L, Instant.now());
+        QuoteDTO tcs = new QuoteDTO("TCS", BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, 500L, Instant.now());
+        QuoteDTO itc = new QuoteDTO("ITC", BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, 200L, Instant.now());
+        sessionRegistry.register("session-1", "trader-one", QuoteFormat.JSON);
+        sessionRegistry.subscribeBatched("session-1", "sub-0", Set.of("INFY", "TCS", "WIPRO"));
+        sessionRegistry.register("session-2", "trader-two", QuoteFormat.JSON);
+        sessionRegistry.subscribeBatched("session-2", "sub-0", Set.of("WIPRO"));
+
+        handler.broadcastQuotes(List.of(infy, tcs, itc));
+
+        ArgumentCaptor<Message<?>> frame = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/user/session-1/queue/quotes"), frame.capture());
+        JsonNode json = objectMapper.readTree((byte[]) frame.getValue().getPayload());
+        assertThat(json).extracting(node -> node.get("symbol").asText()).containsExactlyInAnyOrder("INFY", "TCS");
+        assertThat(SimpMessageHeaderAccessor.getSessionId(frame.getValue().getHeaders())).isEqualTo("session-1");
+        verify(messagingTemplate, never()).send(eq("/user/session-2/queue/quotes"), any(Message.class));
     }
 }
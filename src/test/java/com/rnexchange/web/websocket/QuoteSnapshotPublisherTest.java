@@ -0,0 +1,96 @@
+package com.rnexchange.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rnexchange.service.dto.QuoteDTO;
+import com.rnexchange.service.marketdata.LastQuoteCache;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+class QuoteSnapshotPublisherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MessageChannel clientOutboundChannel = mock(MessageChannel.class);
+    private final LastQuoteCache lastQuoteCache = new LastQuoteCache();
+    private final MarketDataSessionRegistry sessionRegistry = new MarketDataSessionRegistry();
+
+    private QuoteSnapshotPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        when(messagingTemplate.getMessageConverter()).thenReturn(converter);
+        publisher = new QuoteSnapshotPublisher(lastQuoteCache, sessionRegistry, clientOutboundChannel, messagingTemplate);
+        lastQuoteCache.putAll(List.of(quote("INFY", "101.25"), quote("TCS", "99.50")));
+    }
+
+    @Test
+    void sendsCachedQuoteToTheNewSymbolSubscriptionOnly() throws Exception {
+        publisher.onSubscribe(subscribeEvent("session-1", "sub-0", "/topic/quotes/INFY"));
+
+        ArgumentCaptor<Message<?>> frame = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel).send(frame.capture());
+        assertThat(SimpMessageHeaderAccessor.getSessionId(frame.getValue().getHeaders())).isEqualTo("session-1");
+        assertThat(SimpMessageHeaderAccessor.getSubscriptionId(frame.getValue().getHeaders())).isEqualTo("sub-0");
+        JsonNode json = objectMapper.readTree((byte[]) frame.getValue().getPayload());
+        assertThat(json.get("symbol").asText()).isEqualTo("INFY");
+        assertThat(json.get("lastPrice").decimalValue()).isEqualByComparingTo("101.25");
+    }
+
+    @Test
+    void sendsBatchedSnapshotForTheSessionSymbols() throws Exception {
+        sessionRegistry.register("session-1", "trader-one", QuoteFormat.JSON);
+        sessionRegistry.subscribeBatched("session-1", "sub-1", Set.of("TCS", "WIPRO"));
+
+        publisher.onSubscribe(subscribeEvent("session-1", "sub-1", MarketDataWebSocketHandler.USER_QUOTES_DESTINATION));
+
+        ArgumentCaptor<Message<?>> frame = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel).send(frame.capture());
+        JsonNode json = objectMapper.readTree((byte[]) frame.getValue().getPayload());
+        assertThat(json).extracting(node -> node.get("symbol").asText()).containsExactly("TCS");
+    }
+
+    @Test
+    void skipsSymbolsWithoutCachedQuote() {
+        publisher.onSubscribe(subscribeEvent("session-1", "sub-0", "/topic/quotes/WIPRO"));
+
+        verify(clientOutboundChannel, never()).send(any());
+    }
+
+    private static SessionSubscribeEvent subscribeEvent(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return new SessionSubscribeEvent(new Object(), MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private static QuoteDTO quote(String symbol, String price) {
+        BigDecimal last = new BigDecimal(price);
+        return new QuoteDTO(symbol, last, last, BigDecimal.ZERO, BigDecimal.ZERO, 10L, Instant.parse("2025-11-14T09:15:00Z"));
+    }
+}
@@ -5,7 +5,7 @@ Feature: Trader baseline order flow
 
   Scenario: Trader one submits NSE RELIANCE buy order with sufficient margin
     When trader "trader-one" submits a "BUY" market order for instrument "RELIANCE" with quantity 10 at price 2200.00
-    Then the submitted order status is "ACCEPTED"
+    Then the submitted order status is "CANCELED"
     And the margin check recorded initial requirement "4400.00" and remaining balance "995600.00"
 
   Scenario: Trader one submits NSE RELIANCE buy order that breaches margin